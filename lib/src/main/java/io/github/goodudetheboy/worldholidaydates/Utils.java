@@ -1,6 +1,7 @@
 package io.github.goodudetheboy.worldholidaydates;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -63,6 +64,37 @@ public class Utils {
         }
     }
 
+    /**
+     * Reads the content of a file from ./resource folder
+     * 
+     * @param fileName a file name in the ./resource folder
+     * @return the bytes of the file
+     * @throws IOException when the file can't be read
+     */
+    public static byte[] readFileFromResourceAsBytes(String fileName) throws IOException {
+        try (InputStream in = getFileFromResourceAsStream(fileName)) {
+            return readAllBytes(in);
+        }
+    }
+
+    /**
+     * Reads all the remaining bytes of an {@link InputStream}, which is not
+     * closed
+     * 
+     * @param in an {@link InputStream}
+     * @return the bytes read
+     * @throws IOException when the stream can't be read
+     */
+    public static byte[] readAllBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
     /**
      * Capitalize a string
      * 
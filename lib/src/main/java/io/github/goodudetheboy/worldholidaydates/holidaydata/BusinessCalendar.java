@@ -0,0 +1,293 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The business days of a country or a subdivision, such as "US" or "US-CA":
+ * the days that are neither in its weekend nor a holiday of its
+ * {@link HolidayCalendar}, whose holiday types are the non-working ones.
+ * <p>
+ * The business days of a year are a bitset by day of the year, from the
+ * holiday bitset of the {@link HolidayCalendar} and a weekend mask, so that
+ * the business days of a year are counted with a few popcounts, and the
+ * queries over a span of years take a time proportional to the count of
+ * years, not of days.
+ * <p>
+ * This class is thread-safe if its {@link HolidayCalendar} is.
+ */
+public final class BusinessCalendar {
+    /**
+     * The weekend of the regions without a day off, see
+     * {@link Country#getDayoff()}
+     */
+    public static final DayOfWeek   DEFAULT_DAY_OFF = DayOfWeek.SUNDAY;
+
+    // the count of longs of a bitset of 366 bits
+    private static final int        BITSET_LENGTH   = 6;
+
+    private final   HolidayCalendar holidays;
+    private final   String          region;
+    private final   Set<DayOfWeek>  weekend;
+    // the weekend days of a year by the day of week of January 1st - 1, as
+    // bits by day of the year - 1
+    private final   long[][]        weekendBits     = new long[7][BITSET_LENGTH];
+
+    /**
+     * Creates the business calendar of a region, whose weekend is its day
+     * off, or the one of the nearest level above it, see
+     * {@link Country#getDayoff()} and
+     * {@link HolidayData#getResolvedRegion(String)}, or
+     * {@link #DEFAULT_DAY_OFF} if none has a valid one.
+     *
+     * @param holidays the holidays
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    public BusinessCalendar(HolidayCalendar holidays, String region) {
+        this(holidays, region, EnumSet.of(dayOffOf(holidays.getResolvedRegion(region))));
+    }
+
+    /**
+     * Creates the business calendar of a region with a weekend.
+     *
+     * @param holidays the holidays
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param weekend the days of the week that are not business days, such as
+     *      Saturday and Sunday
+     * @throws IllegalArgumentException if the region doesn't exist, or if the
+     *      weekend is the whole week
+     */
+    public BusinessCalendar(HolidayCalendar holidays, String region, Set<DayOfWeek> weekend) {
+        if (weekend.size() == 7) {
+            throw new IllegalArgumentException("The weekend must not be the whole week");
+        }
+        holidays.getResolvedRegion(region); // throws if the region doesn't exist
+        this.holidays = holidays;
+        this.region = region;
+        this.weekend = Collections.unmodifiableSet(weekend.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekend));
+        for (int first = 0; first < 7; first++) {
+            for (int day = 0; day < 366; day++) {
+                if (this.weekend.contains(DayOfWeek.of((first + day) % 7 + 1))) {
+                    weekendBits[first][day >>> 6] |= 1L << day;
+                }
+            }
+        }
+    }
+
+    /**
+     * The day off of a region, or the default one.
+     */
+    private static DayOfWeek dayOffOf(Country region) {
+        DayOfWeek dayOff = parseDayOff(region.getDayoff());
+        return (dayOff != null) ? dayOff : DEFAULT_DAY_OFF;
+    }
+
+    /**
+     * Parses a day off of the data, such as "sunday" or "sundays".
+     *
+     * @return the day of the week, or null if there's none
+     */
+    @Nullable
+    static DayOfWeek parseDayOff(@Nullable String dayOff) {
+        if (dayOff == null) {
+            return null;
+        }
+        String name = dayOff.trim().toUpperCase(Locale.ROOT);
+        if (name.endsWith("S")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().equals(name)) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    public HolidayCalendar getHolidayCalendar() {
+        return holidays;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * @return the days of the week that are not business days
+     */
+    public Set<DayOfWeek> getWeekend() {
+        return weekend;
+    }
+
+    /**
+     * @param date a date
+     * @return true if the date is neither in the weekend nor a holiday
+     */
+    public boolean isBusinessDay(LocalDate date) {
+        int bit = date.getDayOfYear() - 1;
+        return (businessBits(date.getYear())[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @param date a date
+     * @return the first business day after the date
+     */
+    public LocalDate nextBusinessDay(LocalDate date) {
+        return addBusinessDays(date, 1);
+    }
+
+    /**
+     * @param date a date
+     * @return the last business day before the date
+     */
+    public LocalDate previousBusinessDay(LocalDate date) {
+        return addBusinessDays(date, -1);
+    }
+
+    /**
+     * Adds business days to a date, the date itself not counted: adding 1 day
+     * to a Friday gives the next Monday if Saturday and Sunday are the
+     * weekend and Monday is not a holiday.
+     *
+     * @param date a date
+     * @param days the count of business days to add, subtracted if negative
+     * @return the n-th business day after the date, or before it if n is
+     *      negative, or the date itself if n is 0
+     */
+    public LocalDate addBusinessDays(LocalDate date, long days) {
+        if (days == 0) {
+            return date;
+        }
+        int year = date.getYear();
+        long[] bits = businessBits(year);
+        long remaining = Math.abs(days);
+        if (days > 0) {
+            int from = date.getDayOfYear();
+            int available = count(bits) - rank(bits, from);
+            while (remaining > available) {
+                remaining -= available;
+                year++;
+                bits = businessBits(year);
+                from = 0;
+                available = count(bits);
+            }
+            return LocalDate.ofYearDay(year, select(bits, rank(bits, from) + (int) remaining - 1) + 1);
+        }
+        int available = rank(bits, date.getDayOfYear() - 1);
+        while (remaining > available) {
+            remaining -= available;
+            year--;
+            bits = businessBits(year);
+            available = count(bits);
+        }
+        return LocalDate.ofYearDay(year, select(bits, available - (int) remaining) + 1);
+    }
+
+    /**
+     * Counts the business days from a date, inclusive, to another, exclusive.
+     *
+     * @param from the first date
+     * @param to the date after the last one
+     * @return the count of business days, negative if to is before from
+     */
+    public long businessDaysBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return -businessDaysBetween(to, from);
+        }
+        int fromYear = from.getYear();
+        int toYear = to.getYear();
+        long[] bits = businessBits(fromYear);
+        if (fromYear == toYear) {
+            return rank(bits, to.getDayOfYear() - 1) - rank(bits, from.getDayOfYear() - 1);
+        }
+        long result = count(bits) - rank(bits, from.getDayOfYear() - 1);
+        for (int year = fromYear + 1; year < toYear; year++) {
+            result += count(businessBits(year));
+        }
+        return result + rank(businessBits(toYear), to.getDayOfYear() - 1);
+    }
+
+    /**
+     * Counts the business days of a year.
+     *
+     * @param year a year
+     * @return the count of business days
+     */
+    public int countBusinessDays(int year) {
+        return count(businessBits(year));
+    }
+
+    /**
+     * @return the bitset of the business days of a year, by day of the
+     *      year - 1
+     */
+    private long[] businessBits(int year) {
+        long[] holidayBits = holidays.getHolidayBits(region, year);
+        long[] weekendBits = this.weekendBits[LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1];
+        long[] result = new long[BITSET_LENGTH];
+        for (int i = 0; i < BITSET_LENGTH; i++) {
+            result[i] = ~(holidayBits[i] | weekendBits[i]);
+        }
+        // clear the bits after the last day of the year
+        int lastWordBits = Year.isLeap(year) ? 366 - 320 : 365 - 320;
+        result[BITSET_LENGTH - 1] &= (1L << lastWordBits) - 1;
+        return result;
+    }
+
+    private static int count(long[] bits) {
+        int result = 0;
+        for (long word : bits) {
+            result += Long.bitCount(word);
+        }
+        return result;
+    }
+
+    /**
+     * @return the count of the set bits before an index
+     */
+    private static int rank(long[] bits, int index) {
+        int result = 0;
+        int word = index >>> 6;
+        for (int i = 0; i < word; i++) {
+            result += Long.bitCount(bits[i]);
+        }
+        if (word < bits.length) {
+            result += Long.bitCount(bits[word] & ((1L << index) - 1));
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the set bit of a rank, from 0
+     */
+    private static int select(long[] bits, int rank) {
+        int remaining = rank;
+        for (int i = 0; i < bits.length; i++) {
+            int count = Long.bitCount(bits[i]);
+            if (remaining < count) {
+                long word = bits[i];
+                for (int j = 0; j < remaining; j++) {
+                    word &= word - 1;
+                }
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            remaining -= count;
+        }
+        throw new IllegalStateException("No set bit of rank " + rank);
+    }
+
+    @Override
+    public String toString() {
+        return region + ", weekend: " + weekend;
+    }
+}
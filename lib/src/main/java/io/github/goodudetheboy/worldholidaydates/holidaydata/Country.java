@@ -3,11 +3,18 @@ package io.github.goodudetheboy.worldholidaydates.holidaydata;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.Nullable;
 
+import io.github.goodudetheboy.worldholidaydates.holidayparser.CompiledRule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayOccurrence;
 import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
 
 /**
@@ -23,9 +30,20 @@ public class Country {
     private     String[]    zones       = null;
     private     String[]    refDays     = null;
     private     List<Holiday>           days       = null;
+    private     String[]    removedDays = null;
     private     Map<Rule, Object>       rawDays    = null;
     private     Map<String, Country>    states     = null;
     private     Map<String, Country>    regions    = null;
+    // true if this Country is shared and can't be modified anymore
+    private     boolean     frozen      = false;
+    // the count of the holidays calculated, and of the ones skipped without
+    // calculation because they're not applicable in the year
+    private final   LongAdder   evaluations         = new LongAdder();
+    private final   LongAdder   skippedEvaluations  = new LongAdder();
+
+    // the count of the modifications of all the countries and holidays, which
+    // invalidates the resolved regions, see HolidayData#getResolvedRegion
+    private static final AtomicLong modifications   = new AtomicLong();
 
     /**
      * Default constructor
@@ -52,21 +70,21 @@ public class Country {
      * @return the languages used by this {@link Country}
      */
     public String[] getLangs() {
-        return langs;
+        return copyIfFrozen(langs);
     }
 
     /**
      * @return the timezones used by this {@link Country}
      */
     public String[] getZones() {
-        return zones;
+        return copyIfFrozen(zones);
     }
 
     /**
      * @return reference days
      */
     public String[] getReferenceDays() {
-        return refDays;
+        return copyIfFrozen(refDays);
     }
 
     /**
@@ -76,6 +94,14 @@ public class Country {
         return days;
     }
 
+    /**
+     * @return the rules of the holidays of the country above this subdivision
+     *      that don't apply in it, the ones set to false in its "days"
+     */
+    public String[] getRemovedDays() {
+        return copyIfFrozen(removedDays);
+    }
+
     /**
      * @return the raw data of the national holidays of this {@link Country},
      *      useful during debugging
@@ -124,6 +150,7 @@ public class Country {
      * @param names the names of this {@link Country} by language
      */
     public void setNames(Map<String, String> names) {
+        checkNotFrozen();
         this.names = names;
     }
 
@@ -133,6 +160,7 @@ public class Country {
      * @param name the name of this {@link Country} in English
      */
     public void setName(String name) {
+        checkNotFrozen();
         this.name = name;
     }
 
@@ -142,6 +170,7 @@ public class Country {
      * @param dayoff the day off of this {@link Country}
      */
     public void setDayoff(String dayoff) {
+        checkNotFrozen();
         this.dayoff = dayoff;
     }
 
@@ -151,6 +180,7 @@ public class Country {
      * @param langs the languages used by this {@link Country}
      */
     public void setLangs(String[] langs) {
+        checkNotFrozen();
         this.langs = langs;
     }
 
@@ -160,6 +190,7 @@ public class Country {
      * @param zones the timezones used by this {@link Country}
      */
     public void setZones(String[] zones) {
+        checkNotFrozen();
         this.zones = zones;
     }
 
@@ -169,6 +200,7 @@ public class Country {
      * @param refDays the reference days
      */
     public void setReferenceDays(String[] refDays) {
+        checkNotFrozen();
         this.refDays = refDays;
     }
 
@@ -178,15 +210,28 @@ public class Country {
      * @param days the national holidays of this {@link Country}
      */
     public void setDays(List<Holiday> days) {
+        checkNotFrozen();
         this.days = days;
     }
 
+    /**
+     * Sets the rules of the holidays of the country above this subdivision
+     * that don't apply in it.
+     * 
+     * @param removedDays the rules of the removed holidays
+     */
+    public void setRemovedDays(String[] removedDays) {
+        checkNotFrozen();
+        this.removedDays = removedDays;
+    }
+
     /**
      * Sets the raw data of the national holidays of this {@link Country},
      * 
      * @param rawDays the raw data of the national holidays of this {@link Country}
      */
     public void setRawDays(Map<Rule, Object> rawDays) {
+        checkNotFrozen();
         this.rawDays = rawDays;
     }
 
@@ -196,6 +241,7 @@ public class Country {
      * @param states the states of this {@link Country}
      */
     public void setStates(Map<String, Country> states) {
+        checkNotFrozen();
         this.states = states;
     }
 
@@ -205,9 +251,88 @@ public class Country {
      * @param regions the regions of this {@link Country}
      */
     public void setRegions(Map<String, Country> regions) {
+        checkNotFrozen();
         this.regions = regions;
     }
 
+    /**
+     * @return true if this {@link Country} is frozen and can't be modified
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freezes this {@link Country}, with its holidays, states and regions, so
+     * that it can be shared between threads. Its setters throw an
+     * {@link IllegalStateException}, its lists and maps can't be modified and
+     * its arrays are returned as copies.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        if (names != null) {
+            names = Collections.unmodifiableMap(names);
+        }
+        if (days != null) {
+            for (Holiday h : days) {
+                h.freeze();
+            }
+            days = Collections.unmodifiableList(days);
+        }
+        if (rawDays != null) {
+            rawDays = Collections.unmodifiableMap(rawDays);
+        }
+        states = freezeAll(states);
+        regions = freezeAll(regions);
+        frozen = true;
+    }
+
+    /**
+     * Freezes all the countries of a map, and returns an unmodifiable view of
+     * the map.
+     */
+    @Nullable
+    static Map<String, Country> freezeAll(@Nullable Map<String, Country> countries) {
+        if (countries == null) {
+            return null;
+        }
+        for (Country c : countries.values()) {
+            if (c != null) {
+                c.freeze();
+            }
+        }
+        return Collections.unmodifiableMap(countries);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Country is frozen and can't be modified: " + name);
+        }
+        modified();
+    }
+
+    /**
+     * Counts a modification of a {@link Country}, a {@link Holiday} or a
+     * {@link HolidayData}, through one of their setters.
+     */
+    static void modified() {
+        modifications.incrementAndGet();
+    }
+
+    /**
+     * @return the count of the modifications, see {@link #modified()}
+     */
+    static long getModificationCount() {
+        return modifications.get();
+    }
+
+    @Nullable
+    private String[] copyIfFrozen(@Nullable String[] array) {
+        return (frozen && array != null) ? array.clone() : array;
+    }
+
     /**
      * Gets the state of this {@link Country} by its shortened name.
      * 
@@ -257,6 +382,51 @@ public class Country {
         return null;
     }
 
+    /**
+     * Merges the levels of a subdivision, from the country to the
+     * subdivision, into a {@link Country} without states nor regions whose
+     * holidays are the ones of all the levels: a holiday of a level is merged
+     * over the one of the same rule above it, see
+     * {@link Holiday#merge(Holiday, Holiday)}, and the removed days of a
+     * level, see {@link #getRemovedDays()}, remove the holidays of their rules
+     * above it.
+     * The day off, languages and time zones are the ones of the deepest level
+     * that has them, the names are the ones of the subdivision.
+     *
+     * @param levels the levels of the subdivision
+     * @return the merged {@link Country}, or the country itself if it's the
+     *      only level
+     */
+    static Country resolve(List<Country> levels) {
+        Country subdivision = levels.get(levels.size() - 1);
+        if (levels.size() == 1) {
+            return subdivision;
+        }
+        Country result = new Country();
+        Map<String, Holiday> merged = new LinkedHashMap<>();
+        for (Country level : levels) {
+            if (level.removedDays != null) {
+                for (String rule : level.removedDays) {
+                    merged.remove(rule);
+                }
+            }
+            if (level.days != null) {
+                for (Holiday h : level.days) {
+                    Holiday above = merged.get(h.getOriginalRule());
+                    merged.put(h.getOriginalRule(), (above != null) ? Holiday.merge(above, h) : h);
+                }
+            }
+            result.dayoff = (level.dayoff != null) ? level.dayoff : result.dayoff;
+            result.langs = (level.langs != null) ? level.langs : result.langs;
+            result.zones = (level.zones != null) ? level.zones : result.zones;
+        }
+        result.names = subdivision.names;
+        result.name = subdivision.name;
+        result.refDays = subdivision.refDays;
+        result.days = new ArrayList<>(merged.values());
+        return result;
+    }
+
     /**
      * Returns the list of all dates and times of holidays of this country,
      * excluding the holidays from regions and states.
@@ -268,7 +438,7 @@ public class Country {
     public List<LocalDateTime> getHolidaysList(int defaultYear) {
         List<LocalDateTime> result = new ArrayList<>();
         for (Holiday holiday : days) {
-            result.add(holiday.calculate(defaultYear));
+            result.add(isApplicable(holiday, defaultYear) ? holiday.calculate(defaultYear) : null);
         }
         return result;
     }
@@ -284,8 +454,125 @@ public class Country {
     public List<LocalDate> getHolidayDatesList(int defaultYear) {
         List<LocalDate> result = new ArrayList<>();
         for (Holiday holiday : days) {
-            result.add(holiday.calculateDate(defaultYear));
+            result.add(isApplicable(holiday, defaultYear) ? holiday.calculateDate(defaultYear) : null);
         }
         return result;
     }
+
+    /**
+     * Checks if a holiday of this country is applicable in a year, see
+     * {@link Holiday#isApplicable(int)}, and counts it.
+     */
+    private boolean isApplicable(Holiday holiday, int year) {
+        if (holiday.isApplicable(year)) {
+            evaluations.increment();
+            return true;
+        }
+        skippedEvaluations.increment();
+        return false;
+    }
+
+    /**
+     * @return the count of the holidays of this country calculated by
+     *      {@link #getHolidaysList(int)}, {@link #getHolidayDatesList(int)}
+     *      and {@link #getHolidays(int, int)}, one per holiday and year
+     */
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @return the count of the holidays of this country skipped without
+     *      calculation by {@link #getHolidaysList(int)},
+     *      {@link #getHolidayDatesList(int)} and {@link #getHolidays(int, int)},
+     *      because they can't have a date in the year, see
+     *      {@link Holiday#isApplicable(int)}
+     */
+    public long getSkippedEvaluationCount() {
+        return skippedEvaluations.sum();
+    }
+
+    /**
+     * Calculates the dates of all the holidays of this country in a span of
+     * years, excluding the holidays from regions and states: the start date
+     * and the dates of the extra holidays of each holiday in each year, see
+     * {@link Holiday#evaluate(int)}, which include the other enabled dates of
+     * the year, see {@link Holiday#getEnable()}, and the other dates of a
+     * Hijri date occurring twice in the year. The start dates are the ones of
+     * {@link #getHolidayDatesList(int)}, without the holidays that have no
+     * date. The rule of each holiday is compiled once for the span, see
+     * {@link Rule#compile()}, and is only evaluated in the years in which it
+     * is applicable, see {@link Rule#isApplicable(int)}.
+     *
+     * @param fromYear the first year of the span
+     * @param toYear the last year of the span, inclusive
+     * @return the dates of the holidays in the span
+     */
+    public HolidayDates getHolidays(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("The first year must not be after the last year: " + fromYear + "-" + toYear);
+        }
+        List<Holiday> holidays = (days != null) ? days : Collections.<Holiday>emptyList();
+        CompiledRule[] rules = new CompiledRule[holidays.size()];
+        // the holidays evaluated without allocation, which have only a start
+        boolean[] primitive = new boolean[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            Holiday holiday = holidays.get(i);
+            rules[i] = holiday.getRule().compile();
+            List<List<Integer>> ifWeekdaysExtra = holiday.getRule().getIfWeekdaysExtra();
+            primitive[i] = rules[i].isPrimitive()
+                    && (ifWeekdaysExtra == null || ifWeekdaysExtra.isEmpty())
+                    && holiday.getDisabledDays().length == 0
+                    && holiday.getEnabledDays().length == 0;
+        }
+        int years = toYear - fromYear + 1;
+        long[] epochDays = new long[years * rules.length];
+        int[] holidayIndices = new int[epochDays.length];
+        int[] yearStarts = new int[years + 1];
+        int size = 0;
+        int evaluated = 0;
+        int skipped = 0;
+        for (int y = 0; y < years; y++) {
+            int year = fromYear + y;
+            yearStarts[y] = size;
+            for (int i = 0; i < rules.length; i++) {
+                Holiday holiday = holidays.get(i);
+                if (!rules[i].isApplicable(year) && (primitive[i] || holiday.firstEnabledDay(year) == CompiledRule.NONE)) {
+                    skipped++;
+                    continue;
+                }
+                evaluated++;
+                long start;
+                List<LocalDateTime> extras = Collections.emptyList();
+                if (primitive[i]) {
+                    start = rules[i].evaluate(year);
+                } else {
+                    HolidayOccurrence occurrence = holiday.evaluate(year);
+                    start = occurrence.isEnabled() ? CompiledRule.toEpochMinute(occurrence.getStart()) : CompiledRule.NONE;
+                    extras = occurrence.getExtras();
+                }
+                if (start == CompiledRule.NONE) {
+                    continue;
+                }
+                if (size + 1 + extras.size() > epochDays.length) {
+                    int length = Math.max(epochDays.length * 2, size + 1 + extras.size());
+                    epochDays = Arrays.copyOf(epochDays, length);
+                    holidayIndices = Arrays.copyOf(holidayIndices, length);
+                }
+                epochDays[size] = CompiledRule.epochDay(start);
+                holidayIndices[size] = i;
+                size++;
+                for (LocalDateTime extra : extras) {
+                    epochDays[size] = extra.toLocalDate().toEpochDay();
+                    holidayIndices[size] = i;
+                    size++;
+                }
+            }
+        }
+        yearStarts[years] = size;
+        evaluations.add(evaluated);
+        skippedEvaluations.add(skipped);
+        return new HolidayDates(holidays, fromYear, toYear,
+                                Arrays.copyOf(epochDays, size), Arrays.copyOf(holidayIndices, size), yearStarts);
+    }
 }
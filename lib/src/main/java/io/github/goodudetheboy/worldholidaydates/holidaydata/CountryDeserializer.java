@@ -1,6 +1,5 @@
 package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
-import java.io.ByteArrayInputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,14 +12,32 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.internal.LinkedTreeMap;
 
-import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParser;
 import io.github.goodudetheboy.worldholidaydates.holidayparser.ParseException;
 import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
 
 public class CountryDeserializer implements JsonDeserializer<Country> {
+    final RuleCache ruleCache;
 
     public CountryDeserializer() {
-        // empty
+        this(new RuleCache());
+    }
+
+    /**
+     * Constructs a {@link CountryDeserializer} which parses the rules of
+     * "days" through a {@link RuleCache}.
+     *
+     * @param ruleCache the cache of parsed rules
+     */
+    public CountryDeserializer(RuleCache ruleCache) {
+        this.ruleCache = ruleCache;
+    }
+
+    /**
+     * @return the cache of parsed rules used by this deserializer
+     */
+    public RuleCache getRuleCache() {
+        return ruleCache;
     }
 
     @Override
@@ -45,7 +62,7 @@ public class CountryDeserializer implements JsonDeserializer<Country> {
 
     private void setReferenceDays(Country c, JsonElement refDays, JsonDeserializationContext context) {
         String[] result;
-        if (refDays == null || !refDays.isJsonNull()) {
+        if (refDays == null || refDays.isJsonNull()) {
             result = null;
         } else if (refDays.isJsonPrimitive()) {
             result = new String[]{ refDays.getAsString() };
@@ -57,6 +74,7 @@ public class CountryDeserializer implements JsonDeserializer<Country> {
 
     void setDays(Country c, JsonElement days, JsonDeserializationContext context) {
         List<Holiday> result = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
         if (days == null || days.isJsonNull()) {
             result = null;
         } else {
@@ -64,23 +82,34 @@ public class CountryDeserializer implements JsonDeserializer<Country> {
             for (Map.Entry<String, JsonElement> entry : daysArr.entrySet()) {
                 JsonElement value = entry.getValue();
                 if (!value.isJsonPrimitive()) {
-                    Rule rule = null;
-                    try {
-                        // parse and get rule
-                        String originalRule = entry.getKey();
-                        HolidayParser parser = new HolidayParser(new ByteArrayInputStream(originalRule.getBytes()));
-                        rule = parser.parse();
-                        rule.setOriginalRule(originalRule);
-                    } catch (ParseException e) {
-                        throw new HolidayInitializationException(e.getMessage(), e);
-                    }
+                    Rule rule = parseRule(entry.getKey());
                     Holiday h = context.deserialize(value, Holiday.class);
                     h.setRule(rule);
                     result.add(h);
+                } else if (value.getAsJsonPrimitive().isBoolean() && !value.getAsBoolean()) {
+                    // a holiday of the country above that doesn't apply here
+                    removed.add(entry.getKey());
                 }
             }
         }
         c.setDays(result);
+        if (!removed.isEmpty()) {
+            c.setRemovedDays(removed.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Gets the parsed {@link Rule} of a rule string from the {@link RuleCache}.
+     *
+     * @param originalRule a rule string, a key of "days"
+     * @return the parsed {@link Rule}
+     */
+    Rule parseRule(String originalRule) {
+        try {
+            return ruleCache.get(originalRule);
+        } catch (ParseException e) {
+            throw new HolidayInitializationException(e.getMessage(), e);
+        }
     }
 
     private void setStates(Country c, JsonElement states, JsonDeserializationContext context) {
@@ -1,6 +1,5 @@
 package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
-import java.io.ByteArrayInputStream;
 import java.util.Map;
 
 import com.google.gson.JsonDeserializationContext;
@@ -8,14 +7,23 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.internal.LinkedTreeMap;
 
-import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParser;
-import io.github.goodudetheboy.worldholidaydates.holidayparser.ParseException;
 import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
 
 public class CountryRawDeserializer extends CountryDeserializer {
 
     public CountryRawDeserializer() {
-        // empty
+        super();
+    }
+
+    /**
+     * Constructs a {@link CountryRawDeserializer} which parses the rules of
+     * "days" through a {@link RuleCache}.
+     *
+     * @param ruleCache the cache of parsed rules
+     */
+    public CountryRawDeserializer(RuleCache ruleCache) {
+        super(ruleCache);
     }
 
     @Override
@@ -27,16 +35,7 @@ public class CountryRawDeserializer extends CountryDeserializer {
             JsonObject daysArr = days.getAsJsonObject();
             for (Map.Entry<String, JsonElement> entry : daysArr.entrySet()) {
                 JsonElement value = entry.getValue();
-                Rule rule = null;
-                try {
-                    // parse and get rule
-                    String originalRule = entry.getKey();
-                    HolidayParser parser = new HolidayParser(new ByteArrayInputStream(originalRule.getBytes()));
-                    rule = parser.parse();
-                    rule.setOriginalRule(originalRule);
-                } catch (ParseException e) {
-                    throw new HolidayInitializationException(e.getMessage(), e);
-                }
+                Rule rule = parseRule(entry.getKey());
 
                 // construct key and value
                 if (value.isJsonPrimitive()) {
@@ -2,13 +2,32 @@ package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.CompiledRule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Date;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayOccurrence;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParseException;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.ParseException;
 import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
 
 public class Holiday {
-    Rule        rule        = null;
+    private static final long[] NO_DAYS = new long[0];
+
+    volatile    Rule        rule        = null;
+    // rule string of a Rule that is parsed on first use, see setDeferredRule
+    String      deferredRule    = null;
+    RuleCache   ruleCache       = null;
     Map<String, String>     name = null;
     // the "_name" section
     String      refName     = null;
@@ -17,13 +36,56 @@ public class Holiday {
     Boolean     substitute  = null;
     String[]    disable     = null;
     String[]    enable      = null;
+    // true if this Holiday is shared and can't be modified anymore
+    boolean     frozen      = false;
+    // the sorted epoch days of disable and enable of a frozen Holiday, see
+    // getDisabledDays and getEnabledDays
+    private volatile long[] disabledDays = null;
+    private volatile long[] enabledDays  = null;
 
     public Holiday() {
         // empty
     }
 
+    /**
+     * Gets the {@link Rule} of this {@link Holiday}. If the rule was deferred
+     * (see {@link #setDeferredRule}), it is parsed on the first call.
+     *
+     * @return the {@link Rule} of this {@link Holiday}
+     * @throws HolidayParseException if the deferred rule can't be parsed
+     */
     public Rule getRule() {
-        return rule;
+        Rule result = rule;
+        if (result == null && deferredRule != null) {
+            synchronized (this) {
+                result = rule;
+                if (result == null) {
+                    try {
+                        result = ruleCache.get(deferredRule);
+                    } catch (ParseException e) {
+                        throw new HolidayParseException(e.getMessage(), deferredRule);
+                    }
+                    rule = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the rule string of this {@link Holiday}, without parsing it if
+     *      it was deferred
+     */
+    public String getOriginalRule() {
+        Rule result = rule;
+        return (result != null) ? result.getOriginalRule() : deferredRule;
+    }
+
+    /**
+     * @return true if the {@link Rule} of this {@link Holiday} is parsed
+     */
+    public boolean isRuleParsed() {
+        return rule != null;
     }
 
     public Map<String, String> getName() {
@@ -47,52 +109,349 @@ public class Holiday {
     }
 
     public String[] getDisable() {
-        return disable;
+        return copyIfFrozen(disable);
     }
 
     public String[] getEnable() {
-        return enable;
+        return copyIfFrozen(enable);
     }
 
     public void setRule(Rule rule) {
+        checkNotFrozen();
         this.rule = rule;
     }
 
+    /**
+     * Sets the rule string of this {@link Holiday}, which will only be parsed
+     * through the {@link RuleCache} on the first call of {@link #getRule()},
+     * {@link #calculate} or {@link #calculateDate}.
+     *
+     * @param originalRule the rule string, from "days" of holidays.json
+     * @param ruleCache the cache through which the rule string is parsed
+     */
+    public void setDeferredRule(String originalRule, RuleCache ruleCache) {
+        checkNotFrozen();
+        this.deferredRule = originalRule;
+        this.ruleCache = ruleCache;
+        this.rule = null;
+    }
+
     // setter for all
     public void setName(Map<String, String> name) {
+        checkNotFrozen();
         this.name = name;
     }
 
     public void setReferenceName(String refName) {
+        checkNotFrozen();
         this.refName = refName;
     }
 
     public void setType(String type) {
+        checkNotFrozen();
         this.type = type;
     }
 
     public void setNote(String note) {
+        checkNotFrozen();
         this.note = note;
     }
 
     public void setSubstitute(Boolean substitute) {
+        checkNotFrozen();
         this.substitute = substitute;
     }
 
     public void setDisable(String[] disable) {
+        checkNotFrozen();
         this.disable = disable;
     }
 
     public void setEnable(String[] enable) {
+        checkNotFrozen();
         this.enable = enable;
     }
 
+    /**
+     * Merges a holiday of a subdivision over the one of the same rule of a
+     * level above it, see {@link Country#resolve(java.util.List)}: the fields
+     * set by the subdivision replace the ones above, which are kept
+     * otherwise, and the names are merged by language. Neither holiday is
+     * modified.
+     *
+     * @param parent the holiday of the level above
+     * @param child the holiday of the subdivision, of the same rule
+     * @return the merged holiday, not frozen
+     */
+    static Holiday merge(Holiday parent, Holiday child) {
+        Holiday result = new Holiday();
+        result.rule = child.rule;
+        result.deferredRule = child.deferredRule;
+        result.ruleCache = child.ruleCache;
+        if (parent.name != null || child.name != null) {
+            Map<String, String> names = new LinkedHashMap<>();
+            if (parent.name != null) {
+                names.putAll(parent.name);
+            }
+            if (child.name != null) {
+                names.putAll(child.name);
+            }
+            result.name = names;
+        }
+        result.refName = (child.refName != null) ? child.refName : parent.refName;
+        result.type = (child.type != null) ? child.type : parent.type;
+        result.note = (child.note != null) ? child.note : parent.note;
+        result.substitute = (child.substitute != null) ? child.substitute : parent.substitute;
+        result.disable = (child.disable != null) ? child.getDisable() : parent.getDisable();
+        result.enable = (child.enable != null) ? child.getEnable() : parent.getEnable();
+        return result;
+    }
+
+    /**
+     * @return true if this {@link Holiday} is frozen and can't be modified
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freezes this {@link Holiday}, so that it can be shared between threads.
+     * Its {@link Rule} is parsed if it was deferred, its setters throw an
+     * {@link IllegalStateException}, its name can't be modified and its
+     * arrays are returned as copies.
+     *
+     * @throws HolidayParseException if the deferred rule can't be parsed
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        Rule r = getRule();
+        if (r != null) {
+            r.freeze();
+        }
+        if (name != null) {
+            name = Collections.unmodifiableMap(name);
+        }
+        frozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Holiday is frozen and can't be modified: " + getOriginalRule());
+        }
+        Country.modified();
+    }
+
+    @Nullable
+    private String[] copyIfFrozen(@Nullable String[] array) {
+        return (frozen && array != null) ? array.clone() : array;
+    }
+
+    /**
+     * Calculates the start of this {@link Holiday} in a year, from its
+     * {@link Rule} and its disabled and enabled dates: the start is null if
+     * its date is disabled, see {@link #getDisable()}, and is the first
+     * enabled date of the year, see {@link #getEnable()}, if the rule gives
+     * none, see {@link #evaluate(int)}.
+     *
+     * @param defaultYear default Gregorian year
+     * @return the start of this {@link Holiday}, or null if there's none in
+     *      the year
+     */
+    @Nullable
     public LocalDateTime calculate(int defaultYear) {
-        return rule.calculate(defaultYear);
+        return evaluate(defaultYear).getStart();
     }
 
+    /**
+     * Calculates the start date of this {@link Holiday} in a year, same as
+     * {@link #calculate(int)}.
+     *
+     * @param defaultYear default Gregorian year
+     * @return the start date of this {@link Holiday}, or null if there's none
+     *      in the year
+     */
+    @Nullable
     public LocalDate calculateDate(int defaultYear) {
-        return rule.calculateDate(defaultYear);
+        return evaluate(defaultYear).getDate();
+    }
+
+    /**
+     * Checks if this {@link Holiday} can have a date in a year without
+     * calculating it: if its {@link Rule} is applicable in the year, see
+     * {@link Rule#isApplicable(int)}, or if it has an enabled date in the
+     * year.
+     *
+     * @param defaultYear default Gregorian year
+     * @return false if this {@link Holiday} has no date in the year
+     */
+    public boolean isApplicable(int defaultYear) {
+        return getRule().isApplicable(defaultYear) || firstEnabledDay(defaultYear) != CompiledRule.NONE;
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return true if the date is in the disabled dates of this {@link Holiday}
+     */
+    boolean isDisabledDay(long epochDay) {
+        long[] days = getDisabledDays();
+        return days.length > 0 && Arrays.binarySearch(days, epochDay) >= 0;
+    }
+
+    /**
+     * @param year a Gregorian year
+     * @return the first enabled date of this {@link Holiday} in the year, or
+     *      {@link CompiledRule#NONE} if there's none
+     */
+    long firstEnabledDay(int year) {
+        long[] days = getEnabledDays();
+        if (days.length == 0) {
+            return CompiledRule.NONE;
+        }
+        int index = firstIndexInYear(days, year);
+        return (index < days.length && days[index] <= LocalDate.of(year, 12, 31).toEpochDay())
+                ? days[index] : CompiledRule.NONE;
+    }
+
+    /**
+     * @return the index of the first day of the year in the sorted days, or
+     *      the length of the days if there's none
+     */
+    static int firstIndexInYear(long[] days, int year) {
+        int index = Arrays.binarySearch(days, LocalDate.of(year, 1, 1).toEpochDay());
+        return (index >= 0) ? index : -index - 1;
+    }
+
+    /**
+     * @return the sorted epoch days of {@link #getDisable()}
+     */
+    long[] getDisabledDays() {
+        long[] result = disabledDays;
+        if (result == null) {
+            result = toEpochDays(disable);
+            if (frozen) {
+                disabledDays = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the sorted epoch days of {@link #getEnable()}
+     */
+    long[] getEnabledDays() {
+        long[] result = enabledDays;
+        if (result == null) {
+            result = toEpochDays(enable);
+            if (frozen) {
+                enabledDays = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses the dates of disable or enable, which start with the ISO date,
+     * such as "2020-07-20".
+     */
+    private static long[] toEpochDays(@Nullable String[] dates) {
+        if (dates == null || dates.length == 0) {
+            return NO_DAYS;
+        }
+        long[] result = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            String date = dates[i].trim();
+            int end = date.indexOf(' ');
+            result[i] = LocalDate.parse((end >= 0) ? date.substring(0, end) : date).toEpochDay();
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Calculates the start dates of this {@link Holiday} in a span of years,
+     * see {@link Rule#calculateRange(int, int)}, with the disabled and
+     * enabled dates, same as {@link #calculateDate(int)} in each year.
+     *
+     * @param fromYear the first year of the span
+     * @param toYear the last year of the span, inclusive
+     * @return the epoch days of the start of this {@link Holiday}, by
+     *      year - fromYear, or {@link CompiledRule#NONE} in the years in
+     *      which it has none
+     */
+    public long[] calculateRange(int fromYear, int toYear) {
+        long[] result = getRule().calculateRange(fromYear, toYear);
+        if (getDisabledDays().length == 0 && getEnabledDays().length == 0) {
+            return result;
+        }
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != CompiledRule.NONE && isDisabledDay(result[i])) {
+                result[i] = CompiledRule.NONE;
+            }
+            if (result[i] == CompiledRule.NONE) {
+                result[i] = firstEnabledDay(fromYear + i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates this {@link Holiday} in a year, from the occurrence of its
+     * {@link Rule}, see {@link Rule#evaluate(int)}, and its disabled and
+     * enabled dates:
+     * <ul>
+     * <li>the occurrence is disabled, with
+     * {@link HolidayOccurrence.DisabledReason#DISABLED_DATE}, if its date is
+     * disabled, see {@link #getDisable()}, and so are the extra holidays on
+     * the disabled dates,</li>
+     * <li>the enabled dates of the year, see {@link #getEnable()}, are extra
+     * holidays, at the start time of the rule, except the first one if the
+     * rule gives no date, which is the start of the occurrence, lasting the
+     * range of the rule, or the day if it has none.</li>
+     * </ul>
+     * The other calculate methods return a part of this result.
+     *
+     * @param defaultYear default Gregorian year
+     * @return the occurrence of this {@link Holiday} in the year
+     */
+    public HolidayOccurrence evaluate(int defaultYear) {
+        HolidayOccurrence result = getRule().evaluate(defaultYear);
+        long[] enabled = getEnabledDays();
+        if (getDisabledDays().length == 0 && enabled.length == 0) {
+            return result;
+        }
+        if (result.getStart() != null && isDisabledDay(result.getDate().toEpochDay())) {
+            result = result.disable(HolidayOccurrence.DisabledReason.DISABLED_DATE);
+        }
+        List<LocalDateTime> extras = new ArrayList<>(result.getExtras().size());
+        for (LocalDateTime extra : result.getExtras()) {
+            if (!isDisabledDay(extra.toLocalDate().toEpochDay())) {
+                extras.add(extra);
+            }
+        }
+        int time = getRule().getRawDate().getStartTime();
+        LocalTime startTime = Date.minutesToLocalTime((time != Rule.UNDEFINED_NUM) ? time : 0);
+        long endOfYear = LocalDate.of(defaultYear, 12, 31).toEpochDay();
+        for (int e = firstIndexInYear(enabled, defaultYear); e < enabled.length && enabled[e] <= endOfYear; e++) {
+            LocalDateTime start = LocalDate.ofEpochDay(enabled[e]).atTime(startTime);
+            if (result.getStart() == null) {
+                int range = getRule().getRange();
+                result = result.moveTo(start, (range != Rule.UNDEFINED_NUM) ? start.plusMinutes(range) : start.toLocalDate().plusDays(1).atStartOfDay());
+            } else if (!start.toLocalDate().equals(result.getDate()) && !containsDate(extras, start.toLocalDate())) {
+                extras.add(start);
+            }
+        }
+        return result.withExtras(extras);
+    }
+
+    private static boolean containsDate(List<LocalDateTime> dateTimes, LocalDate date) {
+        for (LocalDateTime dateTime : dateTimes) {
+            if (dateTime.toLocalDate().equals(date)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -0,0 +1,248 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.CompiledRule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayOccurrence;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+
+/**
+ * A query service over a {@link HolidayData}, which tells if a date is a
+ * holiday in a country or a subdivision, such as "US", "US-CA" or "DE-BY-A".
+ * The holidays of a subdivision are the ones of the levels above it, with its
+ * own overrides and removals, see {@link HolidayData#getResolvedRegion(String)}.
+ * <p>
+ * The first query of a region in a year builds the set of the holiday days of
+ * the year, as a 366-bit bitset by day of the year, from the occurrences of
+ * the holidays of the region, see {@link Holiday#evaluate(int)}: all the days
+ * of the holidays that last more than a day, see {@link Rule#getRange()}, and
+ * the extra holidays, see {@link HolidayOccurrence#getExtras()}, with the
+ * enabled dates, so that the following queries are a single bit test. At most
+ * {@link #getMaxYears()} years are kept per region, the year farthest from the
+ * last built one is evicted first.
+ * <p>
+ * This class is thread-safe if the {@link HolidayData} is frozen, see
+ * {@link HolidayData#freeze()}: the queries of the years already built don't
+ * lock.
+ */
+public final class HolidayCalendar {
+    /**
+     * The default count of years kept per region
+     */
+    public static final int DEFAULT_MAX_YEARS = 16;
+
+    // the count of longs of a bitset of 366 bits
+    private static final int BITSET_LENGTH = 6;
+
+    private final   HolidayData     data;
+    private final   HolidayFilter   filter;
+    private final   int             maxYears;
+    private final   Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a calendar of all the holidays of the data, keeping
+     * {@link #DEFAULT_MAX_YEARS} years per region.
+     *
+     * @param data the holiday data
+     */
+    public HolidayCalendar(HolidayData data) {
+        this(data, null, DEFAULT_MAX_YEARS);
+    }
+
+    /**
+     * Creates a calendar of the holidays of some types of the data.
+     *
+     * @param data the holiday data
+     * @param types the holiday types, such as "public" or "bank", all of them
+     *      if null or empty, see {@link HolidayFilter#includesType(String)}
+     * @param maxYears the count of years kept per region, at least 1
+     */
+    public HolidayCalendar(HolidayData data, Collection<String> types, int maxYears) {
+        if (data == null) {
+            throw new IllegalArgumentException("The holiday data must not be null");
+        }
+        if (maxYears < 1) {
+            throw new IllegalArgumentException("The count of years kept per region must be at least 1: " + maxYears);
+        }
+        this.data = data;
+        this.filter = new HolidayFilter(null, types, null);
+        this.maxYears = maxYears;
+    }
+
+    public HolidayData getData() {
+        return data;
+    }
+
+    /**
+     * @return the count of years kept per region
+     */
+    public int getMaxYears() {
+        return maxYears;
+    }
+
+    /**
+     * Checks if a date is a holiday in a region.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param date the date
+     * @return true if the date is a day of a holiday of the region
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    public boolean isHoliday(String region, LocalDate date) {
+        return isHoliday(region, date.getYear(), date.getDayOfYear());
+    }
+
+    /**
+     * Checks if a day of a year is a holiday in a region.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param year the year
+     * @param dayOfYear the day of the year, from 1 to 365, or 366 in leap years
+     * @return true if the day is a day of a holiday of the region
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    public boolean isHoliday(String region, int year, int dayOfYear) {
+        if (dayOfYear < 1 || dayOfYear > 366) {
+            throw new IllegalArgumentException("Invalid day of the year: " + dayOfYear);
+        }
+        long[] bits = getRegion(region).bitsOf(year);
+        int bit = dayOfYear - 1;
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Counts the holiday days of a year in a region.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param year the year
+     * @return the count of days of the year that are a day of a holiday of
+     *      the region
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    public int countHolidays(String region, int year) {
+        int count = 0;
+        for (long word : getRegion(region).bitsOf(year)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return the bitset of the holiday days of a region in a year, by day of
+     *      the year - 1, which must not be modified
+     */
+    long[] getHolidayBits(String region, int year) {
+        return getRegion(region).bitsOf(year);
+    }
+
+    /**
+     * @return the holidays of a region, see
+     *      {@link HolidayData#getResolvedRegion(String)}
+     */
+    Country getResolvedRegion(String region) {
+        return getRegion(region).country;
+    }
+
+    /**
+     * @param type the type of a holiday
+     * @return true if the holidays of the type are in this calendar
+     */
+    boolean includesType(String type) {
+        return filter.includesType(type);
+    }
+
+    /**
+     * @return the count of years of a region currently kept, for tests
+     */
+    int getCachedYearCount(String region) {
+        Region r = regions.get(region);
+        return (r != null) ? r.years.size() : 0;
+    }
+
+    private Region getRegion(String path) {
+        Region result = regions.get(path);
+        if (result == null) {
+            result = regions.computeIfAbsent(path, p -> new Region(p, data.getResolvedRegion(p)));
+        }
+        return result;
+    }
+
+    /**
+     * The bitsets of the years of a region
+     */
+    private final class Region {
+        final   String          path;
+        final   Country         country;
+        final   YearCache<long[]> years;
+
+        Region(String path, Country country) {
+            this.path = path;
+            this.country = country;
+            this.years = new YearCache<>(maxYears, this::build);
+        }
+
+        long[] bitsOf(int year) {
+            return years.get(year);
+        }
+
+        /**
+         * Builds the bitset of a year, from the holidays evaluated in the year
+         * before and after too, since a holiday of a year may start in the
+         * next or the previous one, with all the days of the holidays that
+         * last more than a day and the extra holidays, as {@link HolidayIndex}.
+         */
+        private long[] build(int year) {
+            long[] result = new long[BITSET_LENGTH];
+            if (country.getDays() == null) {
+                return result;
+            }
+            long startOfYear = LocalDate.of(year, 1, 1).toEpochDay();
+            long endOfYear = LocalDate.of(year, 12, 31).toEpochDay();
+            for (Holiday holiday : country.getDays()) {
+                if (!filter.includesType(holiday.getType())) {
+                    continue;
+                }
+                int range = holiday.getRule().getRange();
+                for (int defaultYear = year - 1; defaultYear <= year + 1; defaultYear++) {
+                    if (!holiday.isApplicable(defaultYear)) {
+                        continue;
+                    }
+                    HolidayOccurrence occurrence = holiday.evaluate(defaultYear);
+                    if (occurrence.getStart() != null) {
+                        setDays(result, startOfYear, endOfYear, CompiledRule.toEpochMinute(occurrence.getStart()), range);
+                        for (LocalDateTime extra : occurrence.getExtras()) {
+                            setDays(result, startOfYear, endOfYear, CompiledRule.toEpochMinute(extra), range);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Sets the bits of the days of the year of an occurrence, from its
+         * start to its end, exclusive, or of its start day only if the holiday
+         * has no range.
+         */
+        private void setDays(long[] bits, long startOfYear, long endOfYear, long start, int range) {
+            long first = CompiledRule.epochDay(start);
+            long last = (range == Rule.UNDEFINED_NUM) ? first : CompiledRule.epochDay(start + range - 1);
+            for (long day = Math.max(first, startOfYear); day <= Math.min(last, endOfYear); day++) {
+                int bit = (int) (day - startOfYear);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return path + ": " + years;
+        }
+    }
+}
@@ -1,35 +1,59 @@
 package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParseException;
 
 /**
  * A class to contain the holiday data processed from the raw holidays.json file.
  */
 public class HolidayData {
+    static final String HOLIDAYS_FILE = "holidays.json";
+
     private     String      version     = null;
     private     String      license     = null;
     private     Map<String, Country>    holidays = null;
+    private     LoadStatistics          loadStatistics = null;
+    // true if this HolidayData is shared and can't be modified anymore
+    private     boolean     frozen      = false;
+
+    // the resolved regions, see getResolvedRegion(String)
+    private final Map<String, ResolvedRegion>   resolvedRegions = new ConcurrentHashMap<>();
+
+    // the shared instance, see getSharedInstance()
+    private static volatile HolidayData sharedInstance = null;
 
     public HolidayData() {
         // empty constructor
     }
 
     public void setVersion(String version) {
+        checkNotFrozen();
         this.version = version;
     }
     public void setLicense(String license) {
+        checkNotFrozen();
         this.license = license;
     }
     public void setHolidays(Map<String, Country> holidays) {
+        checkNotFrozen();
         this.holidays = holidays;
     }
 
+    public void setLoadStatistics(LoadStatistics loadStatistics) {
+        checkNotFrozen();
+        this.loadStatistics = loadStatistics;
+    }
+
     public String getVersion() {
         return version;
     }
@@ -42,10 +66,191 @@ public class HolidayData {
         return holidays;
     }
 
+    /**
+     * @return the statistics of the initialization of this data, or null if
+     *      none were recorded
+     */
+    public LoadStatistics getLoadStatistics() {
+        return loadStatistics;
+    }
+
+    /**
+     * Gets a {@link Country} by its code. If the data was loaded lazily, the
+     * {@link Country} is deserialized on the first call.
+     *
+     * @param countryCode a 2-character country code
+     * @return the {@link Country}, or null if none found
+     */
     public Country getCountry(String countryCode) {
         return holidays.get(countryCode);
     }
 
+    /**
+     * Gets the holidays of a country or a subdivision, merged with the ones of
+     * the levels above it, see {@link Country#getSubRegion(String)}: the
+     * holidays of a subdivision override the ones of the same rule above it,
+     * and the ones set to false remove them, see
+     * {@link Country#getRemovedDays()}. Each region is merged once and
+     * cached: until this {@link HolidayData} is frozen, the cache is
+     * invalidated by any call of a setter of a {@link HolidayData}, a
+     * {@link Country} or a {@link Holiday}, but not by the modifications of
+     * the lists and maps they return, after which the cached result may be
+     * outdated. Once frozen, the result is frozen and shared.
+     *
+     * @param path the code of a country, or the path of a subdivision, such
+     *      as "US-CA" or "DE-BY-A"
+     * @return a {@link Country} with the holidays of the region, without
+     *      states nor regions, or the country itself for a country code
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    public Country getResolvedRegion(String path) {
+        long modifications = Country.getModificationCount();
+        ResolvedRegion cached = resolvedRegions.get(path);
+        if (cached != null && (frozen || cached.modifications == modifications)) {
+            return cached.region;
+        }
+        Country result = Country.resolve(getLevels(path));
+        if (!frozen) {
+            resolvedRegions.put(path, new ResolvedRegion(result, modifications));
+            return result;
+        }
+        result.freeze();
+        cached = resolvedRegions.putIfAbsent(path, new ResolvedRegion(result, modifications));
+        return (cached != null) ? cached.region : result;
+    }
+
+    /**
+     * A region resolved by {@link #getResolvedRegion(String)}, with the count
+     * of the modifications when it was resolved, see
+     * {@link Country#getModificationCount()}.
+     */
+    private static final class ResolvedRegion {
+        final   Country     region;
+        final   long        modifications;
+
+        ResolvedRegion(Country region, long modifications) {
+            this.region = region;
+            this.modifications = modifications;
+        }
+    }
+
+    /**
+     * Resolves the path of a region to the {@link Country} of each level,
+     * from the country to the subdivision.
+     */
+    List<Country> getLevels(String path) {
+        String[] codes = path.split("-");
+        List<Country> result = new ArrayList<>(codes.length);
+        Country current = getCountry(codes[0]);
+        for (int i = 0; current != null; i++) {
+            result.add(current);
+            if (i + 1 == codes.length) {
+                return result;
+            }
+            current = current.getSubRegion(codes[i + 1]);
+        }
+        throw new IllegalArgumentException("Unknown region: " + path);
+    }
+
+    /**
+     * @return true if this {@link HolidayData} is frozen and can't be modified
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freezes this {@link HolidayData}, with all of its countries, so that it
+     * can be shared between threads, see {@link Country#freeze()}. If the
+     * data was loaded lazily, all countries are deserialized.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        holidays = Country.freezeAll(holidays);
+        // the regions resolved before are not frozen
+        resolvedRegions.clear();
+        frozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("HolidayData is frozen and can't be modified");
+        }
+        Country.modified();
+    }
+
+    /**
+     * Gets the {@link HolidayData} shared by the whole process, which is
+     * loaded on the first call, from the precompiled snapshot if possible, and
+     * frozen, so that it can be used by any number of threads. The following
+     * calls only read a volatile field, without locking.
+     *
+     * @return the shared, frozen {@link HolidayData}
+     */
+    public static HolidayData getSharedInstance() {
+        HolidayData result = sharedInstance;
+        if (result == null) {
+            synchronized (HolidayData.class) {
+                result = sharedInstance;
+                if (result == null) {
+                    result = new HolidayDataLoader().setSnapshot(true).load();
+                    result.freeze();
+                    sharedInstance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discards the shared {@link HolidayData}, so that the next call of
+     * {@link #getSharedInstance()} loads it again. This is meant for tests;
+     * the instances already handed out stay valid.
+     */
+    public static void resetSharedInstance() {
+        synchronized (HolidayData.class) {
+            sharedInstance = null;
+        }
+    }
+
+    /**
+     * Parses the rules of all the holidays of all countries, states and
+     * regions that have not been parsed yet, which is useful when the data was
+     * loaded with {@link HolidayDataLoader#setDeferRuleParsing(boolean)}. If
+     * the data was loaded lazily, all countries are deserialized.
+     *
+     * @return the parse errors by rule string, empty if all rules are valid
+     */
+    public Map<String, HolidayParseException> validateRules() {
+        Map<String, HolidayParseException> errors = new LinkedHashMap<>();
+        validateRules(holidays, errors);
+        return errors;
+    }
+
+    private static void validateRules(Map<String, Country> countries, Map<String, HolidayParseException> errors) {
+        if (countries == null) {
+            return;
+        }
+        for (Country c : countries.values()) {
+            if (c == null) {
+                continue;
+            }
+            if (c.getDays() != null) {
+                for (Holiday h : c.getDays()) {
+                    try {
+                        h.getRule();
+                    } catch (HolidayParseException e) {
+                        errors.put(h.getOriginalRule(), e);
+                    }
+                }
+            }
+            validateRules(c.getStates(), errors);
+            validateRules(c.getRegions(), errors);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder b = new StringBuilder();
@@ -58,31 +263,53 @@ public class HolidayData {
         return b.toString();
     }
 
+    /**
+     * Initializes the holiday data from the holidays.json file in the
+     * resource folder, using the streaming {@link HolidayDataReader}. To
+     * change how the data is loaded, use a {@link HolidayDataLoader}. Each
+     * call returns a new copy; to share a single copy in the whole process,
+     * use {@link #getSharedInstance()}.
+     *
+     * @return the holiday data
+     */
     public static HolidayData initializeData() {
-        String holidayDataString;
-        try {
-            holidayDataString = Utils.readFileFromResource("holidays.json");
-        } catch (IOException e) {
-            throw new HolidayInitializationException(e.getMessage(), e.getCause());
-        }
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(Country.class, new CountryDeserializer());
-        gsonBuilder.registerTypeAdapter(Holiday.class, new HolidayDeserializer());
-        Gson gson = gsonBuilder.create();
-        return gson.fromJson(holidayDataString, HolidayData.class);
+        return new HolidayDataLoader().load();
     }
 
+    /**
+     * Initializes the holiday data with the raw data of the "days" of each
+     * {@link Country}, see {@link Country#getRawDays()}.
+     *
+     * @return the holiday data, with raw "days"
+     */
     public static HolidayData initalizeRawData() {
+        return initializeDataFromTree(new CountryRawDeserializer());
+    }
+
+    /**
+     * Initializes the holiday data by reading the whole holidays.json file into
+     * a String and deserializing it through a JsonElement tree. This was the
+     * way {@link #initializeData()} worked before {@link HolidayDataReader}.
+     *
+     * @return the holiday data
+     */
+    static HolidayData initializeDataFromTree() {
+        return initializeDataFromTree(new CountryDeserializer());
+    }
+
+    private static HolidayData initializeDataFromTree(CountryDeserializer countryDeserializer) {
         String holidayDataString;
         try {
-            holidayDataString = Utils.readFileFromResource("holidays.json");
+            holidayDataString = Utils.readFileFromResource(HOLIDAYS_FILE);
         } catch (IOException e) {
-            throw new HolidayInitializationException(e.getMessage(), e.getCause());
+            throw new HolidayInitializationException(e.getMessage(), e);
         }
         GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(Country.class, new CountryRawDeserializer());
+        gsonBuilder.registerTypeAdapter(Country.class, countryDeserializer);
         gsonBuilder.registerTypeAdapter(Holiday.class, new HolidayDeserializer());
         Gson gson = gsonBuilder.create();
-        return gson.fromJson(holidayDataString, HolidayData.class);
+        HolidayData data = gson.fromJson(holidayDataString, HolidayData.class);
+        data.setLoadStatistics(new LoadStatistics(countryDeserializer.getRuleCache()));
+        return data;
     }
 }
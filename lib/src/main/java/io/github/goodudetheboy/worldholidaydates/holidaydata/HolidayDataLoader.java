@@ -0,0 +1,325 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
+
+/**
+ * A class to load the {@link HolidayData} from the holidays.json file, with
+ * options on how it is loaded. For the default options, simply use
+ * {@link HolidayData#initializeData()}.
+ * <p>
+ * Example:
+ * <pre>
+ * HolidayData data = new HolidayDataLoader()
+ *                      .setLazy(true)
+ *                      .load();
+ * </pre>
+ * <p>
+ * The data can also be limited to some countries, holiday types and
+ * languages, which are selected while reading:
+ * <pre>
+ * HolidayData data = new HolidayDataLoader()
+ *                      .setCountries("US", "DE-BY")
+ *                      .setTypes("public", "bank")
+ *                      .setLanguages("en", "de")
+ *                      .load();
+ * </pre>
+ */
+public class HolidayDataLoader {
+    private     boolean     lazy        = false;
+    private     boolean     deferRuleParsing    = false;
+    private     boolean     snapshot    = false;
+    private     Executor    executor    = null;
+    private     boolean     statisticsEnabled   = false;
+    private     LoadListener    listener    = null;
+    private     List<String>    countries   = null;
+    private     List<String>    types       = null;
+    private     List<String>    languages   = null;
+
+    /**
+     * Default constructor
+     */
+    public HolidayDataLoader() {
+        // empty
+    }
+
+    /**
+     * @return true if the countries are deserialized on first access
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Sets whether the countries are deserialized on first access. In lazy
+     * mode, only the index of the countries is built during the load, and each
+     * {@link Country}, with its states and regions, is deserialized and has its
+     * rules parsed the first time it's accessed through
+     * {@link HolidayData#getCountry(String)} or {@link HolidayData#getHolidays()}.
+     *
+     * @param lazy true to deserialize the countries on first access
+     * @return this loader
+     */
+    public HolidayDataLoader setLazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    /**
+     * @return true if the rules of the holidays are parsed on first use
+     */
+    public boolean isDeferRuleParsing() {
+        return deferRuleParsing;
+    }
+
+    /**
+     * Sets whether the rules of the holidays are parsed on first use. In this
+     * mode, each {@link Holiday} keeps its rule string, which is parsed on the
+     * first call of {@link Holiday#getRule()}, {@link Holiday#calculate} or
+     * {@link Holiday#calculateDate}, where parse errors are thrown as
+     * {@link io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParseException}.
+     * Use {@link HolidayData#validateRules()} to parse all of them eagerly.
+     *
+     * @param deferRuleParsing true to parse the rules on first use
+     * @return this loader
+     */
+    public HolidayDataLoader setDeferRuleParsing(boolean deferRuleParsing) {
+        this.deferRuleParsing = deferRuleParsing;
+        return this;
+    }
+
+    /**
+     * @return true if the data is read from the precompiled snapshot when
+     *      possible
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sets whether the data is read from the precompiled holidays.snapshot
+     * resource, see {@link HolidayDataSnapshot}, which is memory-mapped and
+     * contains the already parsed rules. The snapshot is only used if it was
+     * generated from the holidays.json file in the resource folder, otherwise
+     * the holidays.json file is read with the other options of this loader.
+     * The data read from the snapshot is neither lazy nor deferred.
+     *
+     * @param snapshot true to read the data from the snapshot when possible
+     * @return this loader
+     */
+    public HolidayDataLoader setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * @return the executor deserializing the countries in parallel, or null
+     *      if they are deserialized on the calling thread
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the {@link Executor}, such as a
+     * {@link java.util.concurrent.ForkJoinPool}, on which the countries are
+     * deserialized in parallel, see
+     * {@link HolidayDataReader#readInParallel(InputStream, Executor)}. The
+     * result has the same content and iteration order as a sequential load.
+     * The executor is not used if the data is loaded lazily.
+     *
+     * @param executor the executor, or null to deserialize the countries on
+     *      the calling thread
+     * @return this loader
+     */
+    public HolidayDataLoader setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * @return true if the phase timings and the counts of the load are
+     *      recorded in its {@link LoadStatistics}
+     */
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled || listener != null;
+    }
+
+    /**
+     * Sets whether the phase timings and the counts of the load are recorded
+     * in the {@link LoadStatistics} of the loaded {@link HolidayData}, see
+     * {@link LoadStatistics#isDetailed()}. They're disabled by default, in
+     * which case nothing is measured during the load.
+     *
+     * @param statisticsEnabled true to record the phase timings and counts
+     * @return this loader
+     */
+    public HolidayDataLoader setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        return this;
+    }
+
+    /**
+     * @return the listener notified of each load, or null if there's none
+     */
+    public LoadListener getLoadListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the {@link LoadListener} notified with the {@link LoadStatistics}
+     * of each load, successful or not. Setting a listener enables the
+     * statistics, see {@link #setStatisticsEnabled(boolean)}.
+     *
+     * @param listener the listener, or null to remove it
+     * @return this loader
+     */
+    public HolidayDataLoader setLoadListener(LoadListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the countries and subdivisions to load. A country code, such as
+     * "US", loads the country with all of its states and regions, while a
+     * subdivision, such as "US-CA" or "DE-BY-A", loads the country with only
+     * the holidays of that subdivision, and the ones of its own states and
+     * regions. Other countries and subdivisions are skipped while reading.
+     *
+     * @param countries the codes of the countries and subdivisions, or none
+     *      to load all of them
+     * @return this loader
+     */
+    public HolidayDataLoader setCountries(String... countries) {
+        this.countries = Arrays.asList(countries);
+        return this;
+    }
+
+    /**
+     * Sets the types of the holidays to load, ignoring the case, such as
+     * "public", "bank", "school", "optional" or "observance". A holiday
+     * without a type is a "public" holiday, unless it's a holiday of a
+     * subdivision merged over one of a level above it, whose type it has, see
+     * {@link HolidayData#getResolvedRegion(String)}. Holidays of other types
+     * are skipped while reading, and their rules are not parsed.
+     *
+     * @param types the holiday types, or none to load all of them
+     * @return this loader
+     */
+    public HolidayDataLoader setTypes(String... types) {
+        this.types = Arrays.asList(types);
+        return this;
+    }
+
+    /**
+     * Sets the languages of the names of the countries and holidays to load,
+     * such as "en". The names in other languages are skipped while reading,
+     * except for the names without a language, see
+     * {@link HolidayFilter#includesLanguage(String)}.
+     *
+     * @param languages the language codes, or none to load all of them
+     * @return this loader
+     */
+    public HolidayDataLoader setLanguages(String... languages) {
+        this.languages = Arrays.asList(languages);
+        return this;
+    }
+
+    /**
+     * @return the filter of the countries, holiday types and languages set
+     *      on this loader
+     */
+    public HolidayFilter getFilter() {
+        return new HolidayFilter(countries, types, languages);
+    }
+
+    /**
+     * Loads the {@link HolidayData} from the holidays.json file in the
+     * resource folder, or from its snapshot, with the options of this loader.
+     * The snapshot is not used if the countries, types or languages are set.
+     *
+     * @return the holiday data
+     */
+    public HolidayData load() {
+        if (!isStatisticsEnabled()) {
+            return load(null);
+        }
+        LoadRecorder recorder = new LoadRecorder();
+        HolidayData data;
+        try {
+            data = load(recorder);
+        } catch (RuntimeException e) {
+            if (listener != null) {
+                LoadStatistics statistics = new LoadStatistics();
+                recorder.fill(statistics, null);
+                listener.loadFailed(statistics, e);
+            }
+            throw e;
+        }
+        LoadStatistics statistics = data.getLoadStatistics();
+        recorder.fill(statistics, data);
+        if (listener != null) {
+            listener.loadFinished(statistics);
+        }
+        return data;
+    }
+
+    private HolidayData load(LoadRecorder recorder) {
+        HolidayFilter filter = getFilter();
+        if (snapshot && filter.isEmpty()) {
+            HolidayData data = loadSnapshot(recorder);
+            if (data != null) {
+                return data;
+            }
+        }
+        HolidayDataReader reader = new HolidayDataReader(new RuleCache());
+        reader.setDeferRuleParsing(deferRuleParsing);
+        reader.setLoadRecorder(recorder);
+        reader.setFilter(filter);
+        try (InputStream in = Utils.getFileFromResourceAsStream(HolidayData.HOLIDAYS_FILE)) {
+            if (lazy) {
+                return reader.readLazily(in);
+            }
+            return (executor != null) ? reader.readInParallel(in, executor) : reader.read(in);
+        } catch (IOException e) {
+            throw new HolidayInitializationException(e.getMessage(), e);
+        } finally {
+            // the countries of a lazy load are deserialized later, not recorded
+            reader.setLoadRecorder(null);
+        }
+    }
+
+    /**
+     * @return the data of the snapshot, or null if there's no snapshot or if
+     *      it doesn't match the holidays.json file
+     */
+    private static HolidayData loadSnapshot(LoadRecorder recorder) {
+        try {
+            long start = (recorder != null) ? System.nanoTime() : 0;
+            ByteBuffer buffer = HolidayDataSnapshot.getResource(HolidayDataSnapshot.SNAPSHOT_FILE);
+            if (buffer == null) {
+                return null;
+            }
+            long sourceChecksum = HolidayDataSnapshot.checksumOfResource(HolidayData.HOLIDAYS_FILE);
+            if (recorder == null) {
+                return HolidayDataSnapshot.read(buffer, sourceChecksum);
+            }
+            long decodeStart = System.nanoTime();
+            recorder.addResourceRead(decodeStart - start, buffer.remaining());
+            HolidayData data = HolidayDataSnapshot.read(buffer, sourceChecksum);
+            if (data != null) {
+                recorder.addDecode(System.nanoTime() - decodeStart);
+            }
+            return data;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
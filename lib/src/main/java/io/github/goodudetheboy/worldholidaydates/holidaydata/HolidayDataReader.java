@@ -0,0 +1,695 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.ParseException;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
+
+/**
+ * A streaming reader for the holidays.json file, which builds the
+ * {@link HolidayData}, {@link Country} and {@link Holiday} objects directly
+ * from the tokens of a {@link JsonReader}, without reading the whole file
+ * into a String or building an intermediate JsonElement tree first.
+ * <p>
+ * The result is the same as the one of {@link CountryDeserializer} and
+ * {@link HolidayDeserializer}.
+ */
+public class HolidayDataReader {
+    private final   RuleCache   ruleCache;
+    private         boolean     deferRuleParsing    = false;
+    private         LoadRecorder    recorder        = null;
+    private         HolidayFilter   filter          = null;
+
+    /**
+     * Default constructor
+     */
+    public HolidayDataReader() {
+        this(new RuleCache());
+    }
+
+    /**
+     * Constructs a {@link HolidayDataReader} which parses the rules of "days"
+     * through a {@link RuleCache}.
+     *
+     * @param ruleCache the cache of parsed rules
+     */
+    public HolidayDataReader(RuleCache ruleCache) {
+        this.ruleCache = ruleCache;
+    }
+
+    /**
+     * @return the cache of parsed rules used by this reader
+     */
+    public RuleCache getRuleCache() {
+        return ruleCache;
+    }
+
+    /**
+     * @return true if the rules are parsed on first use instead of during the
+     *      reading
+     */
+    public boolean isDeferRuleParsing() {
+        return deferRuleParsing;
+    }
+
+    /**
+     * Sets whether the rules of the holidays are parsed on first use, see
+     * {@link Holiday#setDeferredRule}, instead of during the reading.
+     *
+     * @param deferRuleParsing true to parse the rules on first use
+     */
+    public void setDeferRuleParsing(boolean deferRuleParsing) {
+        this.deferRuleParsing = deferRuleParsing;
+    }
+
+    /**
+     * @return the filter of the countries, holiday types and languages to
+     *      keep, or null to keep everything
+     */
+    public HolidayFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sets the filter of the countries, holiday types and languages to keep.
+     * The countries and subdivisions, holidays and names that are not kept
+     * are skipped while reading, without being deserialized, and the rules
+     * of the skipped holidays are not parsed.
+     *
+     * @param filter the filter, or null to keep everything
+     */
+    public void setFilter(HolidayFilter filter) {
+        this.filter = (filter != null && !filter.isEmpty()) ? filter : null;
+    }
+
+    /**
+     * Sets the {@link LoadRecorder} of the phase timings and the counts of
+     * the next reads, or null to not record them.
+     */
+    void setLoadRecorder(LoadRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Reads the {@link HolidayData} from an {@link InputStream} of a
+     * holidays.json file, encoded in UTF-8. The stream is not closed.
+     *
+     * @param in an {@link InputStream} of a holidays.json file
+     * @return the {@link HolidayData} read from the input stream
+     * @throws IOException if the input stream can't be read
+     */
+    public HolidayData read(InputStream in) throws IOException {
+        return read(reader(in), false, null);
+    }
+
+    /**
+     * Reads the {@link HolidayData} from a {@link Reader} of a holidays.json
+     * file. The reader is not closed.
+     *
+     * @param in a {@link Reader} of a holidays.json file
+     * @return the {@link HolidayData} read from the reader
+     * @throws IOException if the reader can't be read
+     */
+    public HolidayData read(Reader in) throws IOException {
+        return read(in, false, null);
+    }
+
+    /**
+     * Reads the {@link HolidayData} from an {@link InputStream} of a
+     * holidays.json file, encoded in UTF-8, without deserializing the
+     * countries. Each {@link Country}, with its states and regions, is only
+     * deserialized the first time it is accessed. The stream is not closed.
+     *
+     * @param in an {@link InputStream} of a holidays.json file
+     * @return the {@link HolidayData} read from the input stream, with
+     *      countries deserialized on first access
+     * @throws IOException if the input stream can't be read
+     */
+    public HolidayData readLazily(InputStream in) throws IOException {
+        return read(reader(in), true, null);
+    }
+
+    /**
+     * Reads the {@link HolidayData} from an {@link InputStream} of a
+     * holidays.json file, encoded in UTF-8, deserializing the countries in
+     * parallel. The "holidays" section is split by country on the calling
+     * thread, and each {@link Country}, with its states and regions, is
+     * deserialized by a task run on the {@link Executor}, such as a
+     * {@link java.util.concurrent.ForkJoinPool}. The result has the same
+     * content and iteration order as the one of {@link #read(InputStream)}.
+     * The stream is not closed.
+     *
+     * @param in an {@link InputStream} of a holidays.json file
+     * @param executor the executor running the deserialization of the
+     *      countries
+     * @return the {@link HolidayData} read from the input stream
+     * @throws IOException if the input stream can't be read
+     */
+    public HolidayData readInParallel(InputStream in, Executor executor) throws IOException {
+        return read(reader(in), false, executor);
+    }
+
+    private Reader reader(InputStream in) {
+        LoadRecorder r = recorder;
+        return new InputStreamReader((r != null) ? r.timed(in) : in, StandardCharsets.UTF_8);
+    }
+
+    private JsonReader jsonReader(Reader in) {
+        LoadRecorder r = recorder;
+        return (r != null) ? r.timed(in) : new JsonReader(in);
+    }
+
+    private HolidayData read(Reader in, boolean lazy, @Nullable Executor executor) throws IOException {
+        JsonReader reader = jsonReader(in);
+        reader.setLenient(true);
+        HolidayData data = readHolidayData(reader, lazy, executor);
+        data.setLoadStatistics(new LoadStatistics(ruleCache));
+        return data;
+    }
+
+    HolidayData readHolidayData(JsonReader in, boolean lazy, @Nullable Executor executor) throws IOException {
+        HolidayData data = new HolidayData();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "version":
+                    data.setVersion(nextStringOrNull(in));
+                    break;
+                case "license":
+                    data.setLicense(nextStringOrNull(in));
+                    break;
+                case "holidays":
+                    if (lazy) {
+                        data.setHolidays(readCountriesLazily(in));
+                    } else if (executor != null) {
+                        data.setHolidays(readCountriesInParallel(in, executor));
+                    } else {
+                        data.setHolidays(readCountries(in, null));
+                    }
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return data;
+    }
+
+    /**
+     * Reads a JSON object of {@link Country} by its code, which can be the
+     * "holidays", "states" or "regions" section.
+     *
+     * @param parentPath the path of the country or subdivision containing the
+     *      section, see {@link HolidayFilter#includesRegion(String)}, or null
+     *      for the "holidays" section
+     */
+    Map<String, Country> readCountries(JsonReader in, @Nullable String parentPath) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Map<String, Country> result = new LinkedTreeMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String code = in.nextName();
+            String path = pathOf(parentPath, code);
+            if (!includesRegion(path)) {
+                in.skipValue();
+                continue;
+            }
+            Country c = readCountry(in, path);
+            if (parentPath == null) {
+                filterTypes(c, Collections.<String, String>emptyMap());
+            }
+            result.put(code, c);
+        }
+        in.endObject();
+        return result;
+    }
+
+    /**
+     * Reads the "holidays" section, keeping only the JSON text of each
+     * {@link Country}, to be deserialized later by {@link LazyCountryMap}.
+     */
+    private Map<String, Country> readCountriesLazily(JsonReader in) throws IOException {
+        LazyCountryMap result = new LazyCountryMap(this);
+        in.beginObject();
+        while (in.hasNext()) {
+            String code = in.nextName();
+            if (!includesRegion(code)) {
+                in.skipValue();
+                continue;
+            }
+            StringWriter json = new StringWriter();
+            copyValue(in, new JsonWriter(json));
+            result.putSource(code, json.toString());
+        }
+        in.endObject();
+        return result;
+    }
+
+    /**
+     * Reads the "holidays" section, submitting the deserialization of each
+     * {@link Country} to the {@link Executor} as soon as its JSON text is
+     * read, then waits for all of them in the order of the section.
+     */
+    private Map<String, Country> readCountriesInParallel(JsonReader in, Executor executor) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> codes = new ArrayList<>();
+        List<CompletableFuture<Country>> countries = new ArrayList<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String code = in.nextName();
+            if (!includesRegion(code)) {
+                in.skipValue();
+                continue;
+            }
+            codes.add(code);
+            StringWriter json = new StringWriter();
+            copyValue(in, new JsonWriter(json));
+            String countryJson = json.toString();
+            countries.add(CompletableFuture.supplyAsync(() -> readCountry(code, countryJson), executor));
+        }
+        in.endObject();
+
+        Map<String, Country> result = new LinkedTreeMap<>();
+        for (int i = 0; i < codes.size(); i++) {
+            try {
+                result.put(codes.get(i), countries.get(i).join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new HolidayInitializationException(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deserializes a {@link Country} from its JSON text.
+     *
+     * @param code the code of the {@link Country}
+     * @param json the JSON text of a {@link Country}
+     * @return the {@link Country}
+     */
+    Country readCountry(String code, String json) {
+        try {
+            Country result = readCountry(jsonReader(new StringReader(json)), code);
+            filterTypes(result, Collections.<String, String>emptyMap());
+            return result;
+        } catch (IOException e) {
+            throw new HolidayInitializationException(e.getMessage(), e);
+        }
+    }
+
+    Country readCountry(JsonReader in, String path) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Country c = new Country();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "names":
+                    c.setNames(readNames(in));
+                    break;
+                case "name":
+                    c.setName(nextStringOrNull(in));
+                    break;
+                case "dayoff":
+                    c.setDayoff(nextStringOrNull(in));
+                    break;
+                case "langs":
+                    c.setLangs(readStringArray(in));
+                    break;
+                case "zones":
+                    c.setZones(readStringArray(in));
+                    break;
+                case "_days":
+                    c.setReferenceDays(readStringOrStringArray(in));
+                    break;
+                case "days":
+                    readDays(in, c);
+                    break;
+                case "states":
+                    c.setStates(readCountries(in, path));
+                    break;
+                case "regions":
+                    c.setRegions(readCountries(in, path));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return c;
+    }
+
+    /**
+     * Reads the "days" section of a {@link Country}. Same as
+     * {@link CountryDeserializer}, the days set to false are the removed days
+     * of the {@link Country}, see {@link Country#getRemovedDays()}. If the
+     * filter selects types, the days are filtered once their country is read,
+     * see {@link #filterTypes(Country, Map)}.
+     */
+    void readDays(JsonReader in, Country c) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return;
+        }
+        List<Holiday> result = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String originalRule = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                if (in.peek() == JsonToken.BOOLEAN && !in.nextBoolean()) {
+                    removed.add(originalRule);
+                } else {
+                    in.skipValue();
+                }
+                continue;
+            }
+            Holiday h = readHoliday(in);
+            if (filtersTypes()) {
+                // the rule is only set if the holiday is kept, see filterTypes
+                h.setDeferredRule(originalRule, null);
+            } else {
+                setRule(h, originalRule);
+            }
+            result.add(h);
+        }
+        in.endObject();
+        c.setDays(result);
+        if (!removed.isEmpty()) {
+            c.setRemovedDays(removed.toArray(new String[0]));
+        }
+    }
+
+    private void setRule(Holiday h, String originalRule) {
+        if (deferRuleParsing) {
+            h.setDeferredRule(originalRule, ruleCache);
+        } else {
+            h.setRule(parseRule(originalRule));
+        }
+    }
+
+    /**
+     * @return true if the filter selects holiday types
+     */
+    private boolean filtersTypes() {
+        return filter != null && !filter.getTypes().isEmpty();
+    }
+
+    /**
+     * Removes the holidays whose type isn't kept by the filter from a
+     * {@link Country} and its subdivisions, and sets the rules of the other
+     * ones. A holiday of a subdivision without "type" is merged over the one
+     * of the same rule above it, see {@link Country#resolve(List)}, so its
+     * type is the one above it, or {@link HolidayFilter#DEFAULT_TYPE} if
+     * there's none, and if it isn't kept, its rule is a removed day of the
+     * subdivision, see {@link Country#getRemovedDays()}, so that the holiday
+     * above it isn't kept either.
+     *
+     * @param c the {@link Country}, or null
+     * @param inheritedTypes the types of the holidays of the levels above, by
+     *      rule string
+     */
+    private void filterTypes(@Nullable Country c, Map<String, String> inheritedTypes) {
+        if (c == null || !filtersTypes()) {
+            return;
+        }
+        Map<String, String> types = new HashMap<>(inheritedTypes);
+        if (c.getRemovedDays() != null) {
+            for (String rule : c.getRemovedDays()) {
+                types.remove(rule);
+            }
+        }
+        if (c.getDays() != null) {
+            List<Holiday> kept = new ArrayList<>(c.getDays().size());
+            List<String> removed = new ArrayList<>();
+            for (Holiday h : c.getDays()) {
+                String rule = h.getOriginalRule();
+                String type = (h.getType() != null) ? h.getType() : types.get(rule);
+                if (filter.includesType(type)) {
+                    setRule(h, rule);
+                    kept.add(h);
+                } else if (types.containsKey(rule)) {
+                    // the holiday above it must not be kept in this subdivision
+                    removed.add(rule);
+                }
+                types.put(rule, type);
+            }
+            c.setDays(kept);
+            if (!removed.isEmpty()) {
+                if (c.getRemovedDays() != null) {
+                    removed.addAll(0, Arrays.asList(c.getRemovedDays()));
+                }
+                c.setRemovedDays(removed.toArray(new String[0]));
+            }
+        }
+        filterTypes(c.getStates(), types);
+        filterTypes(c.getRegions(), types);
+    }
+
+    private void filterTypes(@Nullable Map<String, Country> subdivisions, Map<String, String> inheritedTypes) {
+        if (subdivisions != null) {
+            for (Country c : subdivisions.values()) {
+                filterTypes(c, inheritedTypes);
+            }
+        }
+    }
+
+    Holiday readHoliday(JsonReader in) throws IOException {
+        Holiday h = new Holiday();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    h.setName(readName(in));
+                    break;
+                case "_name":
+                    h.setReferenceName(nextStringOrNull(in));
+                    break;
+                case "type":
+                    h.setType(nextStringOrNull(in));
+                    break;
+                case "note":
+                    h.setNote(nextStringOrNull(in));
+                    break;
+                case "substitute":
+                    h.setSubstitute(nextBooleanOrNull(in));
+                    break;
+                case "disable":
+                    h.setDisable(readStringArray(in));
+                    break;
+                case "enable":
+                    h.setEnable(readStringArray(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return h;
+    }
+
+    /**
+     * Gets the parsed {@link Rule} of a rule string from the {@link RuleCache}.
+     *
+     * @param originalRule the rule string, a key of "days"
+     * @return the parsed {@link Rule}
+     */
+    Rule parseRule(String originalRule) {
+        LoadRecorder r = recorder;
+        long start = (r != null) ? System.nanoTime() : 0;
+        try {
+            return ruleCache.get(originalRule);
+        } catch (ParseException e) {
+            if (r != null) {
+                r.addParseFailure();
+            }
+            throw new HolidayInitializationException(e.getMessage(), e);
+        } finally {
+            if (r != null) {
+                r.addRuleParse(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static String pathOf(@Nullable String parentPath, String code) {
+        return (parentPath != null) ? parentPath + "-" + code : code;
+    }
+
+    private boolean includesRegion(String path) {
+        return filter == null || filter.includesRegion(path);
+    }
+
+    /**
+     * Reads a map of names by language, skipping the languages that are not
+     * kept by the filter.
+     */
+    private Map<String, String> readNames(JsonReader in) throws IOException {
+        if (filter == null) {
+            return readStringMap(in);
+        }
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Map<String, String> result = new LinkedTreeMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            if (filter.includesLanguage(key)) {
+                result.put(key, nextStringOrNull(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return result;
+    }
+
+    /**
+     * Reads the name of a {@link Holiday}, in the same way as
+     * {@link HolidayDeserializer}, a plain string name is stored with "xx" as
+     * its language.
+     */
+    private Map<String, String> readName(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BEGIN_OBJECT) {
+            return readNames(in);
+        }
+        Map<String, String> result = new LinkedTreeMap<>();
+        result.put(HolidayFilter.UNKNOWN_LANGUAGE, in.nextString());
+        return result;
+    }
+
+    private static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Map<String, String> result = new LinkedTreeMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            result.put(key, nextStringOrNull(in));
+        }
+        in.endObject();
+        return result;
+    }
+
+    /**
+     * Copies the next value of a {@link JsonReader}, and all of its content,
+     * to a {@link JsonWriter}.
+     */
+    private static void copyValue(JsonReader in, JsonWriter out) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                in.beginObject();
+                out.beginObject();
+                while (in.hasNext()) {
+                    out.name(in.nextName());
+                    copyValue(in, out);
+                }
+                in.endObject();
+                out.endObject();
+                break;
+            case BEGIN_ARRAY:
+                in.beginArray();
+                out.beginArray();
+                while (in.hasNext()) {
+                    copyValue(in, out);
+                }
+                in.endArray();
+                out.endArray();
+                break;
+            case STRING:
+                out.value(in.nextString());
+                break;
+            case NUMBER:
+                out.jsonValue(in.nextString());
+                break;
+            case BOOLEAN:
+                out.value(in.nextBoolean());
+                break;
+            case NULL:
+                in.nextNull();
+                out.nullValue();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected token: " + in.peek());
+        }
+    }
+
+    private static String[] readStringArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            result.add(nextStringOrNull(in));
+        }
+        in.endArray();
+        return result.toArray(new String[0]);
+    }
+
+    private static String[] readStringOrStringArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return new String[]{ in.nextString() };
+        }
+        return readStringArray(in);
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Boolean nextBooleanOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+}
@@ -0,0 +1,479 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.internal.LinkedTreeMap;
+
+import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleSerializer;
+
+/**
+ * A precompiled binary form of the {@link HolidayData}, with all of its
+ * {@link Country}, {@link Holiday} and parsed {@link Rule} objects, so that
+ * the holidays.json file doesn't have to be parsed again at startup. The
+ * snapshot is generated at build time by the {@code generateHolidaySnapshot}
+ * Gradle task, which runs {@link #main(String[])}, and is packaged as the
+ * holidays.snapshot resource.
+ * <p>
+ * A snapshot has the following layout, in big-endian order:
+ * <pre>
+ * int      magic number "WHDS"
+ * int      format version
+ * long     CRC32 checksum of the holidays.json file it was generated from
+ * int      length of the payload
+ * long     CRC32 checksum of the payload
+ * payload: the string table, the rule table, then the holiday data, whose
+ *          strings and rules are indexes into these tables
+ * </pre>
+ * A snapshot is only read if its format version is the current one and it was
+ * generated from the same holidays.json file, otherwise the holidays.json file
+ * has to be read instead, see {@link HolidayDataLoader#setSnapshot(boolean)}.
+ */
+public final class HolidayDataSnapshot {
+    static final String SNAPSHOT_FILE = "holidays.snapshot";
+
+    static final int MAGIC          = 0x57484453; // "WHDS"
+    static final int FORMAT_VERSION = 4;
+
+    private static final int HEADER_LENGTH  = 4 + 4 + 8 + 4 + 8;
+    private static final int NULL_INDEX     = -1;
+
+    private HolidayDataSnapshot() {
+        // utility class
+    }
+
+    /**
+     * Generates a snapshot from a holidays.json file.
+     * <p>
+     * Usage: {@code HolidayDataSnapshot <holidays.json> <holidays.snapshot>}
+     *
+     * @param args the path of the holidays.json file and the path of the
+     *      snapshot to write
+     * @throws IOException if a file can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: HolidayDataSnapshot <holidays.json> <holidays.snapshot>");
+        }
+        byte[] json = Files.readAllBytes(Paths.get(args[0]));
+        HolidayData data = new HolidayDataReader().read(new ByteArrayInputStream(json));
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(data, checksum(json), out);
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of the content of a holidays.json file.
+     *
+     * @param source the content of a holidays.json file
+     * @return the checksum of the content
+     */
+    public static long checksum(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source, 0, source.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a snapshot of a {@link HolidayData}. The rules of the holidays
+     * that are not parsed yet are parsed first.
+     *
+     * @param data the {@link HolidayData} to write
+     * @param sourceChecksum the {@link #checksum(byte[])} of the holidays.json
+     *      file the data was read from
+     * @param out the stream to write into, which is not closed
+     * @throws IOException if the stream can't be written
+     */
+    public static void write(HolidayData data, long sourceChecksum, OutputStream out) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writer.writeHolidayData(new DataOutputStream(body), data);
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(body.size() * 2);
+        DataOutputStream payloadOut = new DataOutputStream(payload);
+        writer.writeTables(payloadOut);
+        body.writeTo(payloadOut);
+        payloadOut.flush();
+        byte[] payloadBytes = payload.toByteArray();
+
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(FORMAT_VERSION);
+        dataOut.writeLong(sourceChecksum);
+        dataOut.writeInt(payloadBytes.length);
+        dataOut.writeLong(checksum(payloadBytes));
+        dataOut.write(payloadBytes);
+        dataOut.flush();
+    }
+
+    /**
+     * Reads a snapshot from a {@link ByteBuffer}, starting at its current
+     * position.
+     *
+     * @param in the buffer containing the snapshot
+     * @param sourceChecksum the {@link #checksum(byte[])} of the holidays.json
+     *      file the snapshot must have been generated from
+     * @return the {@link HolidayData} of the snapshot, or null if the buffer
+     *      isn't a snapshot of the current format, was generated from another
+     *      holidays.json file or is corrupted
+     */
+    @Nullable
+    public static HolidayData read(ByteBuffer in, long sourceChecksum) {
+        if (in.remaining() < HEADER_LENGTH
+                || in.getInt() != MAGIC
+                || in.getInt() != FORMAT_VERSION
+                || in.getLong() != sourceChecksum) {
+            return null;
+        }
+        int length = in.getInt();
+        long payloadChecksum = in.getLong();
+        if (length < 0 || length > in.remaining()) {
+            return null;
+        }
+        ByteBuffer payload = in.slice();
+        payload.limit(length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != payloadChecksum) {
+            return null;
+        }
+        HolidayData data = new SnapshotReader(payload).readHolidayData();
+        LoadStatistics statistics = new LoadStatistics();
+        statistics.setFromSnapshot(true);
+        data.setLoadStatistics(statistics);
+        return data;
+    }
+
+    /**
+     * Maps a snapshot file into memory.
+     *
+     * @param file the path of the snapshot
+     * @return a read-only buffer of the file
+     * @throws IOException if the file can't be read
+     */
+    static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Gets a resource as a {@link ByteBuffer}, which is memory-mapped if the
+     * resource is a file, or read into memory otherwise, e.g. if it's in a jar.
+     *
+     * @param name the name of the resource
+     * @return the content of the resource, or null if there's no such resource
+     * @throws IOException if the resource can't be read
+     */
+    @Nullable
+    static ByteBuffer getResource(String name) throws IOException {
+        URL url = HolidayDataSnapshot.class.getClassLoader().getResource(name);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                // read it as a stream below
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return ByteBuffer.wrap(Utils.readAllBytes(in));
+        }
+    }
+
+    /**
+     * Computes the {@link #checksum(byte[])} of a resource.
+     *
+     * @param name the name of the resource
+     * @return the checksum of the resource
+     * @throws IOException if the resource can't be read
+     */
+    static long checksumOfResource(String name) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Utils.getFileFromResourceAsStream(name)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the holiday data, collecting its strings and rules into tables,
+     * which are written before the data.
+     */
+    private static final class SnapshotWriter {
+        private final Map<String, Integer>  strings = new LinkedHashMap<>();
+        private final Map<Rule, Integer>    rules   = new IdentityHashMap<>();
+        private final List<Rule>            ruleList = new ArrayList<>();
+
+        void writeTables(DataOutputStream out) throws IOException {
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(ruleList.size());
+            for (Rule rule : ruleList) {
+                RuleSerializer.write(out, rule);
+            }
+        }
+
+        void writeHolidayData(DataOutputStream out, HolidayData data) throws IOException {
+            writeString(out, data.getVersion());
+            writeString(out, data.getLicense());
+            writeCountries(out, data.getHolidays());
+        }
+
+        private void writeCountries(DataOutputStream out, @Nullable Map<String, Country> countries) throws IOException {
+            if (countries == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            out.writeInt(countries.size());
+            for (Map.Entry<String, Country> entry : countries.entrySet()) {
+                writeString(out, entry.getKey());
+                writeCountry(out, entry.getValue());
+            }
+        }
+
+        private void writeCountry(DataOutputStream out, @Nullable Country c) throws IOException {
+            out.writeBoolean(c != null);
+            if (c == null) {
+                return;
+            }
+            writeStringMap(out, c.getNames());
+            writeString(out, c.getName());
+            writeString(out, c.getDayoff());
+            writeStringArray(out, c.getLangs());
+            writeStringArray(out, c.getZones());
+            writeStringArray(out, c.getReferenceDays());
+            writeDays(out, c.getDays());
+            writeStringArray(out, c.getRemovedDays());
+            writeCountries(out, c.getStates());
+            writeCountries(out, c.getRegions());
+        }
+
+        private void writeDays(DataOutputStream out, @Nullable List<Holiday> days) throws IOException {
+            if (days == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            out.writeInt(days.size());
+            for (Holiday h : days) {
+                writeRule(out, h.getRule());
+                writeStringMap(out, h.getName());
+                writeString(out, h.getRefName());
+                writeString(out, h.getType());
+                writeString(out, h.getNote());
+                Boolean substitute = h.getSubstitute();
+                out.writeByte((substitute == null) ? NULL_INDEX : (substitute ? 1 : 0));
+                writeStringArray(out, h.getDisable());
+                writeStringArray(out, h.getEnable());
+            }
+        }
+
+        private void writeRule(DataOutputStream out, @Nullable Rule rule) throws IOException {
+            if (rule == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            Integer index = rules.get(rule);
+            if (index == null) {
+                index = ruleList.size();
+                rules.put(rule, index);
+                ruleList.add(rule);
+            }
+            out.writeInt(index);
+        }
+
+        private void writeString(DataOutputStream out, @Nullable String s) throws IOException {
+            if (s == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            Integer index = strings.get(s);
+            if (index == null) {
+                index = strings.size();
+                strings.put(s, index);
+            }
+            out.writeInt(index);
+        }
+
+        private void writeStringMap(DataOutputStream out, @Nullable Map<String, String> map) throws IOException {
+            if (map == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            out.writeInt(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+
+        private void writeStringArray(DataOutputStream out, @Nullable String[] array) throws IOException {
+            if (array == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            out.writeInt(array.length);
+            for (String s : array) {
+                writeString(out, s);
+            }
+        }
+    }
+
+    /**
+     * Reads the holiday data from the payload of a snapshot.
+     */
+    private static final class SnapshotReader {
+        private final ByteBuffer    in;
+        private final String[]      strings;
+        private final Rule[]        rules;
+
+        SnapshotReader(ByteBuffer in) {
+            this.in = in;
+            this.strings = new String[in.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            this.rules = new Rule[in.getInt()];
+            for (int i = 0; i < rules.length; i++) {
+                rules[i] = RuleSerializer.read(in);
+            }
+        }
+
+        HolidayData readHolidayData() {
+            HolidayData data = new HolidayData();
+            data.setVersion(readString());
+            data.setLicense(readString());
+            data.setHolidays(readCountries());
+            return data;
+        }
+
+        @Nullable
+        private Map<String, Country> readCountries() {
+            int size = in.getInt();
+            if (size == NULL_INDEX) {
+                return null;
+            }
+            Map<String, Country> result = new LinkedTreeMap<>();
+            for (int i = 0; i < size; i++) {
+                String code = readString();
+                result.put(code, readCountry());
+            }
+            return result;
+        }
+
+        @Nullable
+        private Country readCountry() {
+            if (in.get() == 0) {
+                return null;
+            }
+            Country c = new Country();
+            c.setNames(readStringMap());
+            c.setName(readString());
+            c.setDayoff(readString());
+            c.setLangs(readStringArray());
+            c.setZones(readStringArray());
+            c.setReferenceDays(readStringArray());
+            c.setDays(readDays());
+            c.setRemovedDays(readStringArray());
+            c.setStates(readCountries());
+            c.setRegions(readCountries());
+            return c;
+        }
+
+        @Nullable
+        private List<Holiday> readDays() {
+            int size = in.getInt();
+            if (size == NULL_INDEX) {
+                return null;
+            }
+            List<Holiday> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Holiday h = new Holiday();
+                int rule = in.getInt();
+                h.setRule((rule != NULL_INDEX) ? rules[rule] : null);
+                h.setName(readStringMap());
+                h.setReferenceName(readString());
+                h.setType(readString());
+                h.setNote(readString());
+                byte substitute = in.get();
+                h.setSubstitute((substitute == NULL_INDEX) ? null : Boolean.valueOf(substitute == 1));
+                h.setDisable(readStringArray());
+                h.setEnable(readStringArray());
+                result.add(h);
+            }
+            return result;
+        }
+
+        @Nullable
+        private String readString() {
+            int index = in.getInt();
+            return (index != NULL_INDEX) ? strings[index] : null;
+        }
+
+        @Nullable
+        private Map<String, String> readStringMap() {
+            int size = in.getInt();
+            if (size == NULL_INDEX) {
+                return null;
+            }
+            Map<String, String> result = new LinkedTreeMap<>();
+            for (int i = 0; i < size; i++) {
+                String key = readString();
+                result.put(key, readString());
+            }
+            return result;
+        }
+
+        @Nullable
+        private String[] readStringArray() {
+            int size = in.getInt();
+            if (size == NULL_INDEX) {
+                return null;
+            }
+            String[] result = new String[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = readString();
+            }
+            return result;
+        }
+    }
+}
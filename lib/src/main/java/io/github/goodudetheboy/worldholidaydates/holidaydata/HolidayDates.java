@@ -0,0 +1,127 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The dates of the holidays of a {@link Country} in a span of years, see
+ * {@link Country#getHolidays(int, int)}, stored as primitive arrays: each
+ * occurrence is the epoch day of its start and the index of its
+ * {@link Holiday} in {@link Country#getDays()}. The occurrences are grouped
+ * by year, in the order of the holidays of the country, and the holidays
+ * disabled in a year have no occurrence in it. A holiday has more than one
+ * occurrence in a year if it has extra holidays in the year, such as its
+ * other enabled dates, see {@link Holiday#evaluate(int)}.
+ * <p>
+ * This class is immutable.
+ */
+public final class HolidayDates {
+    private final   List<Holiday>   holidays;
+    private final   int             fromYear;
+    private final   int             toYear;
+    private final   long[]          epochDays;
+    private final   int[]           holidayIndices;
+    // the index of the first occurrence of each year, by year - fromYear, and
+    // the count of occurrences at the end
+    private final   int[]           yearStarts;
+
+    HolidayDates(List<Holiday> holidays, int fromYear, int toYear, long[] epochDays, int[] holidayIndices, int[] yearStarts) {
+        this.holidays = holidays;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.epochDays = epochDays;
+        this.holidayIndices = holidayIndices;
+        this.yearStarts = yearStarts;
+    }
+
+    /**
+     * @return the first year of the span
+     */
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    /**
+     * @return the last year of the span, inclusive
+     */
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * @return the count of occurrences in the span
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * @param index the index of an occurrence, from 0 to {@link #size()}
+     * @return the epoch day of the start of the occurrence
+     */
+    public long getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    /**
+     * @param index the index of an occurrence, from 0 to {@link #size()}
+     * @return the start date of the occurrence
+     */
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    /**
+     * @param index the index of an occurrence, from 0 to {@link #size()}
+     * @return the index of the {@link Holiday} of the occurrence in
+     *      {@link Country#getDays()}
+     */
+    public int getHolidayIndex(int index) {
+        return holidayIndices[index];
+    }
+
+    /**
+     * @param index the index of an occurrence, from 0 to {@link #size()}
+     * @return the {@link Holiday} of the occurrence
+     */
+    public Holiday getHoliday(int index) {
+        return holidays.get(holidayIndices[index]);
+    }
+
+    /**
+     * @param year a year of the span
+     * @return the index of the first occurrence of the year
+     */
+    public int getYearStart(int year) {
+        return yearStarts[checkYear(year)];
+    }
+
+    /**
+     * @param year a year of the span
+     * @return the index after the last occurrence of the year
+     */
+    public int getYearEnd(int year) {
+        return yearStarts[checkYear(year) + 1];
+    }
+
+    /**
+     * @return a copy of the epoch days of the starts of the occurrences
+     */
+    public long[] toEpochDayArray() {
+        return epochDays.clone();
+    }
+
+    /**
+     * @return a copy of the indexes of the holidays of the occurrences
+     */
+    public int[] toHolidayIndexArray() {
+        return holidayIndices.clone();
+    }
+
+    private int checkYear(int year) {
+        if (year < fromYear || year > toYear) {
+            throw new IndexOutOfBoundsException("Year out of the span " + fromYear + "-" + toYear + ": " + year);
+        }
+        return year - fromYear;
+    }
+}
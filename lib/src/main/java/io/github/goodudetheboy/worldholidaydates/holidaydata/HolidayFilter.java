@@ -0,0 +1,146 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The selection of the countries, holiday types and languages to keep when
+ * reading the {@link HolidayData}, see
+ * {@link HolidayDataLoader#setCountries(String...)},
+ * {@link HolidayDataLoader#setTypes(String...)} and
+ * {@link HolidayDataLoader#setLanguages(String...)}. Everything else is
+ * skipped by the {@link HolidayDataReader} without being deserialized.
+ * <p>
+ * An empty selection keeps everything, e.g. a filter with only languages
+ * keeps all the countries and types.
+ */
+public final class HolidayFilter {
+    /**
+     * The type of the holidays without a "type", as in the date-holidays
+     * project
+     */
+    public static final String DEFAULT_TYPE = "public";
+
+    /**
+     * The language code of a name that is a plain string, see
+     * {@link HolidayDataReader}, which is always kept
+     */
+    static final String UNKNOWN_LANGUAGE = "xx";
+
+    private final   Set<String>     regions;
+    private final   Set<String>     types;
+    private final   Set<String>     languages;
+
+    /**
+     * Creates a filter, where a null or empty collection keeps everything.
+     *
+     * @param regions the allowed country and subdivision codes, where a
+     *      subdivision is given by the codes of its country and of its states
+     *      and regions separated by '-', such as "US-CA" or "DE-BY-A"
+     * @param types the allowed holiday types, such as "public" or "bank"
+     * @param languages the allowed languages of the names, such as "en"
+     */
+    public HolidayFilter(Collection<String> regions, Collection<String> types, Collection<String> languages) {
+        this.regions = copyOf(regions, false);
+        this.types = copyOf(types, true);
+        this.languages = copyOf(languages, true);
+    }
+
+    private static Set<String> copyOf(Collection<String> values, boolean lowerCase) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String value : values) {
+            result.add(lowerCase ? value.toLowerCase(Locale.ROOT) : value);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public Set<String> getRegions() {
+        return regions;
+    }
+
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    public Set<String> getLanguages() {
+        return languages;
+    }
+
+    /**
+     * @return true if this filter keeps everything
+     */
+    public boolean isEmpty() {
+        return regions.isEmpty() && types.isEmpty() && languages.isEmpty();
+    }
+
+    /**
+     * Checks if a country or a subdivision is kept. A country or subdivision
+     * is kept if it's allowed, if one of its subdivisions is allowed, as their
+     * holidays are added to its own, or if its country or a parent subdivision
+     * is allowed.
+     *
+     * @param path the code of a country, or of a subdivision as in
+     *      {@link #HolidayFilter(Collection, Collection, Collection)}
+     * @return true if the country or subdivision is kept
+     */
+    public boolean includesRegion(String path) {
+        if (regions.isEmpty() || regions.contains(path)) {
+            return true;
+        }
+        for (String allowed : regions) {
+            if (isParent(allowed, path) || isParent(path, allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isParent(String parent, String path) {
+        return path.length() > parent.length()
+                && path.charAt(parent.length()) == '-'
+                && path.startsWith(parent);
+    }
+
+    /**
+     * Checks if a holiday type is kept, ignoring the case. A holiday without
+     * a type is of type {@link #DEFAULT_TYPE}.
+     *
+     * @param type the type of a holiday, or null
+     * @return true if the type is kept
+     */
+    public boolean includesType(String type) {
+        return types.isEmpty()
+                || types.contains((type != null) ? type.toLowerCase(Locale.ROOT) : DEFAULT_TYPE);
+    }
+
+    /**
+     * Checks if a language of a name is kept, ignoring the case. A language
+     * with a country variant, such as "de-at", is kept if its language, "de",
+     * is allowed.
+     *
+     * @param language the language code of a name
+     * @return true if the language is kept
+     */
+    public boolean includesLanguage(String language) {
+        if (languages.isEmpty() || UNKNOWN_LANGUAGE.equals(language)) {
+            return true;
+        }
+        String lang = language.toLowerCase(Locale.ROOT);
+        if (languages.contains(lang)) {
+            return true;
+        }
+        int dash = lang.indexOf('-');
+        return dash > 0 && languages.contains(lang.substring(0, dash));
+    }
+
+    @Override
+    public String toString() {
+        return "regions: " + regions + ", types: " + types + ", languages: " + languages;
+    }
+}
@@ -0,0 +1,347 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.CompiledRule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayOccurrence;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+
+/**
+ * An index of the occurrences of the holidays of the regions of a
+ * {@link HolidayCalendar}, with the same regions, types and count of years
+ * kept per region, which finds the next and the previous holiday of a date
+ * and time, and the holidays of a span.
+ * <p>
+ * The occurrences of a region in a year are built on the first query of the
+ * year, as arrays of epoch minutes sorted by start, see
+ * {@link CompiledRule#toEpochMinute(LocalDateTime)}, with the holidays that
+ * last more than a day, see {@link Rule#getRange()}, and the extra holidays,
+ * see {@link HolidayOccurrence#getExtras()}, with the enabled dates, see
+ * {@link Holiday#evaluate(int)}, so that the queries are binary searches, from
+ * one year to the next. The occurrences last less than a year.
+ * <p>
+ * This class is thread-safe if the {@link HolidayData} of the calendar is
+ * frozen, see {@link HolidayData#freeze()}.
+ */
+public final class HolidayIndex {
+    /**
+     * The count of years searched for the next or the previous holiday, from
+     * the year of the date, before giving up
+     */
+    public static final int SEARCH_YEARS = 32;
+
+    private final   HolidayCalendar     calendar;
+    private final   Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the index of the holidays of a calendar.
+     *
+     * @param calendar the calendar
+     */
+    public HolidayIndex(HolidayCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    public HolidayCalendar getHolidayCalendar() {
+        return calendar;
+    }
+
+    /**
+     * Finds the first holiday of a region that starts after a date and time.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param after the date and time
+     * @return the occurrence, or null if there's none in
+     *      {@link #SEARCH_YEARS} years
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    @Nullable
+    public Occurrence nextHoliday(String region, LocalDateTime after) {
+        Region r = getRegion(region);
+        long minute = CompiledRule.toEpochMinute(after);
+        for (int year = after.getYear(); year < after.getYear() + SEARCH_YEARS; year++) {
+            Occurrences occurrences = r.years.get(year);
+            int index = occurrences.firstStartAfter(minute);
+            if (index < occurrences.size()) {
+                return occurrences.get(r, index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the last holiday of a region that starts before a date and time.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param before the date and time
+     * @return the occurrence, or null if there's none in
+     *      {@link #SEARCH_YEARS} years
+     * @throws IllegalArgumentException if the region doesn't exist
+     */
+    @Nullable
+    public Occurrence previousHoliday(String region, LocalDateTime before) {
+        Region r = getRegion(region);
+        long minute = CompiledRule.toEpochMinute(before);
+        for (int year = before.getYear(); year > before.getYear() - SEARCH_YEARS; year--) {
+            Occurrences occurrences = r.years.get(year);
+            int index = occurrences.firstStartAfter(minute - 1) - 1;
+            if (index >= 0) {
+                return occurrences.get(r, index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the holidays of a region that are in a span, even partly.
+     *
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @param from the start of the span
+     * @param to the end of the span, exclusive
+     * @return the occurrences that end after the start of the span and start
+     *      before its end, by start
+     * @throws IllegalArgumentException if the region doesn't exist, or if
+     *      from is after to
+     */
+    public List<Occurrence> holidaysBetween(String region, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The start must not be after the end: " + from + " - " + to);
+        }
+        Region r = getRegion(region);
+        long fromMinute = CompiledRule.toEpochMinute(from);
+        long toMinute = CompiledRule.toEpochMinute(to);
+        List<Occurrence> result = new ArrayList<>();
+        // the year before for the occurrences that last until the span
+        for (int year = from.getYear() - 1; year <= to.getYear(); year++) {
+            Occurrences occurrences = r.years.get(year);
+            int end = occurrences.firstStartAfter(toMinute - 1);
+            for (int i = 0; i < end; i++) {
+                if (occurrences.ends[i] > fromMinute) {
+                    result.add(occurrences.get(r, i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the count of years of a region currently kept, for tests
+     */
+    int getCachedYearCount(String region) {
+        Region r = regions.get(region);
+        return (r != null) ? r.years.size() : 0;
+    }
+
+    private Region getRegion(String path) {
+        Region result = regions.get(path);
+        if (result == null) {
+            result = regions.computeIfAbsent(path, p -> new Region(p, calendar.getResolvedRegion(p)));
+        }
+        return result;
+    }
+
+    /**
+     * The occurrence of a holiday in a region, see
+     * {@link HolidayIndex#nextHoliday(String, LocalDateTime)}.
+     * <p>
+     * This class is immutable.
+     */
+    public static final class Occurrence {
+        private final   Holiday         holiday;
+        private final   LocalDateTime   start;
+        private final   LocalDateTime   end;
+
+        Occurrence(Holiday holiday, LocalDateTime start, LocalDateTime end) {
+            this.holiday = holiday;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Holiday getHoliday() {
+            return holiday;
+        }
+
+        /**
+         * @return the start date and time
+         */
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        /**
+         * @return the end date and time, exclusive: the start of the next day
+         *      if the holiday has no range, see {@link Rule#getRange()}
+         */
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Occurrence)) {
+                return false;
+            }
+            Occurrence other = (Occurrence) o;
+            return holiday == other.holiday
+                    && start.equals(other.start)
+                    && end.equals(other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(holiday), start, end);
+        }
+
+        @Override
+        public String toString() {
+            return start + " - " + end + ": " + holiday;
+        }
+    }
+
+    /**
+     * The occurrences of a region in a year, by start
+     */
+    private static final class Occurrences {
+        final   long[]  starts;
+        final   long[]  ends;
+        // the index of the holiday of each occurrence in Region.holidays
+        final   int[]   holidays;
+
+        Occurrences(long[] starts, long[] ends, int[] holidays) {
+            this.starts = starts;
+            this.ends = ends;
+            this.holidays = holidays;
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        /**
+         * @return the index of the first occurrence that starts after the
+         *      minute, or the size if there's none
+         */
+        int firstStartAfter(long minute) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] <= minute) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        Occurrence get(Region region, int index) {
+            return new Occurrence(region.holidays.get(holidays[index]),
+                                  CompiledRule.toLocalDateTime(starts[index]),
+                                  CompiledRule.toLocalDateTime(ends[index]));
+        }
+    }
+
+    /**
+     * The holidays of a region, and their occurrences by year
+     */
+    private final class Region {
+        final   String                  path;
+        // the holidays of the region, of the types of the calendar
+        final   List<Holiday>           holidays;
+        final   YearCache<Occurrences>  years;
+
+        Region(String path, Country country) {
+            this.path = path;
+            List<Holiday> all = new ArrayList<>();
+            if (country.getDays() != null) {
+                for (Holiday h : country.getDays()) {
+                    if (calendar.includesType(h.getType())) {
+                        all.add(h);
+                    }
+                }
+            }
+            this.holidays = Collections.unmodifiableList(all);
+            this.years = new YearCache<>(calendar.getMaxYears(), this::build);
+        }
+
+        /**
+         * Builds the occurrences that start in a year, from the holidays
+         * evaluated in the year before and after too, since a holiday of a
+         * year may start in the next or the previous one.
+         */
+        private Occurrences build(int year) {
+            long startOfYear = LocalDate.of(year, 1, 1).toEpochDay() * CompiledRule.MINUTES_PER_DAY;
+            long endOfYear = LocalDate.of(year + 1, 1, 1).toEpochDay() * CompiledRule.MINUTES_PER_DAY;
+            List<long[]> result = new ArrayList<>();
+            for (int id = 0; id < holidays.size(); id++) {
+                Holiday holiday = holidays.get(id);
+                int range = holiday.getRule().getRange();
+                for (int defaultYear = year - 1; defaultYear <= year + 1; defaultYear++) {
+                    if (!holiday.isApplicable(defaultYear)) {
+                        continue;
+                    }
+                    HolidayOccurrence occurrence = holiday.evaluate(defaultYear);
+                    if (occurrence.getStart() != null) {
+                        long start = CompiledRule.toEpochMinute(occurrence.getStart());
+                        result.add(new long[] { start, endOf(start, range), id });
+                        for (LocalDateTime extra : occurrence.getExtras()) {
+                            long extraStart = CompiledRule.toEpochMinute(extra);
+                            result.add(new long[] { extraStart, endOf(extraStart, range), id });
+                        }
+                    }
+                }
+            }
+            result.sort((a, b) -> (a[0] != b[0]) ? Long.compare(a[0], b[0]) : Long.compare(a[2], b[2]));
+            long[] starts = new long[result.size()];
+            long[] ends = new long[result.size()];
+            int[] ids = new int[result.size()];
+            int size = 0;
+            for (long[] o : result) {
+                // only the ones of the year, once, since a rule with a year
+                // has the same occurrence whatever the default year
+                if (o[0] < startOfYear || o[0] >= endOfYear
+                        || (size > 0 && starts[size - 1] == o[0] && ids[size - 1] == o[2])) {
+                    continue;
+                }
+                starts[size] = o[0];
+                ends[size] = o[1];
+                ids[size] = (int) o[2];
+                size++;
+            }
+            return new Occurrences(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size), Arrays.copyOf(ids, size));
+        }
+
+        /**
+         * @return the end of an occurrence, the start of the next day if the
+         *      holiday has no range
+         */
+        private long endOf(long start, int range) {
+            if (range == Rule.UNDEFINED_NUM) {
+                return (CompiledRule.epochDay(start) + 1) * CompiledRule.MINUTES_PER_DAY;
+            }
+            return start + range;
+        }
+
+        @Override
+        public String toString() {
+            return path + ": " + years;
+        }
+    }
+}
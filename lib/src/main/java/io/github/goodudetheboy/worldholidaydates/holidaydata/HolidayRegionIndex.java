@@ -0,0 +1,251 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An index of the regions of a {@link HolidayCalendar} by holiday day, which
+ * finds all the countries and subdivisions in which a day, or a span of
+ * days, has a holiday, without evaluating the rules of each region on each
+ * query.
+ * <p>
+ * Each region, a country or a subdivision such as "US-CA", has an id, its
+ * index in {@link #getRegions()}. The first query of a year builds, for each
+ * day of the year, a bitmap of the ids of the regions with a holiday that
+ * day, from the holiday bitsets of the calendar, with a task per country run
+ * on an {@link Executor}. The same count of years as the calendar are kept,
+ * see {@link HolidayCalendar#getMaxYears()}.
+ * <p>
+ * This class is thread-safe if the {@link HolidayData} of the calendar is
+ * frozen, see {@link HolidayData#freeze()}.
+ */
+public final class HolidayRegionIndex {
+    private final   HolidayCalendar         calendar;
+    private final   Executor                executor;
+    // the path of each region by id, grouped by country
+    private final   List<String>            regions;
+    private final   Map<String, Integer>    ids;
+    // the id of the first region of each country, and the count of regions
+    // at the end
+    private final   int[]                   countryStarts;
+    // the count of longs of the bitmap of a day
+    private final   int                     words;
+    // the bitmaps of the days of a year, by (day of the year - 1) * words
+    private final   YearCache<long[]>       years;
+
+    /**
+     * Creates the index of the regions of a calendar, whose years are built
+     * on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param calendar the calendar
+     */
+    public HolidayRegionIndex(HolidayCalendar calendar) {
+        this(calendar, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the index of the regions of a calendar.
+     *
+     * @param calendar the calendar
+     * @param executor the executor building the bitsets of the countries of a
+     *      year in parallel
+     */
+    public HolidayRegionIndex(HolidayCalendar calendar, Executor executor) {
+        this.calendar = calendar;
+        this.executor = executor;
+        List<String> paths = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (Map.Entry<String, Country> entry : calendar.getData().getHolidays().entrySet()) {
+            if (entry.getValue() != null) {
+                starts.add(paths.size());
+                addRegions(paths, entry.getKey(), entry.getValue());
+            }
+        }
+        starts.add(paths.size());
+        this.regions = Collections.unmodifiableList(paths);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            ids.put(paths.get(i), i);
+        }
+        this.countryStarts = new int[starts.size()];
+        for (int i = 0; i < countryStarts.length; i++) {
+            countryStarts[i] = starts.get(i);
+        }
+        this.words = (paths.size() + 63) >>> 6;
+        this.years = new YearCache<>(calendar.getMaxYears(), this::build);
+    }
+
+    /**
+     * Adds the path of a region, then the ones of its states and regions.
+     */
+    private static void addRegions(List<String> paths, String path, Country region) {
+        paths.add(path);
+        addRegions(paths, path, region.getStates());
+        addRegions(paths, path, region.getRegions());
+    }
+
+    private static void addRegions(List<String> paths, String parentPath, Map<String, Country> subdivisions) {
+        if (subdivisions == null) {
+            return;
+        }
+        for (Map.Entry<String, Country> entry : subdivisions.entrySet()) {
+            if (entry.getValue() != null) {
+                addRegions(paths, parentPath + "-" + entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public HolidayCalendar getHolidayCalendar() {
+        return calendar;
+    }
+
+    /**
+     * @return the paths of all the regions, by id
+     */
+    public List<String> getRegions() {
+        return regions;
+    }
+
+    /**
+     * @param region the code of a country, or the path of a subdivision, such
+     *      as "US-CA"
+     * @return the id of the region, or -1 if it doesn't exist
+     */
+    public int getRegionId(String region) {
+        Integer result = ids.get(region);
+        return (result != null) ? result : -1;
+    }
+
+    /**
+     * @param date a date
+     * @return the ids of the regions with a holiday on the date, see
+     *      {@link HolidayCalendar#isHoliday(String, LocalDate)}
+     */
+    public BitSet getRegionBits(LocalDate date) {
+        long[] days = years.get(date.getYear());
+        int start = (date.getDayOfYear() - 1) * words;
+        return BitSet.valueOf(Arrays.copyOfRange(days, start, start + words));
+    }
+
+    /**
+     * @param from the first date
+     * @param to the date after the last one
+     * @return the ids of the regions with a holiday on at least one of the
+     *      dates from the first one, inclusive, to the last one, exclusive
+     * @throws IllegalArgumentException if to is before from
+     */
+    public BitSet getRegionBits(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The first date must not be after the last date: " + from + " - " + to);
+        }
+        long[] result = new long[words];
+        LocalDate date = from;
+        while (date.isBefore(to)) {
+            long[] days = years.get(date.getYear());
+            int first = date.getDayOfYear() - 1;
+            // the days of the span in the year of the date
+            int last = (to.getYear() == date.getYear()) ? to.getDayOfYear() - 1 : date.lengthOfYear();
+            for (int i = first * words; i < last * words; i += words) {
+                for (int w = 0; w < words; w++) {
+                    result[w] |= days[i + w];
+                }
+            }
+            date = LocalDate.of(date.getYear() + 1, 1, 1);
+        }
+        return BitSet.valueOf(result);
+    }
+
+    /**
+     * @param date a date
+     * @return the paths of the regions with a holiday on the date, by id
+     */
+    public List<String> getRegionsWithHoliday(LocalDate date) {
+        return toRegions(getRegionBits(date));
+    }
+
+    /**
+     * @param from the first date
+     * @param to the date after the last one
+     * @return the paths of the regions with a holiday on at least one of the
+     *      dates of the span, by id
+     * @throws IllegalArgumentException if to is before from
+     */
+    public List<String> getRegionsWithHoliday(LocalDate from, LocalDate to) {
+        return toRegions(getRegionBits(from, to));
+    }
+
+    private List<String> toRegions(BitSet bits) {
+        List<String> result = new ArrayList<>(bits.cardinality());
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            result.add(regions.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return the count of years currently kept, for tests
+     */
+    int getCachedYearCount() {
+        return years.size();
+    }
+
+    /**
+     * Builds the bitmaps of the days of a year, from the holiday bitsets of
+     * the regions of each country, computed in parallel.
+     */
+    private long[] build(int year) {
+        int countries = countryStarts.length - 1;
+        List<CompletableFuture<long[][]>> tasks = new ArrayList<>(countries);
+        for (int c = 0; c < countries; c++) {
+            int from = countryStarts[c];
+            int to = countryStarts[c + 1];
+            tasks.add(CompletableFuture.supplyAsync(() -> {
+                long[][] bits = new long[to - from][];
+                for (int id = from; id < to; id++) {
+                    bits[id - from] = calendar.getHolidayBits(regions.get(id), year);
+                }
+                return bits;
+            }, executor));
+        }
+        long[] result = new long[366 * words];
+        for (int c = 0; c < countries; c++) {
+            long[][] bits;
+            try {
+                bits = tasks.get(c).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            for (int i = 0; i < bits.length; i++) {
+                int id = countryStarts[c] + i;
+                long mask = 1L << id;
+                for (int w = 0; w < bits[i].length; w++) {
+                    long word = bits[i][w];
+                    while (word != 0) {
+                        int day = (w << 6) + Long.numberOfTrailingZeros(word);
+                        result[day * words + (id >>> 6)] |= mask;
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return regions.size() + " regions, years: " + years;
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An unmodifiable map of {@link Country} by code, whose countries are only
+ * deserialized, together with their states and regions, the first time they
+ * are accessed. Until then, only the JSON text of each country is kept.
+ * <p>
+ * This class is thread-safe: a country is deserialized once, even if it's
+ * accessed by several threads at the same time.
+ */
+class LazyCountryMap extends AbstractMap<String, Country> {
+    private final Map<String, CountrySource>    sources = new LinkedHashMap<>();
+    private final HolidayDataReader             reader;
+
+    /**
+     * The JSON text of a {@link Country}, and the {@link Country} itself once
+     * it's deserialized.
+     */
+    private final class CountrySource {
+        private final       String      code;
+        private             String      json;
+        private volatile    Country     country = null;
+
+        CountrySource(String code, String json) {
+            this.code = code;
+            this.json = json;
+        }
+
+        boolean isLoaded() {
+            return country != null;
+        }
+
+        Country get() {
+            Country result = country;
+            if (result == null) {
+                synchronized (this) {
+                    result = country;
+                    if (result == null) {
+                        result = reader.readCountry(code, json);
+                        country = result;
+                        json = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    LazyCountryMap(HolidayDataReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Adds the JSON text of a {@link Country}, only used while reading the
+     * holiday data.
+     */
+    void putSource(String code, String json) {
+        sources.put(code, new CountrySource(code, json));
+    }
+
+    /**
+     * @param code a country code
+     * @return true if the {@link Country} of the code has been deserialized
+     */
+    boolean isLoaded(String code) {
+        CountrySource source = sources.get(code);
+        return source != null && source.isLoaded();
+    }
+
+    /**
+     * @return the count of countries that have been deserialized
+     */
+    int loadedCount() {
+        int count = 0;
+        for (CountrySource source : sources.values()) {
+            if (source.isLoaded()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Country get(Object code) {
+        CountrySource source = sources.get(code);
+        return (source != null) ? source.get() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object code) {
+        return sources.containsKey(code);
+    }
+
+    @Override
+    public int size() {
+        return sources.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(sources.keySet());
+    }
+
+    @Override
+    public Set<Map.Entry<String, Country>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Country>>() {
+            @Override
+            public Iterator<Map.Entry<String, Country>> iterator() {
+                final Iterator<Map.Entry<String, CountrySource>> it = sources.entrySet().iterator();
+                return new Iterator<Map.Entry<String, Country>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Country> next() {
+                        Map.Entry<String, CountrySource> entry = it.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().get());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return sources.size();
+            }
+        };
+    }
+}
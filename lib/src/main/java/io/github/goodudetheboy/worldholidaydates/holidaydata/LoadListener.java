@@ -0,0 +1,29 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+/**
+ * A listener notified with the {@link LoadStatistics} of each load of a
+ * {@link HolidayDataLoader}, for example to forward them to a metrics system.
+ * The listener is called on the thread calling
+ * {@link HolidayDataLoader#load()}.
+ */
+public interface LoadListener {
+
+    /**
+     * Called when a load is finished.
+     *
+     * @param statistics the statistics of the load
+     */
+    void loadFinished(LoadStatistics statistics);
+
+    /**
+     * Called when a load failed, before the exception is thrown by
+     * {@link HolidayDataLoader#load()}. The statistics cover the part of the
+     * load done before the failure. Does nothing by default.
+     *
+     * @param statistics the statistics of the load until the failure
+     * @param cause the exception thrown by the load
+     */
+    default void loadFailed(LoadStatistics statistics, RuntimeException cause) {
+        // nothing by default
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Records the phase timings and the counts of a single load of a
+ * {@link HolidayData}, to fill its {@link LoadStatistics}. A recorder is only
+ * created when the statistics are enabled on the {@link HolidayDataLoader},
+ * otherwise the reader uses the plain streams and none of this is measured.
+ * <p>
+ * The phases of a streaming load are interleaved, so they are measured as:
+ * <ul>
+ *  <li>resource read: the time blocked reading the {@link InputStream}</li>
+ *  <li>JSON parse: the time spent in the {@link JsonReader}, minus the
+ *      resource read</li>
+ *  <li>rule parse: the time spent getting the rules from the
+ *      {@link io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache}</li>
+ *  <li>model build: the rest of the load</li>
+ * </ul>
+ * The JSON and rule parse times can be recorded from several threads in a
+ * parallel load, where they are summed over the threads.
+ */
+class LoadRecorder {
+    private final   long        startNanos          = System.nanoTime();
+    private final   LongAdder   resourceReadNanos   = new LongAdder();
+    private final   LongAdder   jsonNanos           = new LongAdder();
+    private final   LongAdder   ruleParseNanos      = new LongAdder();
+    private final   LongAdder   decodeNanos         = new LongAdder();
+    private final   LongAdder   parseFailures       = new LongAdder();
+    private final   LongAdder   bytesRead           = new LongAdder();
+
+    /**
+     * @param in the input stream of the resource
+     * @return the input stream, counting the bytes and the time it's read
+     */
+    InputStream timed(InputStream in) {
+        return new TimedInputStream(in);
+    }
+
+    /**
+     * @param in the reader of a JSON text
+     * @return a {@link JsonReader} of the reader, counting the time spent in it
+     */
+    JsonReader timed(Reader in) {
+        return new TimedJsonReader(in);
+    }
+
+    void addResourceRead(long nanos, long bytes) {
+        resourceReadNanos.add(nanos);
+        bytesRead.add(bytes);
+    }
+
+    void addRuleParse(long nanos) {
+        ruleParseNanos.add(nanos);
+    }
+
+    /**
+     * Adds the time spent decoding the data from a snapshot, which is
+     * reported as model build time.
+     */
+    void addDecode(long nanos) {
+        decodeNanos.add(nanos);
+    }
+
+    void addParseFailure() {
+        parseFailures.increment();
+    }
+
+    /**
+     * Fills the phase timings and the counts of a load that is finished,
+     * successfully or not.
+     *
+     * @param statistics the statistics to fill
+     * @param data the loaded data, or null if the load failed
+     */
+    void fill(LoadStatistics statistics, HolidayData data) {
+        long total = System.nanoTime() - startNanos;
+        long resourceRead = resourceReadNanos.sum();
+        long json = jsonNanos.sum();
+        long ruleParse = ruleParseNanos.sum();
+        statistics.setDetailed(true);
+        statistics.setTotalNanos(total);
+        statistics.setResourceReadNanos(resourceRead);
+        statistics.setJsonParseNanos(Math.max(0, json - resourceRead));
+        statistics.setRuleParseNanos(ruleParse);
+        statistics.setModelBuildNanos((decodeNanos.sum() > 0)
+                                        ? decodeNanos.sum()
+                                        : Math.max(0, total - Math.max(json, resourceRead) - ruleParse));
+        statistics.setParseFailures(parseFailures.intValue());
+        statistics.setBytesRead(bytesRead.sum());
+        if (data != null && data.getHolidays() != null) {
+            count(statistics, data.getHolidays());
+        }
+    }
+
+    /**
+     * Counts the countries, subdivisions, holidays and distinct rules. The
+     * countries of a lazy load that are not deserialized yet are only counted
+     * as countries.
+     */
+    private static void count(LoadStatistics statistics, Map<String, Country> countries) {
+        int[] counts = new int[2];
+        Set<String> rules = new HashSet<>();
+        if (countries instanceof LazyCountryMap) {
+            LazyCountryMap lazy = (LazyCountryMap) countries;
+            for (String code : lazy.keySet()) {
+                if (lazy.isLoaded(code)) {
+                    countCountry(lazy.get(code), counts, rules);
+                }
+            }
+        } else {
+            for (Country c : countries.values()) {
+                countCountry(c, counts, rules);
+            }
+        }
+        statistics.setCountryCount(countries.size());
+        statistics.setSubdivisionCount(counts[0]);
+        statistics.setHolidayCount(counts[1]);
+        statistics.setRuleCount(rules.size());
+    }
+
+    private static void countCountry(Country country, int[] counts, Set<String> rules) {
+        if (country == null) {
+            return;
+        }
+        List<Holiday> days = country.getDays();
+        if (days != null) {
+            counts[1] += days.size();
+            for (Holiday h : days) {
+                rules.add(h.getOriginalRule());
+            }
+        }
+        countSubdivisions(country.getStates(), counts, rules);
+        countSubdivisions(country.getRegions(), counts, rules);
+    }
+
+    private static void countSubdivisions(Map<String, Country> subdivisions, int[] counts, Set<String> rules) {
+        if (subdivisions == null) {
+            return;
+        }
+        counts[0] += subdivisions.size();
+        for (Country c : subdivisions.values()) {
+            countCountry(c, counts, rules);
+        }
+    }
+
+    /**
+     * An {@link InputStream} counting the bytes read and the time blocked in
+     * the reads.
+     */
+    private class TimedInputStream extends FilterInputStream {
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            addResourceRead(System.nanoTime() - start, (b < 0) ? 0 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            int n = super.read(b, off, len);
+            addResourceRead(System.nanoTime() - start, Math.max(n, 0));
+            return n;
+        }
+    }
+
+    /**
+     * A {@link JsonReader} counting the time spent in its methods. Only the
+     * outermost call is timed, in case a method calls another one.
+     */
+    private class TimedJsonReader extends JsonReader {
+        private int     depth   = 0;
+        private long    start;
+
+        TimedJsonReader(Reader in) {
+            super(in);
+        }
+
+        private void enter() {
+            if (depth++ == 0) {
+                start = System.nanoTime();
+            }
+        }
+
+        private void exit() {
+            if (--depth == 0) {
+                jsonNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            enter();
+            try {
+                super.beginArray();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            enter();
+            try {
+                super.endArray();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            enter();
+            try {
+                super.beginObject();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            enter();
+            try {
+                super.endObject();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            enter();
+            try {
+                return super.hasNext();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public JsonToken peek() throws IOException {
+            enter();
+            try {
+                return super.peek();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            enter();
+            try {
+                return super.nextName();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public String nextString() throws IOException {
+            enter();
+            try {
+                return super.nextString();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public boolean nextBoolean() throws IOException {
+            enter();
+            try {
+                return super.nextBoolean();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void nextNull() throws IOException {
+            enter();
+            try {
+                super.nextNull();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            enter();
+            try {
+                super.skipValue();
+            } finally {
+                exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
+
+/**
+ * A class containing the statistics of the initialization of a
+ * {@link HolidayData}.
+ * <p>
+ * The counts of the rule cache are always recorded. The phase timings and
+ * the other counts are only recorded if they're enabled on the
+ * {@link HolidayDataLoader}, see {@link #isDetailed()}, as measuring them has
+ * a cost on the load.
+ */
+public class LoadStatistics {
+    private     int     ruleCacheHits       = 0;
+    private     int     ruleCacheMisses     = 0;
+    private     boolean fromSnapshot        = false;
+    private     boolean detailed            = false;
+    private     long    totalNanos          = 0;
+    private     long    resourceReadNanos   = 0;
+    private     long    jsonParseNanos      = 0;
+    private     long    ruleParseNanos      = 0;
+    private     long    modelBuildNanos     = 0;
+    private     int     countryCount        = 0;
+    private     int     subdivisionCount    = 0;
+    private     int     holidayCount        = 0;
+    private     int     ruleCount           = 0;
+    private     int     parseFailures       = 0;
+    private     long    bytesRead           = 0;
+
+    /**
+     * Default constructor
+     */
+    public LoadStatistics() {
+        // empty
+    }
+
+    /**
+     * Creates the statistics of a load from the {@link RuleCache} used during
+     * that load.
+     *
+     * @param ruleCache the {@link RuleCache} used during the load
+     */
+    public LoadStatistics(RuleCache ruleCache) {
+        this.ruleCacheHits = ruleCache.getHitCount();
+        this.ruleCacheMisses = ruleCache.getMissCount();
+    }
+
+    /**
+     * @return the count of rule strings whose {@link
+     *      io.github.goodudetheboy.worldholidaydates.holidayparser.Rule} was
+     *      taken from the {@link RuleCache}
+     */
+    public int getRuleCacheHits() {
+        return ruleCacheHits;
+    }
+
+    /**
+     * @return the count of rule strings that were parsed, which is also the
+     *      count of distinct rule strings
+     */
+    public int getRuleCacheMisses() {
+        return ruleCacheMisses;
+    }
+
+    /**
+     * @return true if the data was read from the precompiled
+     *      {@link HolidayDataSnapshot} instead of the holidays.json file
+     */
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    /**
+     * @return true if the phase timings and the counts below were recorded,
+     *      see {@link HolidayDataLoader#setStatisticsEnabled(boolean)}
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+
+    /**
+     * @return the wall time of the whole load, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the time spent reading the resource, in nanoseconds, which for
+     *      a snapshot includes the checksum of the holidays.json file
+     */
+    public long getResourceReadNanos() {
+        return resourceReadNanos;
+    }
+
+    /**
+     * @return the time spent decoding the JSON text, in nanoseconds, 0 for a
+     *      snapshot
+     */
+    public long getJsonParseNanos() {
+        return jsonParseNanos;
+    }
+
+    /**
+     * @return the time spent parsing the rules, in nanoseconds, 0 for a
+     *      snapshot or if the rule parsing is deferred
+     */
+    public long getRuleParseNanos() {
+        return ruleParseNanos;
+    }
+
+    /**
+     * @return the time spent building the {@link Country} and {@link Holiday}
+     *      objects, in nanoseconds, which for a snapshot is the whole decoding
+     */
+    public long getModelBuildNanos() {
+        return modelBuildNanos;
+    }
+
+    /**
+     * @return the count of countries
+     */
+    public int getCountryCount() {
+        return countryCount;
+    }
+
+    /**
+     * @return the count of states and regions, at all levels, of the
+     *      countries that are deserialized
+     */
+    public int getSubdivisionCount() {
+        return subdivisionCount;
+    }
+
+    /**
+     * @return the count of holidays of the countries, states and regions that
+     *      are deserialized
+     */
+    public int getHolidayCount() {
+        return holidayCount;
+    }
+
+    /**
+     * @return the count of distinct rule strings of these holidays
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * @return the count of rules that failed to parse during the load
+     */
+    public int getParseFailures() {
+        return parseFailures;
+    }
+
+    /**
+     * @return the count of bytes read from the resource
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setRuleCacheHits(int ruleCacheHits) {
+        this.ruleCacheHits = ruleCacheHits;
+    }
+
+    public void setRuleCacheMisses(int ruleCacheMisses) {
+        this.ruleCacheMisses = ruleCacheMisses;
+    }
+
+    public void setFromSnapshot(boolean fromSnapshot) {
+        this.fromSnapshot = fromSnapshot;
+    }
+
+    public void setDetailed(boolean detailed) {
+        this.detailed = detailed;
+    }
+
+    public void setTotalNanos(long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    public void setResourceReadNanos(long resourceReadNanos) {
+        this.resourceReadNanos = resourceReadNanos;
+    }
+
+    public void setJsonParseNanos(long jsonParseNanos) {
+        this.jsonParseNanos = jsonParseNanos;
+    }
+
+    public void setRuleParseNanos(long ruleParseNanos) {
+        this.ruleParseNanos = ruleParseNanos;
+    }
+
+    public void setModelBuildNanos(long modelBuildNanos) {
+        this.modelBuildNanos = modelBuildNanos;
+    }
+
+    public void setCountryCount(int countryCount) {
+        this.countryCount = countryCount;
+    }
+
+    public void setSubdivisionCount(int subdivisionCount) {
+        this.subdivisionCount = subdivisionCount;
+    }
+
+    public void setHolidayCount(int holidayCount) {
+        this.holidayCount = holidayCount;
+    }
+
+    public void setRuleCount(int ruleCount) {
+        this.ruleCount = ruleCount;
+    }
+
+    public void setParseFailures(int parseFailures) {
+        this.parseFailures = parseFailures;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append("from snapshot: ").append(fromSnapshot).append(Utils.LINE_SEPARATOR);
+        b.append("rule cache hits: ").append(ruleCacheHits).append(Utils.LINE_SEPARATOR);
+        b.append("rule cache misses: ").append(ruleCacheMisses).append(Utils.LINE_SEPARATOR);
+        if (detailed) {
+            b.append("total: ").append(toMillis(totalNanos)).append(" ms").append(Utils.LINE_SEPARATOR);
+            b.append("resource read: ").append(toMillis(resourceReadNanos)).append(" ms").append(Utils.LINE_SEPARATOR);
+            b.append("json parse: ").append(toMillis(jsonParseNanos)).append(" ms").append(Utils.LINE_SEPARATOR);
+            b.append("rule parse: ").append(toMillis(ruleParseNanos)).append(" ms").append(Utils.LINE_SEPARATOR);
+            b.append("model build: ").append(toMillis(modelBuildNanos)).append(" ms").append(Utils.LINE_SEPARATOR);
+            b.append("countries: ").append(countryCount).append(Utils.LINE_SEPARATOR);
+            b.append("subdivisions: ").append(subdivisionCount).append(Utils.LINE_SEPARATOR);
+            b.append("holidays: ").append(holidayCount).append(Utils.LINE_SEPARATOR);
+            b.append("rules: ").append(ruleCount).append(Utils.LINE_SEPARATOR);
+            b.append("parse failures: ").append(parseFailures).append(Utils.LINE_SEPARATOR);
+            b.append("bytes read: ").append(bytesRead).append(Utils.LINE_SEPARATOR);
+        }
+        return b.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
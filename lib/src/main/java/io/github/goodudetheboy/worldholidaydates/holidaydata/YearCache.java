@@ -0,0 +1,66 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * A cache of values by year, each built on its first use. At most a count of
+ * years are kept, the year farthest from the last built one is evicted
+ * first. The years already built are read without locking.
+ */
+final class YearCache<T> {
+    private final   int             maxYears;
+    private final   IntFunction<T>  builder;
+    private final   Map<Integer, T> years = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxYears the count of years kept, at least 1
+     * @param builder builds the value of a year
+     */
+    YearCache(int maxYears, IntFunction<T> builder) {
+        this.maxYears = maxYears;
+        this.builder = builder;
+    }
+
+    T get(int year) {
+        T result = years.get(year);
+        if (result == null) {
+            result = builder.apply(year);
+            synchronized (this) {
+                T current = years.putIfAbsent(year, result);
+                if (current != null) {
+                    return current;
+                }
+                if (years.size() > maxYears) {
+                    evictFarthestFrom(year);
+                }
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return years.size();
+    }
+
+    Set<Integer> years() {
+        return years.keySet();
+    }
+
+    private void evictFarthestFrom(int year) {
+        Integer farthest = null;
+        for (Integer y : years.keySet()) {
+            if (farthest == null || Math.abs(y - year) > Math.abs(farthest - year)) {
+                farthest = y;
+            }
+        }
+        years.remove(farthest);
+    }
+
+    @Override
+    public String toString() {
+        return years.keySet().toString();
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.goodudetheboy.worldholidaydates.holidayparser;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -13,6 +14,43 @@ import io.github.goodudetheboy.worldholidaydates.holidayparser.GregorianDate.Gre
  */
 public abstract class AstronomicalDate extends Date {
 
+    /**
+     * The algorithm with which the instant of an astronomical event is
+     * calculated
+     */
+    public enum Algorithm {
+        /**
+         * The mean event of the Table 27.B of Meeus, which can deviate from
+         * the actual event by up to a few tens of minutes
+         */
+        MEAN,
+        /**
+         * The mean event corrected by the periodic terms of the Table 27.C of
+         * Meeus and by Delta T, within a minute or two of the actual event
+         * from 1000 to 3000
+         */
+        MEEUS
+    }
+
+    Algorithm   algorithm   = Algorithm.MEAN;
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets the algorithm of the astronomical event, {@link Algorithm#MEAN} by
+     * default.
+     *
+     * @param algorithm the algorithm of the astronomical event
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Algorithm must not be null");
+        }
+        this.algorithm = algorithm;
+    }
+
     /**
      * Set the restricted month that is accepted by the subclass.
      * 
@@ -46,29 +84,43 @@ public abstract class AstronomicalDate extends Date {
         return (GregorianMonth) namedMonth;        
     }
 
+    /**
+     * Calculates the local date and time of the astronomical event in the
+     * timezone of this date. The instants of the events are precomputed, and
+     * their local date and time cached by timezone, see
+     * {@link AstronomicalEvents}.
+     */
     @Override
     public LocalDateTime calculate(int defaultYear) {
         int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
-        ZonedDateTime defaultResult = calculateAstronomicalDate(yearToUse);
-        ZonedDateTime shiftedResult = defaultResult.withZoneSameInstant(timezone);
+        LocalDateTime shiftedResult = AstronomicalEvents.localDateTime(algorithm, month, yearToUse, timezone);
         if (startTime != UNDEFINED_NUM) {
             LocalDate rawDate = shiftedResult.toLocalDate();
             LocalTime rawTime = minutesToLocalTime(startTime);
             return rawDate.atTime(rawTime);
         } else {
-            return shiftedResult.toLocalDateTime();
+            return shiftedResult;
         }
     }
 
     @Override
     public LocalDate calculateDate(int defaultYear) {
         int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
-        ZonedDateTime defaultResult = calculateAstronomicalDate(yearToUse);
-        ZonedDateTime shiftedResult = defaultResult.withZoneSameInstant(timezone);
-        return shiftedResult.toLocalDate();
+        return AstronomicalEvents.localDateTime(algorithm, month, yearToUse, timezone).toLocalDate();
     }
 
-    protected abstract ZonedDateTime calculateAstronomicalDate(int defaultYear);
+    /**
+     * Calculates the instant of the astronomical event with the algorithm of
+     * this date.
+     *
+     * @param defaultYear the year to use if this date has none
+     * @return the instant of the event, truncated to the minute, with
+     *      timezone set to {@link Date#DEFAULT_ZONE}
+     */
+    protected ZonedDateTime calculateAstronomicalDate(int defaultYear) {
+        int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
+        return Instant.ofEpochSecond(AstronomicalEvents.epochSecond(algorithm, month, yearToUse)).atZone(DEFAULT_ZONE);
+    }
 
     @Override
     public abstract String toNamedString();
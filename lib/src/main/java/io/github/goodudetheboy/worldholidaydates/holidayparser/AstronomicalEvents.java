@@ -0,0 +1,256 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.AstronomicalDate.Algorithm;
+
+/**
+ * Tables of the instants of the equinoxes and solstices from
+ * {@link #FIRST_YEAR} to {@link #LAST_YEAR}, in epoch seconds truncated to
+ * the minute, one per {@link Algorithm}, each computed once on its first use.
+ * The local date and time of the events are also cached by time zone, so that
+ * the offset of a zone is resolved once per event and year.
+ * <p>
+ * The events out of the table are computed on each call.
+ */
+final class AstronomicalEvents {
+    /**
+     * The first year of the tables, the first year of the range of the mean
+     * formulas of Meeus
+     */
+    static final int            FIRST_YEAR      = 1000;
+
+    /**
+     * The last year of the tables, the last year of the range of the mean
+     * formulas of Meeus
+     */
+    static final int            LAST_YEAR       = 3000;
+
+    private static final int    YEARS           = LAST_YEAR - FIRST_YEAR + 1;
+
+    // Julian day of 1970-01-01T00:00Z
+    private static final double JD_UNIX_EPOCH   = 2440587.5;
+
+    // periodic terms of the Table 27.C of Meeus, A, B (degrees), C (degrees)
+    private static final double[][] PERIODIC_TERMS = {
+        {485, 324.96,   1934.136}, {203, 337.23,  32964.467}, {199, 342.08,     20.186},
+        {182,  27.85, 445112.573}, {156,  73.14,  45036.886}, {136, 171.52,  22518.443},
+        { 77, 222.54,  65928.934}, { 74, 296.72,   3034.906}, { 70, 243.58,   9037.513},
+        { 58, 119.81,  33718.147}, { 52, 297.17,    150.678}, { 50,  21.02,   2281.232},
+        { 45, 247.54,  29929.562}, { 44, 325.15,  31555.956}, { 29,  60.93,   4443.417},
+        { 18, 155.12,  67555.328}, { 17, 288.79,   4562.452}, { 16, 198.04,  62894.029},
+        { 14, 199.76,  31436.921}, { 12,  95.39,  14577.848}, { 12, 287.11,  31931.756},
+        { 12, 320.81,  34777.259}, {  9, 227.73,   1222.114}, {  8,  15.45,  16859.074}
+    };
+
+    private static final Map<Algorithm, long[][]>                  INSTANTS    = new ConcurrentHashMap<>();
+    private static final Map<Algorithm, Map<ZoneId, long[][]>>     LOCAL_TIMES = new ConcurrentHashMap<>();
+
+    private AstronomicalEvents() {
+        // utility class
+    }
+
+    /**
+     * @param algorithm the algorithm of the event
+     * @param month 3 or 9 for an equinox, 6 or 12 for a solstice
+     * @param year the year
+     * @return the instant of the event in epoch seconds, truncated to the
+     *      minute
+     */
+    static long epochSecond(Algorithm algorithm, int month, int year) {
+        int event = eventOf(month);
+        if (year < FIRST_YEAR || year > LAST_YEAR) {
+            return compute(algorithm, month, year);
+        }
+        return instants(algorithm)[event][year - FIRST_YEAR];
+    }
+
+    /**
+     * @param algorithm the algorithm of the event
+     * @param month 3 or 9 for an equinox, 6 or 12 for a solstice
+     * @param year the year
+     * @param zone the time zone
+     * @return the local date and time of the event in the zone
+     */
+    static LocalDateTime localDateTime(Algorithm algorithm, int month, int year, ZoneId zone) {
+        int event = eventOf(month);
+        if (year < FIRST_YEAR || year > LAST_YEAR) {
+            long instant = compute(algorithm, month, year);
+            return LocalDateTime.ofEpochSecond(instant, 0, offsetAt(zone.getRules(), instant));
+        }
+        long[][] local = LOCAL_TIMES.computeIfAbsent(algorithm, a -> new ConcurrentHashMap<>())
+                                    .computeIfAbsent(zone, z -> localTimes(algorithm, z));
+        return LocalDateTime.ofEpochSecond(local[event][year - FIRST_YEAR], 0, ZoneOffset.UTC);
+    }
+
+    private static long[][] instants(Algorithm algorithm) {
+        return INSTANTS.computeIfAbsent(algorithm, a -> {
+            long[][] result = new long[4][YEARS];
+            for (int event = 0; event < 4; event++) {
+                for (int y = 0; y < YEARS; y++) {
+                    result[event][y] = compute(a, (event + 1) * 3, FIRST_YEAR + y);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return the local epoch seconds of all the events of the table in the zone
+     */
+    private static long[][] localTimes(Algorithm algorithm, ZoneId zone) {
+        long[][] instants = instants(algorithm);
+        ZoneRules rules = zone.getRules();
+        long[][] result = new long[4][YEARS];
+        for (int event = 0; event < 4; event++) {
+            for (int y = 0; y < YEARS; y++) {
+                long instant = instants[event][y];
+                result[event][y] = instant + offsetAt(rules, instant).getTotalSeconds();
+            }
+        }
+        return result;
+    }
+
+    private static ZoneOffset offsetAt(ZoneRules rules, long epochSecond) {
+        return rules.isFixedOffset()
+                ? rules.getOffset(Instant.EPOCH)
+                : rules.getOffset(Instant.ofEpochSecond(epochSecond));
+    }
+
+    private static int eventOf(int month) {
+        switch (month) {
+            case 3:     return 0;
+            case 6:     return 1;
+            case 9:     return 2;
+            case 12:    return 3;
+            default:
+                throw new IllegalArgumentException("Equinox and solstice dates must be in March, June, September or December, not: " + month);
+        }
+    }
+
+    private static long compute(Algorithm algorithm, int month, int year) {
+        if (algorithm == Algorithm.MEEUS) {
+            return computeMeeus(month, year);
+        }
+        return (month == 3 || month == 9)
+                ? EquinoxDate.calculateEquinoxDate(month, year).toEpochSecond()
+                : SolsticeDate.calculateSolsticeDate(month, year).toEpochSecond();
+    }
+
+    /**
+     * Computes an event with the full algorithm of the chapter 27 of
+     * "Astronomical Algorithms" by Jean Meeus: the mean event, corrected by
+     * the periodic terms of the Table 27.C, then converted from Terrestrial
+     * Time to Universal Time with the Delta T of Espenak and Meeus.
+     */
+    static long computeMeeus(int month, int year) {
+        double jde0 = meanJde(month, year);
+        double t = (jde0 - 2451545.0) / 36525;
+        double w = Math.toRadians(35999.373 * t - 2.47);
+        double deltaLambda = 1 + 0.0334 * Math.cos(w) + 0.0007 * Math.cos(2 * w);
+        double s = 0;
+        for (double[] term : PERIODIC_TERMS) {
+            s += term[0] * Math.cos(Math.toRadians(term[1] + term[2] * t));
+        }
+        double jde = jde0 + (0.00001 * s) / deltaLambda;
+        double seconds = (jde - JD_UNIX_EPOCH) * 86400 - deltaT(year + (month - 0.5) / 12);
+        return Math.floorDiv((long) Math.floor(seconds), 60L) * 60;
+    }
+
+    /**
+     * The mean event of the Tables 27.A and 27.B of Meeus, as a Julian
+     * Ephemeris Day.
+     */
+    private static double meanJde(int month, int year) {
+        if (year < 1000) {
+            double y = year / 1000.0;
+            double y2 = y * y;
+            double y3 = y2 * y;
+            double y4 = y3 * y;
+            switch (month) {
+                case 3:     return 1721139.29189 + 365242.13740 * y + 0.06134 * y2 + 0.00111 * y3 - 0.00071 * y4;
+                case 6:     return 1721233.25401 + 365241.72562 * y - 0.05323 * y2 + 0.00907 * y3 + 0.00025 * y4;
+                case 9:     return 1721325.70455 + 365242.49558 * y - 0.11677 * y2 - 0.00297 * y3 + 0.00074 * y4;
+                default:    return 1721414.39987 + 365242.88257 * y - 0.00769 * y2 - 0.00933 * y3 - 0.00006 * y4;
+            }
+        }
+        double m = ((double) year - 2000) / 1000;
+        double m2 = m * m;
+        double m3 = m2 * m;
+        double m4 = m3 * m;
+        switch (month) {
+            case 3:     return 2451623.80984 + 365242.37404 * m + 0.05169 * m2 - 0.00411 * m3 - 0.00057 * m4;
+            case 6:     return 2451716.56767 + 365241.62603 * m + 0.00325 * m2 + 0.00888 * m3 - 0.00030 * m4;
+            case 9:     return 2451810.21715 + 365242.01767 * m - 0.11575 * m2 + 0.00337 * m3 + 0.00078 * m4;
+            default:    return 2451900.05952 + 365242.74049 * m - 0.06223 * m2 - 0.00823 * m3 + 0.00032 * m4;
+        }
+    }
+
+    /**
+     * The difference between Terrestrial Time and Universal Time in seconds,
+     * with the polynomial expressions of Espenak and Meeus.
+     *
+     * @param y the decimal year
+     * @return Delta T in seconds
+     */
+    static double deltaT(double y) {
+        double t;
+        double u;
+        if (y < -500) {
+            u = (y - 1820) / 100;
+            return -20 + 32 * u * u;
+        } else if (y < 500) {
+            u = y / 100;
+            return 10583.6 - 1014.41 * u + 33.78311 * u * u - 5.952053 * Math.pow(u, 3)
+                    - 0.1798452 * Math.pow(u, 4) + 0.022174192 * Math.pow(u, 5) + 0.0090316521 * Math.pow(u, 6);
+        } else if (y < 1600) {
+            u = (y - 1000) / 100;
+            return 1574.2 - 556.01 * u + 71.23472 * u * u + 0.319781 * Math.pow(u, 3)
+                    - 0.8503463 * Math.pow(u, 4) - 0.005050998 * Math.pow(u, 5) + 0.0083572073 * Math.pow(u, 6);
+        } else if (y < 1700) {
+            t = y - 1600;
+            return 120 - 0.9808 * t - 0.01532 * t * t + Math.pow(t, 3) / 7129;
+        } else if (y < 1800) {
+            t = y - 1700;
+            return 8.83 + 0.1603 * t - 0.0059285 * t * t + 0.00013336 * Math.pow(t, 3) - Math.pow(t, 4) / 1174000;
+        } else if (y < 1860) {
+            t = y - 1800;
+            return 13.72 - 0.332447 * t + 0.0068612 * t * t + 0.0041116 * Math.pow(t, 3) - 0.00037436 * Math.pow(t, 4)
+                    + 0.0000121272 * Math.pow(t, 5) - 0.0000001699 * Math.pow(t, 6) + 0.000000000875 * Math.pow(t, 7);
+        } else if (y < 1900) {
+            t = y - 1860;
+            return 7.62 + 0.5737 * t - 0.251754 * t * t + 0.01680668 * Math.pow(t, 3)
+                    - 0.0004473624 * Math.pow(t, 4) + Math.pow(t, 5) / 233174;
+        } else if (y < 1920) {
+            t = y - 1900;
+            return -2.79 + 1.494119 * t - 0.0598939 * t * t + 0.0061966 * Math.pow(t, 3) - 0.000197 * Math.pow(t, 4);
+        } else if (y < 1941) {
+            t = y - 1920;
+            return 21.20 + 0.84493 * t - 0.076100 * t * t + 0.0020936 * Math.pow(t, 3);
+        } else if (y < 1961) {
+            t = y - 1950;
+            return 29.07 + 0.407 * t - t * t / 233 + Math.pow(t, 3) / 2547;
+        } else if (y < 1986) {
+            t = y - 1975;
+            return 45.45 + 1.067 * t - t * t / 260 - Math.pow(t, 3) / 718;
+        } else if (y < 2005) {
+            t = y - 2000;
+            return 63.86 + 0.3345 * t - 0.060374 * t * t + 0.0017275 * Math.pow(t, 3)
+                    + 0.000651814 * Math.pow(t, 4) + 0.00002373599 * Math.pow(t, 5);
+        } else if (y < 2050) {
+            t = y - 2000;
+            return 62.92 + 0.32217 * t + 0.005589 * t * t;
+        } else if (y < 2150) {
+            u = (y - 1820) / 100;
+            return -20 + 32 * u * u - 0.5628 * (2150 - y);
+        }
+        u = (y - 1820) / 100;
+        return -20 + 32 * u * u;
+    }
+}
@@ -0,0 +1,668 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Rule} compiled to a primitive form, which computes the start of
+ * the rule in a year with plain int and long arithmetic, without allocating
+ * any object. The weekday sets are bitmasks, the offsets are ints, and the
+ * year modifiers are flags, and the result is the local date and time of the
+ * start packed in a long, see {@link #evaluate(int)}.
+ * <p>
+ * The Gregorian, Easter and nth weekday dates are compiled. The rules of
+ * other calendars, or the ones whose result would throw an exception, are
+ * evaluated through {@link Rule#evaluate(int)}, which allocates but gives
+ * the same result, see {@link #isPrimitive()}.
+ * <p>
+ * A {@link CompiledRule} is a copy of its {@link Rule} when compiled, so the
+ * rule should be frozen, see {@link Rule#compile()}. This class is immutable
+ * and thread-safe.
+ */
+public final class CompiledRule {
+    /**
+     * The result of {@link #evaluate(int)} if the rule is disabled in the year
+     */
+    public static final long    NONE            = Long.MIN_VALUE;
+
+    /**
+     * The count of minutes in a day
+     */
+    public static final int     MINUTES_PER_DAY = 1440;
+
+    private static final int    KIND_GREGORIAN  = 0;
+    private static final int    KIND_EASTER     = 1;
+    private static final int    KIND_NTH        = 2;
+    private static final int    KIND_FALLBACK   = 3;
+
+    // the years in which the arithmetic below can't overflow
+    private static final int    MIN_YEAR        = -1_000_000;
+    private static final int    MAX_YEAR        = 1_000_000;
+
+    private static final long   DAYS_PER_CYCLE      = 146097;
+    private static final long   DAYS_0000_TO_1970   = (DAYS_PER_CYCLE * 5L) - (30L * 365L + 7L);
+
+    // the days before the first day of each month in a standard year
+    private static final int[]  DAYS_BEFORE_MONTH   = { 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334 };
+
+    private final   Rule        rule;
+    private final   int         kind;
+
+    // raw date
+    private final   int         year;
+    private final   int         month;
+    private final   int         dayOfMonth;
+    private final   int         startMinute;
+    private final   boolean     orthodox;
+    private final   int         easterOffset;
+    private final   int         nthWeekday;
+    private final   int         nth;
+
+    // offsets
+    private final   int         offset;
+    private final   int         offsetWeekDay;
+    private final   int         offsetWeekDayNth;
+    private final   boolean     isAfter;
+    private final   int         offsetWeekDay2;
+    private final   int         offsetWeekDay2Nth;
+    private final   boolean     isAfter2;
+
+    // if weekday then, by index: weekday mask, alternate time or -1,
+    // alternate weekday or 0, and its direction
+    private final   int[]       ifWeekdayMasks;
+    private final   int[]       altTimes;
+    private final   int[]       altWeekdays;
+    private final   boolean[]   altWeekdayNext;
+
+    // requirements
+    private final   boolean     inEvenYear;
+    private final   boolean     inOddYear;
+    private final   boolean     inLeapYear;
+    private final   boolean     inNonLeapYear;
+    private final   int         enabledWeekdayMask;
+    private final   int         disabledWeekdayMask;
+    private final   int[]       yearIntervals;
+    private final   int[]       yearStarts;
+    private final   long        enabledSince;
+    private final   long        enabledUntil;
+
+    // the years in which the start can be, relative to the default year, see
+    // isApplicable, and if they are known
+    private final   boolean     yearShiftKnown;
+    private final   int         minYearShift;
+    private final   int         maxYearShift;
+
+    private CompiledRule(Rule rule) {
+        this.rule = rule;
+        Date raw = rule.rawDate;
+        int k = KIND_FALLBACK;
+        int wd = 0;
+        int n = 0;
+        int m = Date.UNDEFINED_NUM;
+        if (raw instanceof GregorianDate) {
+            k = KIND_GREGORIAN;
+            m = raw.month;
+        } else if (raw instanceof EasterDate) {
+            k = KIND_EASTER;
+        } else if (raw instanceof NthDate) {
+            // same as NthDate#calculateDate
+            NthDate nthDate = (NthDate) raw;
+            k = isWeekday(nthDate.weekday) ? KIND_NTH : KIND_FALLBACK;
+            wd = nthDate.weekday;
+            n = nthDate.isInMonth ? nthDate.nth : -nthDate.nth;
+            m = nthDate.isInMonth ? nthDate.month : nthDate.month - 1;
+        }
+        this.nthWeekday = wd;
+        this.nth = n;
+        this.month = m;
+        this.year = (raw != null) ? raw.year : Date.UNDEFINED_NUM;
+        this.dayOfMonth = (raw != null) ? raw.dayOfMonth : Date.UNDEFINED_NUM;
+        this.startMinute = (raw != null && raw.startTime != Date.UNDEFINED_NUM) ? raw.startTime : 0;
+        if (raw instanceof EasterDate) {
+            this.orthodox = ((EasterDate) raw).isOrthodox;
+            this.easterOffset = ((EasterDate) raw).offset;
+        } else {
+            this.orthodox = false;
+            this.easterOffset = 0;
+        }
+
+        this.offset = rule.isAfter ? rule.offset : -rule.offset;
+        this.offsetWeekDay = rule.offsetWeekDay;
+        this.offsetWeekDayNth = rule.offsetWeekDayNth;
+        this.isAfter = rule.isAfter;
+        this.offsetWeekDay2 = rule.offsetWeekDay2;
+        this.offsetWeekDay2Nth = rule.offsetWeekDay2Nth;
+        this.isAfter2 = rule.isAfter2;
+
+        int ifCount = (rule.ifWeekdays != null) ? rule.ifWeekdays.size() : 0;
+        this.ifWeekdayMasks = new int[ifCount];
+        this.altTimes = new int[ifCount];
+        this.altWeekdays = new int[ifCount];
+        this.altWeekdayNext = new boolean[ifCount];
+        for (int i = 0; i < ifCount; i++) {
+            ifWeekdayMasks[i] = maskOf(rule.ifWeekdays.get(i));
+            if (ifWeekdayMasks[i] < 0) {
+                k = KIND_FALLBACK;
+            }
+            if (rule.altTime == null || rule.altWeekdays == null
+            ||  i >= rule.altTime.size() || i >= rule.altWeekdays.size()) {
+                k = KIND_FALLBACK;
+                break;
+            }
+            Integer aTime = rule.altTime.get(i);
+            List<Integer> altWeekday = rule.altWeekdays.get(i);
+            altTimes[i] = (aTime != null) ? aTime : -1;
+            if (aTime == null && altWeekday != null) {
+                altWeekdays[i] = altWeekday.get(0);
+                altWeekdayNext[i] = (altWeekday.get(1) == 1);
+                if (!isWeekday(altWeekdays[i])) {
+                    k = KIND_FALLBACK;
+                }
+            }
+            if (aTime != null && !isMinuteOfDay(aTime)) {
+                k = KIND_FALLBACK;
+            }
+        }
+
+        this.inEvenYear = rule.inEvenYear;
+        this.inOddYear = rule.inOddYear;
+        this.inLeapYear = rule.inLeapYear;
+        this.inNonLeapYear = rule.inNonLeapYear;
+        this.enabledWeekdayMask = maskOf(rule.enabledWeekdays);
+        this.disabledWeekdayMask = maskOf(rule.disabledWeekdays);
+        this.yearIntervals = toArray(rule.yearIntervals);
+        this.yearStarts = toArray(rule.yearStarts);
+        this.enabledSince = (rule.enabledSince != null) ? rule.enabledSince.toEpochDay() : Long.MIN_VALUE;
+        this.enabledUntil = (rule.enabledUntil != null) ? rule.enabledUntil.toEpochDay() : Long.MAX_VALUE;
+
+        // the cases where Rule#calculate throws, or that are not compiled
+        if (raw == null
+        ||  rule.ifWeekdays == null
+        ||  enabledWeekdayMask < 0
+        ||  disabledWeekdayMask < 0
+        ||  !isMinuteOfDay(startMinute)
+        ||  !isWeekdayOffset(offsetWeekDay, offsetWeekDayNth)
+        ||  !isWeekdayOffset(offsetWeekDay2, offsetWeekDay2Nth)
+        ||  yearIntervals == null
+        ||  yearStarts == null
+        ||  yearIntervals.length > yearStarts.length
+        ||  containsZero(yearIntervals)) {
+            k = KIND_FALLBACK;
+        }
+        this.kind = k;
+
+        int[] window = startWindow(rule);
+        this.yearShiftKnown = (window != null);
+        this.minYearShift = (window != null) ? Math.floorDiv(window[0], 365) : 0;
+        this.maxYearShift = (window != null) ? Math.floorDiv(window[1], 365) : 0;
+    }
+
+    /**
+     * The days of the year in which the start of a rule can be, from 0 for
+     * January 1 of the default year, or null if they are not known, or don't
+     * depend on the default year
+     */
+    @Nullable
+    private static int[] startWindow(Rule rule) {
+        Date raw = rule.rawDate;
+        if (raw == null || raw.year != Date.UNDEFINED_NUM
+        ||  raw instanceof EastAsianDate && ((EastAsianDate) raw).cycle != Date.UNDEFINED_NUM) {
+            return null;
+        }
+        int lo;
+        int hi;
+        int month = raw.month;
+        if (raw instanceof GregorianDate || raw instanceof NthDate || raw instanceof AstronomicalDate) {
+            if (month < 1 || month > 12) {
+                return null;
+            }
+            // the month, a day more in leap years, and the month before for an
+            // nth weekday before a date, or the day before and after for the
+            // time zone of an astronomical event
+            lo = DAYS_BEFORE_MONTH[month - 1];
+            hi = lo + 31;
+            if (raw instanceof GregorianDate) {
+                if (raw.dayOfMonth < 1 || raw.dayOfMonth > 31) {
+                    return null;
+                }
+                lo += raw.dayOfMonth - 1;
+                hi = lo + 1;
+            } else if (raw instanceof NthDate && !((NthDate) raw).isInMonth) {
+                lo -= 31;
+            } else if (raw instanceof AstronomicalDate) {
+                lo -= 1;
+                hi += 1;
+            }
+        } else if (raw instanceof EasterDate) {
+            // March 22 to May 9, for both Easter and Orthodox Easter
+            lo = DAYS_BEFORE_MONTH[2] + 21 + ((EasterDate) raw).offset;
+            hi = DAYS_BEFORE_MONTH[4] + 9 + ((EasterDate) raw).offset;
+        } else {
+            // the other calendars are converted to a date of the year before,
+            // of the default year, or of the year after
+            lo = -366;
+            hi = 2 * 366;
+        }
+
+        // the offsets, and the alternate weekdays
+        if (Math.abs(rule.offset) > MAX_YEAR) {
+            return null;
+        }
+        lo += rule.isAfter ? rule.offset : -rule.offset;
+        hi += rule.isAfter ? rule.offset : -rule.offset;
+        if (rule.offsetWeekDayNth < 0 || rule.offsetWeekDay2Nth < 0) {
+            return null;
+        }
+        int weekdayShift = 7 * rule.offsetWeekDayNth + 7 * rule.offsetWeekDay2Nth;
+        if (rule.ifWeekdays != null && !rule.ifWeekdays.isEmpty()) {
+            weekdayShift += 7;
+        }
+        return new int[] { lo - weekdayShift, hi + weekdayShift };
+    }
+
+    /**
+     * Compiles a {@link Rule}. Use {@link Rule#compile()} to get the compiled
+     * form of a frozen rule, which is only compiled once.
+     *
+     * @param rule the rule to compile
+     * @return the compiled rule
+     */
+    public static CompiledRule compile(Rule rule) {
+        return new CompiledRule(rule);
+    }
+
+    /**
+     * @return the {@link Rule} of this compiled rule
+     */
+    public Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * @return true if this rule is evaluated without allocation, false if it
+     *      is evaluated through {@link Rule#evaluate(int)}
+     */
+    public boolean isPrimitive() {
+        return kind != KIND_FALLBACK;
+    }
+
+    /**
+     * Evaluates the start of the rule in a year, same as
+     * {@link Rule#calculate(int)}, and throws the same exceptions.
+     * <p>
+     * If the {@link Date} already have a year, it will be used. Otherwise,the
+     * default year will be used.
+     *
+     * @param defaultYear default Gregorian year
+     * @return the start as the count of minutes since 1970-01-01T00:00 in
+     *      local time, see {@link #epochDay(long)} and
+     *      {@link #minuteOfDay(long)}, or {@link #NONE} if the rule is
+     *      disabled in the year
+     */
+    public long evaluate(int defaultYear) {
+        if (kind == KIND_FALLBACK || defaultYear < MIN_YEAR || defaultYear > MAX_YEAR) {
+            return evaluateFallback(defaultYear);
+        }
+        int y = (year != Date.UNDEFINED_NUM) ? year : defaultYear;
+        long day;
+        switch (kind) {
+            case KIND_GREGORIAN:
+                if (!isValidDate(y, month, dayOfMonth)) {
+                    return evaluateFallback(defaultYear);
+                }
+                day = toEpochDay(y, month, dayOfMonth);
+                break;
+            case KIND_EASTER:
+                day = EasterTable.getInstance().epochDay(y, orthodox);
+                if (day == NONE) {
+                    return evaluateFallback(defaultYear);
+                }
+                day += easterOffset;
+                break;
+            default:
+                if (month < 1 || month > 12) {
+                    return evaluateFallback(defaultYear);
+                }
+                day = nthWeekdayOfMonth(y, month, nthWeekday, nth);
+        }
+        int minute = startMinute;
+
+        // offset shift
+        day += offset;
+        if (offsetWeekDay != 0) {
+            day = offsetWeekDay(day, offsetWeekDay, offsetWeekDayNth, isAfter);
+        }
+        if (offsetWeekDay2 != 0) {
+            day = offsetWeekDay(day, offsetWeekDay2, offsetWeekDay2Nth, isAfter2);
+        }
+
+        // if weekday then
+        int weekdayBit = 1 << dayOfWeek(day);
+        for (int i = 0; i < ifWeekdayMasks.length; i++) {
+            if ((ifWeekdayMasks[i] & weekdayBit) != 0) {
+                if (altTimes[i] >= 0) {
+                    minute = altTimes[i];
+                    break;
+                }
+                if (altWeekdays[i] != 0) {
+                    day = offsetWeekDay(day, altWeekdays[i], 1, altWeekdayNext[i]);
+                    weekdayBit = 1 << dayOfWeek(day);
+                    break;
+                }
+            }
+        }
+
+        // year requirements
+        if (inEvenYear || inOddYear || inLeapYear || inNonLeapYear || yearIntervals.length > 0) {
+            int dateYear = yearOf(day);
+            boolean leap = isLeapYear(dateYear);
+            if ((inEvenYear || inOddYear || inLeapYear || inNonLeapYear)
+            &&  !(inEvenYear && (dateYear % 2 == 0)
+            ||    inOddYear && (dateYear % 2 == 1)
+            ||    inLeapYear && leap
+            ||    inNonLeapYear && !leap)) {
+                return NONE;
+            }
+            if (!isInYearIntervals(dateYear)) {
+                return NONE;
+            }
+        }
+
+        // weekday requirements
+        if (enabledWeekdayMask != 0) {
+            if ((enabledWeekdayMask & weekdayBit) == 0) {
+                return NONE;
+            }
+        } else if ((disabledWeekdayMask & weekdayBit) != 0) {
+            return NONE;
+        }
+
+        // enabled range, both exclusive
+        if (day <= enabledSince || day >= enabledUntil) {
+            return NONE;
+        }
+        return day * MINUTES_PER_DAY + minute;
+    }
+
+    /**
+     * Checks if this rule can have a start in a year, from its year
+     * requirements, year intervals and enabled range, without calculating its
+     * date. The check is conservative: a rule that is applicable may still be
+     * disabled in the year, but a rule that is not applicable is always
+     * disabled, or would throw an exception.
+     *
+     * @param defaultYear default Gregorian year
+     * @return false if the rule is disabled in the year
+     */
+    public boolean isApplicable(int defaultYear) {
+        if (!yearShiftKnown || defaultYear < MIN_YEAR || defaultYear > MAX_YEAR
+        ||  yearIntervals == null || yearStarts == null
+        ||  yearIntervals.length > yearStarts.length || containsZero(yearIntervals)) {
+            return true;
+        }
+        for (int y = defaultYear + minYearShift; y <= defaultYear + maxYearShift; y++) {
+            if (isApplicableYear(y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a start in the year can pass the year requirements, the
+     *      year intervals and the enabled range
+     */
+    private boolean isApplicableYear(int dateYear) {
+        boolean leap = isLeapYear(dateYear);
+        if ((inEvenYear || inOddYear || inLeapYear || inNonLeapYear)
+        &&  !(inEvenYear && (dateYear % 2 == 0)
+        ||    inOddYear && (dateYear % 2 == 1)
+        ||    inLeapYear && leap
+        ||    inNonLeapYear && !leap)) {
+            return false;
+        }
+        if (!isInYearIntervals(dateYear)) {
+            return false;
+        }
+        // enabled range, both exclusive
+        return toEpochDay(dateYear, 12, 31) > enabledSince && toEpochDay(dateYear, 1, 1) < enabledUntil;
+    }
+
+    private boolean isInYearIntervals(int dateYear) {
+        if (yearIntervals.length == 0) {
+            return true;
+        }
+        for (int i = 0; i < yearIntervals.length; i++) {
+            if (dateYear >= yearStarts[i] && ((dateYear - yearStarts[i]) % yearIntervals[i] == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long evaluateFallback(int defaultYear) {
+        return toEpochMinute(rule.calculate(defaultYear));
+    }
+
+    /**
+     * @param dateTime a local date and time, or null
+     * @return the count of minutes since 1970-01-01T00:00 of the date and
+     *      time, or {@link #NONE} if it's null
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NONE;
+        }
+        return dateTime.toLocalDate().toEpochDay() * MINUTES_PER_DAY
+                + dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    /**
+     * @param epochMinute a result of {@link #evaluate(int)}, not {@link #NONE}
+     * @return the epoch day of the result, see
+     *      {@link java.time.LocalDate#ofEpochDay(long)}
+     */
+    public static long epochDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    /**
+     * @param epochMinute a result of {@link #evaluate(int)}, not {@link #NONE}
+     * @return the minute of the day of the result, from {@link Date#MIN_TIME}
+     *      to {@link Date#MAX_TIME}
+     */
+    public static int minuteOfDay(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+    }
+
+    /**
+     * @param epochMinute a result of {@link #evaluate(int)}
+     * @return the result as a {@link LocalDateTime}, or null if it's
+     *      {@link #NONE}
+     */
+    public static LocalDateTime toLocalDateTime(long epochMinute) {
+        if (epochMinute == NONE) {
+            return null;
+        }
+        int minute = minuteOfDay(epochMinute);
+        return java.time.LocalDate.ofEpochDay(epochDay(epochMinute)).atTime(minute / 60, minute % 60);
+    }
+
+    /**
+     * Shifts an epoch day to the nth next or previous weekday, strictly after
+     * or before it, same as {@link Date#getOffsetWeekDayDate}.
+     */
+    private static long offsetWeekDay(long day, int weekday, int nth, boolean after) {
+        if (nth == 0) {
+            return day;
+        }
+        int current = dayOfWeek(day);
+        int diff = after ? (weekday - current + 7) % 7 : (current - weekday + 7) % 7;
+        if (diff == 0) {
+            diff = 7;
+        }
+        long shift = diff + 7L * (nth - 1);
+        return after ? day + shift : day - shift;
+    }
+
+    /**
+     * Same as {@link java.time.temporal.TemporalAdjusters#dayOfWeekInMonth}
+     * applied on the first day of the month.
+     */
+    private static long nthWeekdayOfMonth(int year, int month, int weekday, int ordinal) {
+        if (ordinal >= 0) {
+            long first = toEpochDay(year, month, 1);
+            int diff = (weekday - dayOfWeek(first) + 7) % 7;
+            return first + diff + (ordinal - 1) * 7L;
+        }
+        long last = toEpochDay(year, month, lengthOfMonth(year, month));
+        int diff = weekday - dayOfWeek(last);
+        diff = (diff == 0) ? 0 : ((diff > 0) ? diff - 7 : diff);
+        return last + diff - (-ordinal - 1) * 7L;
+    }
+
+    /**
+     * @return the ISO day of week of an epoch day, 1 for Monday to 7 for
+     *      Sunday
+     */
+    static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L) + 1;
+    }
+
+    static boolean isLeapYear(long year) {
+        return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    static boolean isValidDate(int year, int month, int dayOfMonth) {
+        return month >= 1 && month <= 12 && dayOfMonth >= 1 && dayOfMonth <= lengthOfMonth(year, month);
+    }
+
+    /**
+     * Same as {@link java.time.LocalDate#toEpochDay()}.
+     */
+    static long toEpochDay(int year, int month, int dayOfMonth) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += ((367 * month - 362) / 12);
+        total += dayOfMonth - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Same as the year of {@link java.time.LocalDate#ofEpochDay(long)}.
+     */
+    static int yearOf(long epochDay) {
+        long zeroDay = epochDay + DAYS_0000_TO_1970;
+        // find the march-based year
+        zeroDay -= 60;  // adjust to 0000-03-01 so leap day is at end of four year cycle
+        long adjust = 0;
+        if (zeroDay < 0) {
+            // adjust negative years to positive for calculation
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            // fix estimate
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;  // reset any negative year
+        int marchDoy0 = (int) doyEst;
+        // convert march-based values back to january-based
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        yearEst += marchMonth0 / 10;
+        return (int) yearEst;
+    }
+
+    /**
+     * @return the bitmask of the weekdays, bit 1 for Monday to bit 7 for
+     *      Sunday, or -1 if the list is null or has an invalid weekday
+     */
+    private static int maskOf(List<Integer> weekdays) {
+        if (weekdays == null) {
+            return -1;
+        }
+        int mask = 0;
+        for (Integer weekday : weekdays) {
+            if (weekday == null || !isWeekday(weekday)) {
+                return -1;
+            }
+            mask |= 1 << weekday;
+        }
+        return mask;
+    }
+
+    /**
+     * @return the values, or null if the list is null or has a null element
+     */
+    private static int[] toArray(List<Integer> values) {
+        if (values == null) {
+            return null;
+        }
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            Integer value = values.get(i);
+            if (value == null) {
+                return null;
+            }
+            result[i] = value;
+        }
+        return result;
+    }
+
+    private static boolean containsZero(int[] values) {
+        for (int value : values) {
+            if (value == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWeekday(int weekday) {
+        return weekday >= 1 && weekday <= 7;
+    }
+
+    private static boolean isMinuteOfDay(int minute) {
+        return minute >= Date.MIN_TIME && minute <= Date.MAX_TIME;
+    }
+
+    private static boolean isWeekdayOffset(int weekday, int nth) {
+        return weekday == 0 || nth == 0 || (isWeekday(weekday) && nth > 0);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRule[" + rule.getOriginalRule() + (isPrimitive() ? "" : ", fallback") + "]";
+    }
+}
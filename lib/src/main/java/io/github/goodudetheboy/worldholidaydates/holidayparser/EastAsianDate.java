@@ -164,41 +164,68 @@ public class EastAsianDate extends Date {
 
         if (month != Date.UNDEFINED_NUM) {
             // normal year, month, day
-            // conversion
-            EastAsianMonth conMonth = (!isLeapMonth())
-                                    ? EastAsianMonth.valueOf(month)
-                                    : EastAsianMonth.valueOf(month).withLeap();
-            EastAsianYear conYear = EastAsianYear.forGregorian(yearToUse);
-
-            // calculation based on different calendar type
-            EastAsianCalendar date = null;
-            switch(calType) {
-                case CHINESE:
-                    date = ChineseCalendar.of(conYear, conMonth, (dayOfMonth != 0) ? dayOfMonth : 1);
-                    break;
-                case KOREAN:
-                    date = KoreanCalendar.of(conYear, conMonth, dayOfMonth);
-                    break;
-                case VIETNAMESE:
-                    date = VietnameseCalendar.of(conYear, conMonth, dayOfMonth);
-                    break;
-            }
-            if (date != null) {
-                PlainDate pdate = date.transform(PlainDate.class);
-                LocalDate result =  pdate.toTemporalAccessor();
-                if (dayOfMonth == 0) {
-                    result = result.minusDays(1);
+            EastAsianTable table = EastAsianTable.getInstance();
+            if (table != null) {
+                // day 0 is the last day of the previous month, for Chinese only
+                int dayToUse = (dayOfMonth == 0 && calType == CalendarType.CHINESE) ? 1 : dayOfMonth;
+                long epochDay = table.toEpochDay(calType, yearToUse, month, isLeapMonth, dayToUse);
+                if (epochDay != EastAsianTable.NONE) {
+                    return LocalDate.ofEpochDay((dayOfMonth == 0) ? epochDay - 1 : epochDay);
                 }
-                return result;
-            } else {
-                return null;
             }
+            return calculateWithTime4J(calType, yearToUse, month, isLeapMonth, dayOfMonth);
         } else {
             // solar term calculation
             return getDateFromSolarTerm(solarTermTh, solarTermDay, yearToUse);
         }
     }
 
+    /**
+     * Converts an East Asian date to the Gregorian calendar with Time4J,
+     * for the dates out of the {@link EastAsianTable}.
+     *
+     * @param calType the calendar type
+     * @param year the Gregorian year in which the East Asian year starts
+     * @param month the month, from 1 to 12
+     * @param isLeapMonth true for the leap month following the month
+     * @param dayOfMonth the day of the month, 0 for the last day of the
+     *      previous month in the Chinese calendar
+     * @return the date in the Gregorian calendar, or null if there's no
+     *      calendar type
+     */
+    @Nullable
+    static LocalDate calculateWithTime4J(CalendarType calType, int year, int month, boolean isLeapMonth, int dayOfMonth) {
+        // conversion
+        EastAsianMonth conMonth = (!isLeapMonth)
+                                ? EastAsianMonth.valueOf(month)
+                                : EastAsianMonth.valueOf(month).withLeap();
+        EastAsianYear conYear = EastAsianYear.forGregorian(year);
+
+        // calculation based on different calendar type
+        EastAsianCalendar date = null;
+        switch(calType) {
+            case CHINESE:
+                date = ChineseCalendar.of(conYear, conMonth, (dayOfMonth != 0) ? dayOfMonth : 1);
+                break;
+            case KOREAN:
+                date = KoreanCalendar.of(conYear, conMonth, dayOfMonth);
+                break;
+            case VIETNAMESE:
+                date = VietnameseCalendar.of(conYear, conMonth, dayOfMonth);
+                break;
+        }
+        if (date != null) {
+            PlainDate pdate = date.transform(PlainDate.class);
+            LocalDate result =  pdate.toTemporalAccessor();
+            if (dayOfMonth == 0) {
+                result = result.minusDays(1);
+            }
+            return result;
+        } else {
+            return null;
+        }
+    }
+
     // TODO: override toString and toNamedString here
 
     /**
@@ -0,0 +1,272 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import net.time4j.PlainDate;
+import net.time4j.calendar.ChineseCalendar;
+import net.time4j.calendar.EastAsianCalendar;
+import net.time4j.calendar.EastAsianMonth;
+import net.time4j.calendar.EastAsianYear;
+import net.time4j.calendar.KoreanCalendar;
+import net.time4j.calendar.VietnameseCalendar;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.EastAsianDate.CalendarType;
+
+/**
+ * A precomputed table of the East Asian lunisolar years from
+ * {@link #FIRST_YEAR} to {@link #LAST_YEAR}, for each {@link CalendarType},
+ * so that an {@link EastAsianDate} is converted to the Gregorian calendar in
+ * constant time, without Time4J. The table is generated from Time4J at build
+ * time by the {@code generateEastAsianTable} Gradle task, which runs
+ * {@link #main(String[])}, and is packaged as the east-asian.table resource.
+ * Dates out of the table, or if the resource is missing, are converted by
+ * Time4J, see {@link EastAsianDate#calculateDate(int)}.
+ * <p>
+ * Each year is stored as its new year day, its leap month, and the lengths of
+ * its months, which are the distances between its new moons. The table has
+ * the following layout, in big-endian order:
+ * <pre>
+ * int      magic number "WHEA"
+ * int      format version
+ * int      first year
+ * int      last year
+ * for each calendar type, in {@link CalendarType} order, for each year:
+ *   int    epoch day of the first day of the first month
+ *   byte   the month followed by the leap month, 0 if there's none
+ *   short  the bitmask of the months of 30 days, bit 0 for the first
+ *          month, the leap month being right after its month
+ * </pre>
+ * The year is the Gregorian year in which the East Asian year starts, see
+ * {@link EastAsianYear#forGregorian(int)}.
+ */
+public final class EastAsianTable {
+    /**
+     * The first Gregorian year of the table
+     */
+    public static final int     FIRST_YEAR      = 1900;
+
+    /**
+     * The last Gregorian year of the table
+     */
+    public static final int     LAST_YEAR       = 2200;
+
+    /**
+     * The result of {@link #toEpochDay} if the date is not in the table
+     */
+    static final long           NONE            = Long.MIN_VALUE;
+
+    static final String         TABLE_FILE      = "east-asian.table";
+    static final int            MAGIC           = 0x57484541; // "WHEA"
+    static final int            FORMAT_VERSION  = 1;
+
+    private static final int    YEARS           = LAST_YEAR - FIRST_YEAR + 1;
+
+    // by calendar type ordinal, then by year - FIRST_YEAR
+    private final   int[][]     newYears;
+    private final   byte[][]    leapMonths;
+    private final   short[][]   longMonths;
+
+    private EastAsianTable(int[][] newYears, byte[][] leapMonths, short[][] longMonths) {
+        this.newYears = newYears;
+        this.leapMonths = leapMonths;
+        this.longMonths = longMonths;
+    }
+
+    /**
+     * Lazily loads the table from the east-asian.table resource
+     */
+    private static final class Holder {
+        static final EastAsianTable INSTANCE = loadResource();
+    }
+
+    /**
+     * Generates the table from Time4J.
+     * <p>
+     * Usage: {@code EastAsianTable <east-asian.table>}
+     *
+     * @param args the path of the table to write
+     * @throws IOException if the file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: EastAsianTable <east-asian.table>");
+        }
+        Path output = Paths.get(args[0]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(generate(), out);
+        }
+    }
+
+    /**
+     * @return true if the table resource was found, false if all the East
+     *      Asian dates are converted by Time4J
+     */
+    public static boolean isAvailable() {
+        return Holder.INSTANCE != null;
+    }
+
+    /**
+     * @return the table from the resource, or null if there's none
+     */
+    static EastAsianTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Converts an East Asian date to the Gregorian calendar, same as Time4J.
+     *
+     * @param calType the calendar type
+     * @param year the Gregorian year in which the East Asian year starts
+     * @param month the month, from 1 to 12
+     * @param isLeapMonth true for the leap month following the month
+     * @param dayOfMonth the day of the month, from 1
+     * @return the epoch day of the date, or {@link #NONE} if the year is out
+     *      of the table, or if the date doesn't exist
+     */
+    long toEpochDay(CalendarType calType, int year, int month, boolean isLeapMonth, int dayOfMonth) {
+        if (calType == null || year < FIRST_YEAR || year > LAST_YEAR || month < 1 || month > 12 || dayOfMonth < 1) {
+            return NONE;
+        }
+        int type = calType.ordinal();
+        int y = year - FIRST_YEAR;
+        int leapMonth = leapMonths[type][y];
+        if (isLeapMonth && leapMonth != month) {
+            return NONE;
+        }
+        // index of the month in the year, the leap month being after its month
+        int index = (leapMonth != 0 && (month > leapMonth || isLeapMonth)) ? month : month - 1;
+        int longMonthMask = longMonths[type][y];
+        int length = ((longMonthMask & (1 << index)) != 0) ? 30 : 29;
+        if (dayOfMonth > length) {
+            return NONE;
+        }
+        int daysBefore = 29 * index + Integer.bitCount(longMonthMask & ((1 << index) - 1));
+        return (long) newYears[type][y] + daysBefore + dayOfMonth - 1;
+    }
+
+    /**
+     * Generates the table from Time4J.
+     */
+    static EastAsianTable generate() {
+        CalendarType[] types = CalendarType.values();
+        int[][] newYears = new int[types.length][YEARS];
+        byte[][] leapMonths = new byte[types.length][YEARS];
+        short[][] longMonths = new short[types.length][YEARS];
+        for (CalendarType type : types) {
+            int t = type.ordinal();
+            for (int y = 0; y < YEARS; y++) {
+                EastAsianYear year = EastAsianYear.forGregorian(FIRST_YEAR + y);
+                EastAsianCalendar<?, ?> first = of(type, year, EastAsianMonth.valueOf(1));
+                newYears[t][y] = (int) toEpochDay(first);
+                int leapMonth = first.findLeapMonth().map(EastAsianMonth::getNumber).orElse(0);
+                leapMonths[t][y] = (byte) leapMonth;
+                int mask = 0;
+                int index = 0;
+                for (int m = 1; m <= 12; m++) {
+                    if (of(type, year, EastAsianMonth.valueOf(m)).lengthOfMonth() == 30) {
+                        mask |= 1 << index;
+                    }
+                    index++;
+                    if (m == leapMonth) {
+                        if (of(type, year, EastAsianMonth.valueOf(m).withLeap()).lengthOfMonth() == 30) {
+                            mask |= 1 << index;
+                        }
+                        index++;
+                    }
+                }
+                longMonths[t][y] = (short) mask;
+            }
+        }
+        return new EastAsianTable(newYears, leapMonths, longMonths);
+    }
+
+    private static EastAsianCalendar<?, ?> of(CalendarType type, EastAsianYear year, EastAsianMonth month) {
+        switch (type) {
+            case KOREAN:
+                return KoreanCalendar.of(year, month, 1);
+            case VIETNAMESE:
+                return VietnameseCalendar.of(year, month, 1);
+            default:
+                return ChineseCalendar.of(year, month, 1);
+        }
+    }
+
+    private static long toEpochDay(EastAsianCalendar<?, ?> date) {
+        return date.transform(PlainDate.class).toTemporalAccessor().toEpochDay();
+    }
+
+    /**
+     * Writes a table.
+     *
+     * @param table the table to write
+     * @param out the stream to write to, not closed
+     * @throws IOException if the stream can't be written
+     */
+    static void write(EastAsianTable table, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(FIRST_YEAR);
+        data.writeInt(LAST_YEAR);
+        for (int t = 0; t < CalendarType.values().length; t++) {
+            for (int y = 0; y < YEARS; y++) {
+                data.writeInt(table.newYears[t][y]);
+                data.writeByte(table.leapMonths[t][y]);
+                data.writeShort(table.longMonths[t][y]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a table.
+     *
+     * @param in the stream to read from, not closed
+     * @return the table, or null if it's not of the current format or years
+     * @throws IOException if the stream can't be read
+     */
+    static EastAsianTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC
+        ||  data.readInt() != FORMAT_VERSION
+        ||  data.readInt() != FIRST_YEAR
+        ||  data.readInt() != LAST_YEAR) {
+            return null;
+        }
+        int types = CalendarType.values().length;
+        int[][] newYears = new int[types][YEARS];
+        byte[][] leapMonths = new byte[types][YEARS];
+        short[][] longMonths = new short[types][YEARS];
+        for (int t = 0; t < types; t++) {
+            for (int y = 0; y < YEARS; y++) {
+                newYears[t][y] = data.readInt();
+                leapMonths[t][y] = data.readByte();
+                longMonths[t][y] = data.readShort();
+            }
+        }
+        return new EastAsianTable(newYears, leapMonths, longMonths);
+    }
+
+    private static EastAsianTable loadResource() {
+        InputStream in = EastAsianTable.class.getClassLoader().getResourceAsStream(TABLE_FILE);
+        if (in == null) {
+            return null;
+        }
+        try (InputStream stream = new BufferedInputStream(in)) {
+            return read(stream);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
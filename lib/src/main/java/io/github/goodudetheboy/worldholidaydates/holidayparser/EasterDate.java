@@ -1,6 +1,7 @@
 package io.github.goodudetheboy.worldholidaydates.holidayparser;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 /**
  * A class for calculating the date of Easter and Orthodox easter dates based
@@ -57,15 +58,39 @@ public class EasterDate extends Date {
 
     /**
      * Calculates the date of Easter of the year stored in this
-     * {@link EasterDate} in the Gregorian calendar.
+     * {@link EasterDate} in the Gregorian calendar, from the shared
+     * {@link EasterTable}.
      * 
      * @return the date of Easter of the year stored in this {@link EasterDate}
      */
     @Override
     public LocalDate calculateDate(int defaultYear) {
         int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
-        LocalDate result = (isOrthodox) ? getOrthodoxEasterDate(yearToUse) : getEasterDate(yearToUse);
-        return getOffsetDate(result.atStartOfDay(), offset).toLocalDate();
+        long epochDay = EasterTable.getInstance().epochDay(yearToUse, isOrthodox);
+        if (epochDay == EasterTable.NONE) {
+            // throws the exception of an invalid date
+            LocalDate result = (isOrthodox) ? getOrthodoxEasterDate(yearToUse) : getEasterDate(yearToUse);
+            return getOffsetDate(result.atStartOfDay(), offset).toLocalDate();
+        }
+        return LocalDate.ofEpochDay(epochDay + offset);
+    }
+
+    /**
+     * Calculates the date stored in this {@link EasterDate} for all the years
+     * of a span in one pass, see {@link EasterTable#epochDays(boolean, int, int, int)}.
+     * If this date has a year, it's the same in all the years.
+     *
+     * @param fromYear the first year of the span
+     * @param toYear the last year of the span, inclusive
+     * @return the epoch days of the date, by year - fromYear
+     */
+    public long[] calculateEpochDays(int fromYear, int toYear) {
+        if (year == UNDEFINED_NUM || fromYear > toYear) {
+            return EasterTable.getInstance().epochDays(isOrthodox, offset, fromYear, toYear);
+        }
+        long[] result = new long[toYear - fromYear + 1];
+        Arrays.fill(result, EasterTable.getInstance().epochDays(isOrthodox, offset, year, year)[0]);
+        return result;
     }
 
     /**
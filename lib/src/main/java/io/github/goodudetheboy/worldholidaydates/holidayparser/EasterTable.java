@@ -0,0 +1,190 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.DateTimeException;
+
+/**
+ * A table of the epoch days of Easter and Orthodox Easter from a first to a
+ * last year, shared by all the {@link EasterDate}s and {@link CompiledRule}s,
+ * so that an Easter-relative date is a table lookup plus its offset. The
+ * range is {@link #DEFAULT_FIRST_YEAR} to {@link #DEFAULT_LAST_YEAR} unless
+ * set by {@link #setRange(int, int)}, and the years out of it are computed on
+ * each call, same as {@link EasterDate#getEasterDate(int)} and
+ * {@link EasterDate#getOrthodoxEasterDate(int)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class EasterTable {
+    /**
+     * The default first year of the table, the first full year of the
+     * Gregorian calendar
+     */
+    public static final int     DEFAULT_FIRST_YEAR  = 1583;
+
+    /**
+     * The default last year of the table
+     */
+    public static final int     DEFAULT_LAST_YEAR   = 4099;
+
+    /**
+     * The result of {@link #epochDay(int, boolean)} if the date of Easter
+     * would be invalid in the year
+     */
+    public static final long    NONE                = Long.MIN_VALUE;
+
+    // the years in which the arithmetic below can't overflow
+    private static final int    MIN_YEAR            = -1_000_000;
+    private static final int    MAX_YEAR            = 1_000_000;
+
+    private static volatile EasterTable instance;
+
+    private final   int         firstYear;
+    private final   int         lastYear;
+    // by year - firstYear
+    private final   int[]       western;
+    private final   int[]       orthodox;
+
+    private EasterTable(int firstYear, int lastYear) {
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        int years = lastYear - firstYear + 1;
+        this.western = new int[years];
+        this.orthodox = new int[years];
+        for (int i = 0; i < years; i++) {
+            western[i] = (int) compute(firstYear + i, false);
+            orthodox[i] = (int) compute(firstYear + i, true);
+        }
+    }
+
+    /**
+     * @return the shared table, built on its first use
+     */
+    public static EasterTable getInstance() {
+        EasterTable table = instance;
+        if (table == null) {
+            synchronized (EasterTable.class) {
+                table = instance;
+                if (table == null) {
+                    table = new EasterTable(DEFAULT_FIRST_YEAR, DEFAULT_LAST_YEAR);
+                    instance = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Replaces the shared table by one of the input range. The results are the
+     * same whatever the range, only the years out of it are slower.
+     *
+     * @param firstYear the first year of the table, from 1
+     * @param lastYear the last year of the table
+     * @throws IllegalArgumentException if the range is empty, or out of 1 to
+     *      1,000,000
+     */
+    public static void setRange(int firstYear, int lastYear) {
+        if (firstYear < 1 || lastYear > MAX_YEAR || firstYear > lastYear) {
+            throw new IllegalArgumentException("Invalid range of the Easter table: " + firstYear + "-" + lastYear);
+        }
+        instance = new EasterTable(firstYear, lastYear);
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * @param year a Gregorian year
+     * @param isOrthodox true for Orthodox Easter
+     * @return the epoch day of Easter in the year, or {@link #NONE} if the
+     *      date would be invalid
+     */
+    public long epochDay(int year, boolean isOrthodox) {
+        if (year >= firstYear && year <= lastYear) {
+            return (isOrthodox) ? orthodox[year - firstYear] : western[year - firstYear];
+        }
+        return compute(year, isOrthodox);
+    }
+
+    /**
+     * Calculates a date relative to Easter for all the years of a span in one
+     * pass.
+     *
+     * @param isOrthodox true for Orthodox Easter
+     * @param offset the days after Easter, before if negative
+     * @param fromYear the first year of the span
+     * @param toYear the last year of the span, inclusive
+     * @return the epoch days of the date, by year - fromYear
+     * @throws DateTimeException if the date of Easter would be invalid in one
+     *      of the years
+     */
+    public long[] epochDays(boolean isOrthodox, int offset, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("The first year must not be after the last year: " + fromYear + "-" + toYear);
+        }
+        long[] result = new long[toYear - fromYear + 1];
+        int[] table = (isOrthodox) ? orthodox : western;
+        for (int i = 0; i < result.length; i++) {
+            int year = fromYear + i;
+            long day = (year >= firstYear && year <= lastYear) ? table[year - firstYear] : compute(year, isOrthodox);
+            if (day == NONE) {
+                throw new DateTimeException("Invalid date of Easter in year " + year);
+            }
+            result[i] = day + offset;
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link EasterDate#getEasterDate(int)} and
+     * {@link EasterDate#getOrthodoxEasterDate(int)}, or {@link #NONE} if the
+     * date would be invalid.
+     */
+    static long compute(int year, boolean isOrthodox) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return NONE;
+        }
+        int easterMonth;
+        int easterDay;
+        if (isOrthodox) {
+            int r1 = year % 4;
+            int r2 = year % 7;
+            int r3 = year % 19;
+            int r4 = (19 * r3 + 15) % 30;
+            int r5 = (2 * r1 + 4 * r2 + 6 * r4 + 6) % 7;
+            int days = r5 + r4 + 13;
+            if (days > 39) {
+                easterMonth = 5;
+                easterDay = days - 39;
+            } else if (days > 9) {
+                easterMonth = 4;
+                easterDay = days - 9;
+            } else {
+                easterMonth = 3;
+                easterDay = days + 22;
+            }
+        } else {
+            int a = year % 19;
+            int b = year / 100;
+            int c = year % 100;
+            int d = b / 4;
+            int e = b % 4;
+            int f = (b + 8) / 25;
+            int g = (b - f + 1) / 3;
+            int h = (19 * a + b - d - g + 15) % 30;
+            int i = c / 4;
+            int k = c % 4;
+            int l = (32 + 2 * e + 2 * i - h - k) % 7;
+            int m = (a + 11 * h + 22 * l) / 451;
+            easterMonth = (h + l - 7 * m + 114) / 31;
+            easterDay = (h + l - 7 * m + 114) % 31 + 1;
+        }
+        if (!CompiledRule.isValidDate(year, easterMonth, easterDay)) {
+            return NONE;
+        }
+        return CompiledRule.toEpochDay(year, easterMonth, easterDay);
+    }
+}
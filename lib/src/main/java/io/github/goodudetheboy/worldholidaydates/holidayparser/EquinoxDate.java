@@ -36,12 +36,6 @@ public class EquinoxDate extends AstronomicalDate {
          .append(year);
         return b.toString();
     }
-    
-    @Override
-    protected ZonedDateTime calculateAstronomicalDate(int defaultYear) {
-        int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
-        return calculateEquinoxDate(month, yearToUse);
-    }
 
     /**
      * Calculates the date of either March or September Equinox in input year,
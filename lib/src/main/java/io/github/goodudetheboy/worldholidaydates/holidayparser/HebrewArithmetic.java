@@ -0,0 +1,169 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HebrewDate.HebrewMonth;
+
+/**
+ * The arithmetic of the Hebrew calendar, which converts a Hebrew date to an
+ * epoch day without allocation, same as Time4J. The start of a year, 1
+ * Tishrei, comes from the molad (the mean new moon) of Tishrei and the
+ * postponement rules, and the year length gives the lengths of Cheshvan and
+ * Kislev. The starts of the years from {@link #FIRST_CACHED_YEAR} to
+ * {@link #LAST_CACHED_YEAR} are computed once.
+ * <p>
+ * Based on the algorithms of "Calendrical Calculations" by Edward M.
+ * Reingold and Nachum Dershowitz.
+ */
+final class HebrewArithmetic {
+    /**
+     * The result of {@link #toEpochDay} if the date doesn't exist
+     */
+    static final long           NONE                = Long.MIN_VALUE;
+
+    /**
+     * The range of the years supported by Time4J
+     */
+    static final int            MIN_YEAR            = 1;
+    static final int            MAX_YEAR            = 9999;
+
+    /**
+     * The range of the years whose start is cached, 1739 to 2440 in the
+     * Gregorian calendar
+     */
+    static final int            FIRST_CACHED_YEAR   = 5500;
+    static final int            LAST_CACHED_YEAR    = 6200;
+
+    // fixed day (1 for 0001-01-01 in the Gregorian calendar) of 1 Tishrei 1
+    private static final long   HEBREW_EPOCH        = -1373427;
+    private static final long   FIXED_TO_EPOCH_DAY  = 719163;
+
+    // the epoch day of 1 Tishrei, by year - FIRST_CACHED_YEAR, up to the year
+    // after the last one for the length of the last year
+    private static final int[]  TISHREI_1           = new int[LAST_CACHED_YEAR - FIRST_CACHED_YEAR + 2];
+
+    static {
+        for (int i = 0; i < TISHREI_1.length; i++) {
+            TISHREI_1[i] = (int) computeNewYear(FIRST_CACHED_YEAR + i);
+        }
+    }
+
+    private HebrewArithmetic() {
+        // utility class
+    }
+
+    /**
+     * Converts a Hebrew date to an epoch day, same as
+     * {@code HebrewCalendar.of(year, month.toTime4jHebrewMonth(), dayOfMonth)}.
+     * Adar is the first Adar in leap years, and has 30 days in all years, the
+     * 30th being 1 Nisan in standard years, as in Time4J.
+     *
+     * @param year the Hebrew year
+     * @param month the value of the {@link HebrewMonth}, from 1 for Nisan to
+     *      12 for Adar
+     * @param dayOfMonth the day of the month
+     * @return the epoch day of the date, or {@link #NONE} if the date doesn't
+     *      exist or is out of the years of Time4J
+     */
+    static long toEpochDay(int year, int month, int dayOfMonth) {
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || dayOfMonth < 1) {
+            return NONE;
+        }
+        long newYear = newYear(year);
+        int yearLength = (int) (newYear(year + 1) - newYear);
+        boolean leap = isLeapYear(year);
+        int heshvan = (yearLength % 10 == 5) ? 30 : 29;
+        int kislev = (yearLength % 10 == 3) ? 29 : 30;
+        int monthLength;
+        int daysBefore;
+        if (month >= HebrewMonth.TISHREI.getValue()) {
+            switch (month) {
+                case 7:     // Tishrei
+                    monthLength = 30;
+                    daysBefore = 0;
+                    break;
+                case 8:     // Cheshvan
+                    monthLength = heshvan;
+                    daysBefore = 30;
+                    break;
+                case 9:     // Kislev
+                    monthLength = kislev;
+                    daysBefore = 30 + heshvan;
+                    break;
+                case 10:    // Tevet
+                    monthLength = 29;
+                    daysBefore = 30 + heshvan + kislev;
+                    break;
+                case 11:    // Shvat
+                    monthLength = 30;
+                    daysBefore = 59 + heshvan + kislev;
+                    break;
+                default:    // Adar, or Adar I in leap years
+                    monthLength = 30;
+                    daysBefore = 89 + heshvan + kislev;
+            }
+        } else {
+            // Nisan to Elul, after Adar, and Adar II in leap years
+            int nisan = 89 + heshvan + kislev + (leap ? 59 : 29);
+            // Nisan 30, Iyyar 29, Sivan 30, Tamuz 29, Av 30, Elul 29
+            int before = month - 1;
+            monthLength = (month % 2 == 1) ? 30 : 29;
+            daysBefore = nisan + 30 * before - before / 2;
+        }
+        if (dayOfMonth > monthLength) {
+            return NONE;
+        }
+        return newYear + daysBefore + dayOfMonth - 1;
+    }
+
+    /**
+     * @param year a Hebrew year
+     * @return true if the year has 13 months
+     */
+    static boolean isLeapYear(int year) {
+        return Math.floorMod(7L * year + 1, 19L) < 7;
+    }
+
+    /**
+     * @param year a Hebrew year
+     * @return the epoch day of 1 Tishrei of the year
+     */
+    static long newYear(int year) {
+        int index = year - FIRST_CACHED_YEAR;
+        if (index >= 0 && index < TISHREI_1.length) {
+            return TISHREI_1[index];
+        }
+        return computeNewYear(year);
+    }
+
+    private static long computeNewYear(int year) {
+        return HEBREW_EPOCH + elapsedDays(year) + yearLengthCorrection(year) - FIXED_TO_EPOCH_DAY;
+    }
+
+    /**
+     * @return the count of days from the epoch to the molad of Tishrei of the
+     *      year, postponed by a day if it falls on a Sunday, Wednesday or
+     *      Friday
+     */
+    private static long elapsedDays(int year) {
+        long monthsElapsed = Math.floorDiv(235L * year - 234, 19L);
+        long partsElapsed = 12084 + 13753 * monthsElapsed;
+        long days = 29 * monthsElapsed + Math.floorDiv(partsElapsed, 25920L);
+        return (Math.floorMod(3 * (days + 1), 7L) < 3) ? days + 1 : days;
+    }
+
+    /**
+     * @return the days by which the start of the year is postponed so that
+     *      the year and the previous one have valid lengths
+     */
+    private static int yearLengthCorrection(int year) {
+        long ny0 = elapsedDays(year - 1);
+        long ny1 = elapsedDays(year);
+        long ny2 = elapsedDays(year + 1);
+        if (ny2 - ny1 == 356) {
+            return 2;
+        }
+        if (ny1 - ny0 == 382) {
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -147,7 +147,27 @@ public class HebrewDate extends Date {
     @Override
     public LocalDate calculateDate(int defaultYear) {
         int yearToUse = (year != UNDEFINED_NUM) ? year : gregorianYearToHebrewYear(defaultYear);
-        HebrewCalendar date = HebrewCalendar.of(yearToUse, ((HebrewMonth) namedMonth).toTime4jHebrewMonth(), dayOfMonth);
+        if (namedMonth != null) {
+            long epochDay = HebrewArithmetic.toEpochDay(yearToUse, ((HebrewMonth) namedMonth).getValue(), dayOfMonth);
+            if (epochDay != HebrewArithmetic.NONE) {
+                return LocalDate.ofEpochDay(epochDay);
+            }
+        }
+        // the dates that don't exist throw from Time4J
+        return calculateWithTime4J(yearToUse, (HebrewMonth) namedMonth, dayOfMonth);
+    }
+
+    /**
+     * Converts a Hebrew date to the Gregorian calendar with Time4J, for the
+     * dates that {@link HebrewArithmetic} doesn't convert.
+     *
+     * @param year the Hebrew year
+     * @param month the month
+     * @param dayOfMonth the day of the month
+     * @return the date in the Gregorian calendar
+     */
+    static LocalDate calculateWithTime4J(int year, HebrewMonth month, int dayOfMonth) {
+        HebrewCalendar date = HebrewCalendar.of(year, month.toTime4jHebrewMonth(), dayOfMonth);
         PlainDate pdate = date.transform(PlainDate.class);
         return pdate.toTemporalAccessor();
     }
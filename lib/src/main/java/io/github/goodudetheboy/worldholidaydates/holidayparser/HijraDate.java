@@ -1,8 +1,11 @@
 package io.github.goodudetheboy.worldholidaydates.holidayparser;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.chrono.HijrahChronology;
-import java.time.chrono.HijrahEra;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * A class for calculating the date of Hirja dates based on Hirja calendar
@@ -64,8 +67,28 @@ public class HijraDate extends Date {
         }
     }
 
+    /**
+     * The variant of the Hijri calendar with which a {@link HijraDate} is
+     * converted to the Gregorian calendar
+     */
+    public enum Variant {
+        /**
+         * The Umm al-Qura calendar of Saudi Arabia, the one of
+         * {@link HijrahChronology#INSTANCE}, only defined from 1300 to 1600 AH
+         */
+        UMM_AL_QURA,
+        /**
+         * The arithmetical (tabular) calendar, with 11 leap years in each 30
+         * year cycle, defined for all years
+         */
+        TABULAR
+    }
+
     public static final int DEFAULT_HIJRA_YEAR = 1442; // Gregorian Year = 2021-2022
 
+    Variant     variant     = Variant.UMM_AL_QURA;
+    private     boolean     frozen      = false;
+
     public HijraDate() {
         // empty
     }
@@ -102,9 +125,45 @@ public class HijraDate extends Date {
         return (HijraMonth) namedMonth;
     }
 
+    public Variant getVariant() {
+        return variant;
+    }
+
+    /**
+     * Sets the variant of the Hijri calendar, {@link Variant#UMM_AL_QURA} by
+     * default. The variant is fixed once the {@link Rule} of this date is
+     * frozen, see {@link Rule#freeze()}, as are the shared rules of the
+     * {@link RuleCache} and of the loaded holidays, so it should be set on a
+     * newly parsed {@link Rule}.
+     *
+     * @param variant the variant of the Hijri calendar
+     * @throws IllegalStateException if the {@link Rule} of this date is frozen
+     */
+    public void setVariant(Variant variant) {
+        if (frozen) {
+            throw new IllegalStateException("Rule is frozen and the variant of its HijraDate can't be modified");
+        }
+        if (variant == null) {
+            throw new IllegalArgumentException("Variant must not be null");
+        }
+        this.variant = variant;
+    }
+
+    /**
+     * Fixes the variant of this date, when its {@link Rule} is frozen.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
     /**
      * Calculates the raw date stored in this {@link HijraDate} with the 
      * Hirja calendar, then convert to the Gregorian calendar.
+     * <p>
+     * As a Hijri year is shorter than a Gregorian year, the date may occur
+     * twice in a Gregorian year, see {@link #calculateDates(int)}, and the
+     * calculated date may not be in the default year: the dates in the year
+     * are extra holidays of the {@link Rule}, see {@link Rule#evaluate(int)}.
      * 
      * @return a {@link LocalDate} object representing the raw Hebrew date 
      *      converted to Gregorian calendar
@@ -112,8 +171,71 @@ public class HijraDate extends Date {
     @Override
     public LocalDate calculateDate(int defaultYear) {
         int yearToUse = (year != UNDEFINED_NUM) ? year : greogrianYearToHijraYear(defaultYear);
-        java.time.chrono.HijrahDate date =  HijrahChronology.INSTANCE.date(HijrahEra.AH, yearToUse, month, dayOfMonth);
-        return LocalDate.from(date);
+        return LocalDate.ofEpochDay(HijraTable.of(variant).toEpochDay(yearToUse, month, dayOfMonth));
+    }
+
+    /**
+     * Calculates all the dates of this {@link HijraDate} in a Gregorian year,
+     * from each Hijri year that overlaps it, so that a date that occurs twice
+     * in the year, such as in January and in December, is found both times.
+     * <p>
+     * If the {@link Date} already have a year, only that year is used.
+     *
+     * @param gregorianYear the Gregorian year
+     * @return the dates in the Gregorian year, in order, possibly empty
+     */
+    public List<LocalDate> calculateDates(int gregorianYear) {
+        HijraTable table = HijraTable.of(variant);
+        long first = LocalDate.of(gregorianYear, 1, 1).toEpochDay();
+        long last = LocalDate.of(gregorianYear, 12, 31).toEpochDay();
+        int firstYear = (year != UNDEFINED_NUM) ? year : table.yearOf(first);
+        int lastYear = (year != UNDEFINED_NUM) ? year : table.yearOf(last);
+        List<LocalDate> result = new ArrayList<>(2);
+        for (int y = firstYear; y <= lastYear; y++) {
+            long epochDay = table.toEpochDay(y, month, dayOfMonth);
+            if (epochDay >= first && epochDay <= last) {
+                result.add(LocalDate.ofEpochDay(epochDay));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the dates of this {@link HijraDate} in a Gregorian year other
+     * than the one calculated by {@link #calculateDate(int)}, which may not be
+     * in the year, see {@link #calculateDates(int)}. The Hijri years in which
+     * the date doesn't exist, or which are out of the range of the variant,
+     * are skipped.
+     *
+     * @param gregorianYear the Gregorian year
+     * @param date the date calculated in the year
+     * @return the other dates in the Gregorian year, in order, possibly empty
+     */
+    List<LocalDate> calculateOtherDates(int gregorianYear, LocalDate date) {
+        HijraTable table = HijraTable.of(variant);
+        long first = LocalDate.of(gregorianYear, 1, 1).toEpochDay();
+        long last = LocalDate.of(gregorianYear, 12, 31).toEpochDay();
+        List<LocalDate> result = Collections.emptyList();
+        try {
+            int firstYear = (year != UNDEFINED_NUM) ? year : table.yearOf(first);
+            int lastYear = (year != UNDEFINED_NUM) ? year : table.yearOf(last);
+            for (int y = firstYear; y <= lastYear; y++) {
+                try {
+                    long epochDay = table.toEpochDay(y, month, dayOfMonth);
+                    if (epochDay >= first && epochDay <= last && epochDay != date.toEpochDay()) {
+                        if (result.isEmpty()) {
+                            result = new ArrayList<>(1);
+                        }
+                        result.add(LocalDate.ofEpochDay(epochDay));
+                    }
+                } catch (DateTimeException e) {
+                    // no such date in the Hijri year
+                }
+            }
+        } catch (DateTimeException e) {
+            // out of the range of the variant
+        }
+        return result;
     }
 
     /**
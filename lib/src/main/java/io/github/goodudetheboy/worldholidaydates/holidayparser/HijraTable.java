@@ -0,0 +1,149 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.chrono.HijrahChronology;
+import java.time.chrono.HijrahEra;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HijraDate.Variant;
+
+/**
+ * Tables of the epoch days of the starts of the Hijri months from
+ * {@link #FIRST_YEAR} to {@link #LAST_YEAR} AH, one per {@link Variant}, so
+ * that a Hijri date is converted to an epoch day in constant time. Each
+ * table is built once, on its first use: the Umm al-Qura one from the data
+ * of {@link HijrahChronology#INSTANCE}, and the tabular one from its
+ * arithmetic.
+ * <p>
+ * Out of the table, the Umm al-Qura dates are converted by
+ * {@link HijrahChronology}, which throws out of its own range, and the
+ * tabular dates by the arithmetic, which has no range.
+ */
+final class HijraTable {
+    /**
+     * The first Hijri year of the tables, 1882 in the Gregorian calendar
+     */
+    static final int            FIRST_YEAR      = 1300;
+
+    /**
+     * The last Hijri year of the tables, 2174 in the Gregorian calendar
+     */
+    static final int            LAST_YEAR       = 1600;
+
+    // epoch day of 1 Muharram 1 AH, 622-07-16 in the Julian calendar
+    private static final long   TABULAR_EPOCH   = -492148;
+
+    private static final int    MONTHS          = (LAST_YEAR - FIRST_YEAR + 1) * 12;
+
+    // the epoch day of the start of each month, by (year - FIRST_YEAR) * 12
+    // + month - 1, and the start of the year after the last one
+    private final   int[]       monthStarts;
+    private final   Variant     variant;
+
+    private HijraTable(Variant variant) {
+        this.variant = variant;
+        this.monthStarts = new int[MONTHS + 1];
+        for (int i = 0; i < MONTHS; i++) {
+            int year = FIRST_YEAR + i / 12;
+            int month = i % 12 + 1;
+            monthStarts[i] = (int) ((variant == Variant.TABULAR)
+                                    ? tabularEpochDay(year, month, 1)
+                                    : ummAlQuraEpochDay(year, month, 1));
+        }
+        // the year after the last one may be out of the range of HijrahChronology
+        monthStarts[MONTHS] = monthStarts[MONTHS - 1] + ((variant == Variant.TABULAR)
+                                ? tabularLengthOfMonth(LAST_YEAR, 12)
+                                : HijrahChronology.INSTANCE.date(HijrahEra.AH, LAST_YEAR, 12, 1).lengthOfMonth());
+    }
+
+    /**
+     * Lazily builds the Umm al-Qura table
+     */
+    private static final class UmmAlQuraHolder {
+        static final HijraTable INSTANCE = new HijraTable(Variant.UMM_AL_QURA);
+    }
+
+    /**
+     * Lazily builds the tabular table
+     */
+    private static final class TabularHolder {
+        static final HijraTable INSTANCE = new HijraTable(Variant.TABULAR);
+    }
+
+    /**
+     * @param variant the variant of the Hijri calendar
+     * @return the table of the variant
+     */
+    static HijraTable of(Variant variant) {
+        return (variant == Variant.TABULAR) ? TabularHolder.INSTANCE : UmmAlQuraHolder.INSTANCE;
+    }
+
+    /**
+     * Converts a Hijri date to an epoch day.
+     *
+     * @param year the Hijri year
+     * @param month the month, from 1 to 12
+     * @param dayOfMonth the day of the month, from 1 to the length of the month
+     * @return the epoch day of the date
+     * @throws DateTimeException if the date doesn't exist, or is out of the
+     *      range of {@link HijrahChronology} for Umm al-Qura
+     */
+    long toEpochDay(int year, int month, int dayOfMonth) {
+        if (year >= FIRST_YEAR && year <= LAST_YEAR && month >= 1 && month <= 12) {
+            int index = (year - FIRST_YEAR) * 12 + month - 1;
+            int start = monthStarts[index];
+            if (dayOfMonth >= 1 && dayOfMonth <= monthStarts[index + 1] - start) {
+                return (long) start + dayOfMonth - 1;
+            }
+        }
+        // out of the table, or a date that doesn't exist
+        return (variant == Variant.TABULAR)
+                ? tabularEpochDay(year, month, dayOfMonth)
+                : ummAlQuraEpochDay(year, month, dayOfMonth);
+    }
+
+    /**
+     * @param epochDay an epoch day
+     * @return the Hijri year of the day
+     */
+    int yearOf(long epochDay) {
+        // the tabular estimate is off by at most a year for Umm al-Qura
+        int year = (int) Math.floorDiv((epochDay - TABULAR_EPOCH) * 30, 10631L) + 1;
+        while (toEpochDay(year, 1, 1) > epochDay) {
+            year--;
+        }
+        while (toEpochDay(year + 1, 1, 1) <= epochDay) {
+            year++;
+        }
+        return year;
+    }
+
+    private static long ummAlQuraEpochDay(int year, int month, int dayOfMonth) {
+        return LocalDate.from(HijrahChronology.INSTANCE.date(HijrahEra.AH, year, month, dayOfMonth)).toEpochDay();
+    }
+
+    /**
+     * The arithmetical Hijri calendar, with the leap years 2, 5, 7, 10, 13,
+     * 16, 18, 21, 24, 26 and 29 of each 30 year cycle, whose Dhu al-Hijjah has
+     * 30 days instead of 29, and the other months alternating between 30 and
+     * 29 days.
+     */
+    static long tabularEpochDay(int year, int month, int dayOfMonth) {
+        if (month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > tabularLengthOfMonth(year, month)) {
+            throw new DateTimeException("Invalid tabular Hijri date: " + year + "-" + month + "-" + dayOfMonth);
+        }
+        return TABULAR_EPOCH - 1
+                + (year - 1) * 354L
+                + Math.floorDiv(3 + 11L * year, 30L)
+                + 29 * (month - 1)
+                + (6 * month - 1) / 11
+                + dayOfMonth;
+    }
+
+    private static int tabularLengthOfMonth(int year, int month) {
+        if (month == 12) {
+            return (Math.floorMod(14 + 11L * year, 30L) < 11) ? 30 : 29;
+        }
+        return (month % 2 == 1) ? 30 : 29;
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * The occurrence of a {@link Rule} in a year, with all the results of a single
+ * evaluation of the rule, see {@link Rule#evaluate(int)}: the start and end
+ * date and time, the extra holidays, the substitute flag, and the reason why
+ * the rule is disabled in that year, if it is.
+ * <p>
+ * This class is immutable.
+ */
+public final class HolidayOccurrence {
+
+    /**
+     * The reason why a {@link Rule} has no occurrence in a year.
+     */
+    public enum DisabledReason {
+        /**
+         * The raw date of the rule doesn't exist in the year
+         */
+        NO_DATE,
+        /**
+         * The year is not of the required type, see
+         * {@link Rule#isInEvenYearOnly()}, {@link Rule#isInOddYearOnly()},
+         * {@link Rule#isInLeapYearOnly()} and {@link Rule#isInNonLeapYearOnly()}
+         */
+        YEAR_TYPE,
+        /**
+         * The weekday of the date is not enabled, see
+         * {@link Rule#getEnabledWeekdays()} and {@link Rule#getDisabledWeekdays()}
+         */
+        WEEKDAY,
+        /**
+         * The year is not in the year intervals, see
+         * {@link Rule#getYearIntervals()}
+         */
+        YEAR_INTERVAL,
+        /**
+         * The date is out of the enabled range, see
+         * {@link Rule#getEnabledSince()} and {@link Rule#getEnabledUntil()}
+         */
+        DATE_RANGE,
+        /**
+         * The date is one of the disabled dates of the holiday of the rule,
+         * its "disable" section in the holiday data
+         */
+        DISABLED_DATE
+    }
+
+    private final   int                 year;
+    private final   LocalDateTime       start;
+    private final   LocalDateTime       end;
+    private final   List<LocalDateTime> extras;
+    private final   boolean             substitute;
+    private final   DisabledReason      disabledReason;
+
+    /**
+     * Creates the occurrence of an enabled rule.
+     */
+    HolidayOccurrence(int year, LocalDateTime start, LocalDateTime end, List<LocalDateTime> extras, boolean substitute) {
+        this.year = year;
+        this.start = start;
+        this.end = end;
+        this.extras = extras.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(extras);
+        this.substitute = substitute;
+        this.disabledReason = null;
+    }
+
+    /**
+     * Creates the occurrence of a rule disabled in the year.
+     */
+    HolidayOccurrence(int year, boolean substitute, DisabledReason disabledReason) {
+        this.year = year;
+        this.start = null;
+        this.end = null;
+        this.extras = Collections.emptyList();
+        this.substitute = substitute;
+        this.disabledReason = disabledReason;
+    }
+
+    /**
+     * Disables this occurrence, for the disabled dates of a holiday.
+     *
+     * @param disabledReason the reason why the occurrence is disabled
+     * @return the occurrence of the same year, without start, end nor extra
+     *      holidays
+     */
+    public HolidayOccurrence disable(DisabledReason disabledReason) {
+        return new HolidayOccurrence(year, substitute, disabledReason);
+    }
+
+    /**
+     * Moves this occurrence, for the enabled dates of a holiday.
+     *
+     * @param start the start date and time
+     * @param end the end date and time
+     * @return the enabled occurrence of the same year, without extra holidays
+     */
+    public HolidayOccurrence moveTo(LocalDateTime start, LocalDateTime end) {
+        return new HolidayOccurrence(year, start, end, Collections.<LocalDateTime>emptyList(), substitute);
+    }
+
+    /**
+     * Replaces the extra holidays of this occurrence, for the disabled and
+     * enabled dates of a holiday.
+     *
+     * @param extras the extra holidays
+     * @return the occurrence with the same start and end and the extra
+     *      holidays, or this occurrence if it is disabled
+     */
+    public HolidayOccurrence withExtras(List<LocalDateTime> extras) {
+        if (!isEnabled()) {
+            return this;
+        }
+        return new HolidayOccurrence(year, start, end, new ArrayList<>(extras), substitute);
+    }
+
+    /**
+     * @return the year in which the rule was evaluated
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return the start date and time, as {@link Rule#calculate(int)}, or
+     *      null if the rule is disabled in the year
+     */
+    @Nullable
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * @return the end date and time, as {@link Rule#calculateEnd(int)}, or
+     *      null if the rule is disabled in the year
+     */
+    @Nullable
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the start date, as {@link Rule#calculateDate(int)}, or null if
+     *      the rule is disabled in the year
+     */
+    @Nullable
+    public LocalDate getDate() {
+        return (start != null) ? start.toLocalDate() : null;
+    }
+
+    /**
+     * @return the unmodifiable list of the extra holidays, as
+     *      {@link Rule#calculateExtra(int)}, empty if the rule is disabled in
+     *      the year
+     */
+    public List<LocalDateTime> getExtras() {
+        return extras;
+    }
+
+    /**
+     * @return true if the holiday is a substitute in the year, as
+     *      {@link Rule#isSubstitute(int)}
+     */
+    public boolean isSubstitute() {
+        return substitute;
+    }
+
+    /**
+     * @return true if the rule has an occurrence in the year
+     */
+    public boolean isEnabled() {
+        return disabledReason == null;
+    }
+
+    /**
+     * @return the reason why the rule is disabled in the year, or null if it
+     *      is enabled
+     */
+    @Nullable
+    public DisabledReason getDisabledReason() {
+        return disabledReason;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HolidayOccurrence)) {
+            return false;
+        }
+        HolidayOccurrence other = (HolidayOccurrence) o;
+        return year == other.year
+            && substitute == other.substitute
+            && Objects.equals(start, other.start)
+            && Objects.equals(end, other.end)
+            && extras.equals(other.extras)
+            && disabledReason == other.disabledReason;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(year, start, end, extras, substitute, disabledReason);
+    }
+
+    @Override
+    public String toString() {
+        if (!isEnabled()) {
+            return year + ": disabled (" + disabledReason + ")";
+        }
+        StringBuilder b = new StringBuilder();
+        b.append(start).append(" - ").append(end);
+        if (!extras.isEmpty()) {
+            b.append(", extras: ").append(extras);
+        }
+        if (substitute) {
+            b.append(", substitute");
+        }
+        return b.toString();
+    }
+}
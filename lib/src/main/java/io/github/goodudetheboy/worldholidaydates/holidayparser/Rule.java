@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -110,6 +111,12 @@ public class Rule implements Comparable<Rule> {
      */
     List<int[]>         enabledIfIsPublicDate  = null;
 
+    // true if this Rule is shared and can't be modified anymore
+    boolean     frozen          = false;
+
+    // the compiled form of a frozen Rule, see compile()
+    private volatile CompiledRule compiled = null;
+
     /**
      * Empty default constructor
      */
@@ -171,8 +178,20 @@ public class Rule implements Comparable<Rule> {
      */
     public boolean isSubstitute(int defaultYear) {
         if (!substituteCheck) return false;
+        return isSubstitute(calculateRaw(defaultYear));
+    }
+
+    /**
+     * Checks if the raw date's weekday falls into one of {@link #ifWeekdays}
+     * list, in {@link #substituteCheck} mode.
+     *
+     * @param raw the raw date, or null if there's none in the year
+     * @return if this {@link Rule} is a substitute.
+     */
+    private boolean isSubstitute(@Nullable LocalDateTime raw) {
+        if (!substituteCheck || raw == null) return false;
         // check in ifWeekdays
-        int rawWeekday = calculateRaw(defaultYear).getDayOfWeek().getValue();
+        int rawWeekday = raw.getDayOfWeek().getValue();
         for (List<Integer> ifWeekday : ifWeekdays) {
             if (ifWeekday.contains(rawWeekday)) {
                 return true;
@@ -377,6 +396,7 @@ public class Rule implements Comparable<Rule> {
      * @param originalRule the original rule string
      */
     public void setOriginalRule(String originalRule) {
+        checkNotFrozen();
         this.originalRule = originalRule;
     }
 
@@ -387,6 +407,7 @@ public class Rule implements Comparable<Rule> {
      * 
      */
     public void setRawDate(Date rawDate) {
+        checkNotFrozen();
         this.rawDate = rawDate;
     }
 
@@ -396,6 +417,7 @@ public class Rule implements Comparable<Rule> {
      * @param substituteCheck the substitute check mode of this {@link Rule}
      */
     public void setSubstituteCheck(boolean substituteCheck) {
+        checkNotFrozen();
         this.substituteCheck = substituteCheck;
     }
 
@@ -405,6 +427,7 @@ public class Rule implements Comparable<Rule> {
      * @param ruleNum the position of this {@link Rule} in the list of "days"
      */
     public void setRuleNum(int ruleNum) {
+        checkNotFrozen();
         if (ruleNum < 1 || ruleNum > 9) {
             throw new IllegalArgumentException("Rule number must be between 1 and 9");
         }
@@ -417,6 +440,7 @@ public class Rule implements Comparable<Rule> {
      * @param relatedRuleNum the related rule {@link Rule}'s number
      */
     public void setRelatedRuleNumber(int relatedRuleNum) {
+        checkNotFrozen();
         this.relatedRuleNum = relatedRuleNum;
     }
 
@@ -426,6 +450,7 @@ public class Rule implements Comparable<Rule> {
      * @param range the range (in minutes)
      */
     public void setRange(int range) {
+        checkNotFrozen();
         this.range = range;
     }
 
@@ -435,6 +460,7 @@ public class Rule implements Comparable<Rule> {
      * @param offset the offset (in minutes)
      */
     public void setOffset(int offset) {
+        checkNotFrozen();
         this.offset = offset;
     }
 
@@ -446,6 +472,7 @@ public class Rule implements Comparable<Rule> {
      * @param isAfter the offset direction (true if the offset is after, false
      */
     public void setOffset(int offset, boolean isAfter) {
+        checkNotFrozen();
         this.offset = offset;
         this.isAfter = isAfter;
     }
@@ -456,6 +483,7 @@ public class Rule implements Comparable<Rule> {
      * @param offsetWeekDay the weekday offset (from 1-7)
      */
     public void setOffsetWeekDay(int offsetWeekDay) {
+        checkNotFrozen();
         if (offsetWeekDay < 1 || offsetWeekDay > 7) {
             throw new IllegalArgumentException("offsetWeekDay must be between 1 and 7");
         }
@@ -470,6 +498,7 @@ public class Rule implements Comparable<Rule> {
      * @param offsetWeekDayNth the nth of that weekday (from 1-100)
      */
     public void setOffsetWeekDay(int offsetWeekDay, int offsetWeekDayNth) {
+        checkNotFrozen();
         setOffsetWeekDay(offsetWeekDay);
         setOffsetWeekDayNth(offsetWeekDayNth);
     }
@@ -484,6 +513,7 @@ public class Rule implements Comparable<Rule> {
      *      if it is before)
      */
     public void setOffsetWeekDay(int offsetWeekDay, int offsetWeekDayNth, boolean isAfter) {
+        checkNotFrozen();
         setOffsetWeekDay(offsetWeekDay, offsetWeekDayNth);
         setOffsetDirection(isAfter);
     }
@@ -494,6 +524,7 @@ public class Rule implements Comparable<Rule> {
      * @param offsetWeekDayNth the nth of the weekday offset (from 1-100)
      */
     public void setOffsetWeekDayNth(int offsetWeekDayNth) {
+        checkNotFrozen();
         if (offsetWeekDayNth < 0 || offsetWeekDayNth > 100) {
             throw new IllegalArgumentException("offsetWeekDayNth must be between 0 and 100");
         }
@@ -507,6 +538,7 @@ public class Rule implements Comparable<Rule> {
      *      is before
      */
     public void setOffsetDirection(boolean isAfter) {
+        checkNotFrozen();
         this.isAfter = isAfter;
     }
 
@@ -516,6 +548,7 @@ public class Rule implements Comparable<Rule> {
      * @param inEvenYear true if this {@link Rule} is enabled only in even year
      */
     public void setInEvenYearOnly(boolean inEvenYear) {
+        checkNotFrozen();
         this.inEvenYear = inEvenYear;
     }
 
@@ -525,6 +558,7 @@ public class Rule implements Comparable<Rule> {
      * @param inOddYear true if this {@link Rule} is enabled only in odd year
      */
     public void setInOddYearOnly(boolean inOddYear) {
+        checkNotFrozen();
         this.inOddYear = inOddYear;
     }
 
@@ -534,6 +568,7 @@ public class Rule implements Comparable<Rule> {
      * @param inLeapYear true if this {@link Rule} is enabled only in leap year
      */
     public void setInLeapYearOnly(boolean inLeapYear) {
+        checkNotFrozen();
         this.inLeapYear = inLeapYear;
     }
 
@@ -543,6 +578,7 @@ public class Rule implements Comparable<Rule> {
      * @param inNonLeapYear true if this {@link Rule} is enabled only in non-leap year
      */
     public void setInNonLeapYearOnly(boolean inNonLeapYear) {
+        checkNotFrozen();
         this.inNonLeapYear = inNonLeapYear;
     }
     /**
@@ -551,6 +587,7 @@ public class Rule implements Comparable<Rule> {
      * @param offsetWeekDay2 the weekday offset (from 1-7)
      */
     public void setOffsetWeekDay2(int offsetWeekDay2) {
+        checkNotFrozen();
         this.offsetWeekDay2 = offsetWeekDay2;
     }
 
@@ -560,6 +597,7 @@ public class Rule implements Comparable<Rule> {
      * @param offsetWeekDay2Nth the nth of the weekday offset (from 1-100)
      */
     public void setOffsetWeekDay2Nth(int offsetWeekDay2Nth) {
+        checkNotFrozen();
         this.offsetWeekDay2Nth = offsetWeekDay2Nth;
     }
 
@@ -570,6 +608,7 @@ public class Rule implements Comparable<Rule> {
      *      is before
      */
     public void setOffsetDirection2(boolean isAfter2) {
+        checkNotFrozen();
         this.isAfter2 = isAfter2;
     }
 
@@ -579,6 +618,7 @@ public class Rule implements Comparable<Rule> {
      * @param ifWeekdays the list of if weekday
      */
     public void setIfWeekdays(List<List<Integer>> ifWeekdays) {
+        checkNotFrozen();
         this.ifWeekdays = ifWeekdays;
     }
     
@@ -588,6 +628,7 @@ public class Rule implements Comparable<Rule> {
      * @param altTime the list of alternative time
      */
     public void setAlternateTime(List<Integer> altTime) {
+        checkNotFrozen();
         this.altTime = altTime;
     }
 
@@ -599,6 +640,7 @@ public class Rule implements Comparable<Rule> {
      * @param altWeekdays the list of alternative weekday
      */
     public void setAlternateWeekdays(List<List<Integer>> altWeekdays) {
+        checkNotFrozen();
         this.altWeekdays = altWeekdays;
     }
 
@@ -608,6 +650,7 @@ public class Rule implements Comparable<Rule> {
      * @param ifWeekdaysExtra the list of if weekday extra
      */
     public void setIfWeekdaysExtra(List<List<Integer>> ifWeekdaysExtra) {
+        checkNotFrozen();
         this.ifWeekdaysExtra = ifWeekdaysExtra;
     }
 
@@ -619,6 +662,7 @@ public class Rule implements Comparable<Rule> {
      * @param extraWeekdays the list of alternative weekday
      */
     public void setExtraWeekdays(List<List<Integer>> extraWeekdays) {
+        checkNotFrozen();
         this.extraWeekdays = extraWeekdays;
     }
 
@@ -628,6 +672,7 @@ public class Rule implements Comparable<Rule> {
      * @param enabledWeekdays the enabled weekdays list for this {@link Rule}
      */
     public void setEnabledWeekdays(List<Integer> enabledWeekdays) {
+        checkNotFrozen();
         this.enabledWeekdays = enabledWeekdays;
     }
 
@@ -637,6 +682,7 @@ public class Rule implements Comparable<Rule> {
      * @param disabledWeekdays the disabled weekdays list for this {@link Rule}
      */
     public void setDisabledWeekdays(List<Integer> disabledWeekdays) {
+        checkNotFrozen();
         this.disabledWeekdays = disabledWeekdays;
     }
 
@@ -647,6 +693,7 @@ public class Rule implements Comparable<Rule> {
      *      all positive integers
      */
     public void setYearIntervals(List<Integer> yearIntervals) {
+        checkNotFrozen();
         for (Integer yearInterval : yearIntervals) {
             if (yearInterval <= 0) {
                 throw new IllegalArgumentException("Year interval must be a positive integer");
@@ -661,6 +708,7 @@ public class Rule implements Comparable<Rule> {
      * @param yearStarts the year starts of the interval
      */
     public void setYearIntervalStarts(List<Integer> yearStarts) {
+        checkNotFrozen();
         this.yearStarts = yearStarts;
     }
 
@@ -670,6 +718,7 @@ public class Rule implements Comparable<Rule> {
      * @param enabledSince since time
      */
     public void setEnabledSince(LocalDate enabledSince) {
+        checkNotFrozen();
         this.enabledSince = enabledSince;
     }
 
@@ -679,6 +728,7 @@ public class Rule implements Comparable<Rule> {
      * @param enabledUntil prior to time
      */
     public void setEnabledUntil(LocalDate enabledUntil) {
+        checkNotFrozen();
         this.enabledUntil = enabledUntil;
     }
 
@@ -690,9 +740,99 @@ public class Rule implements Comparable<Rule> {
      *      Rule is enabled only if the date in this list is a public holiday
      */
     public void setEnabledIfIsPublicDateList(List<int[]> enabledIfIsPublicDate) {
+        checkNotFrozen();
         this.enabledIfIsPublicDate = enabledIfIsPublicDate;
     }
 
+    /**
+     * @return true if this {@link Rule} is frozen, see {@link #freeze()}
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Makes this {@link Rule} unmodifiable, so that it can be shared between
+     * holidays and threads. All the setters of a frozen {@link Rule} throw an
+     * {@link IllegalStateException}, and all of its lists become unmodifiable,
+     * as does the variant of a {@link HijraDate}, see
+     * {@link HijraDate#setVariant(HijraDate.Variant)}.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        ifWeekdays = unmodifiableNestedList(ifWeekdays);
+        altTime = unmodifiableList(altTime);
+        altWeekdays = unmodifiableNestedList(altWeekdays);
+        ifWeekdaysExtra = unmodifiableNestedList(ifWeekdaysExtra);
+        extraWeekdays = unmodifiableNestedList(extraWeekdays);
+        enabledWeekdays = unmodifiableList(enabledWeekdays);
+        disabledWeekdays = unmodifiableList(disabledWeekdays);
+        yearIntervals = unmodifiableList(yearIntervals);
+        yearStarts = unmodifiableList(yearStarts);
+        enabledIfIsPublicDate = unmodifiableList(enabledIfIsPublicDate);
+        if (rawDate instanceof HijraDate) {
+            ((HijraDate) rawDate).freeze();
+        }
+        frozen = true;
+    }
+
+    /**
+     * Compiles this {@link Rule} to a {@link CompiledRule}, which calculates
+     * its start without allocation. The compiled form of a frozen
+     * {@link Rule} is kept, so that it is only compiled once, while a
+     * modifiable {@link Rule} is compiled again on each call.
+     *
+     * @return the compiled form of this {@link Rule}
+     */
+    public CompiledRule compile() {
+        if (!frozen) {
+            return CompiledRule.compile(this);
+        }
+        CompiledRule result = compiled;
+        if (result == null) {
+            // compiling twice in a race gives equal results, no lock needed
+            result = CompiledRule.compile(this);
+            compiled = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if this {@link Rule} can have a start in a year without
+     * calculating its date, see {@link CompiledRule#isApplicable(int)}.
+     *
+     * @param defaultYear default Gregorian year
+     * @return false if this {@link Rule} is disabled in the year
+     */
+    public boolean isApplicable(int defaultYear) {
+        return compile().isApplicable(defaultYear);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Rule is frozen and can't be modified: " + originalRule);
+        }
+    }
+
+    @Nullable
+    private static <T> List<T> unmodifiableList(@Nullable List<T> list) {
+        return (list != null) ? Collections.unmodifiableList(list) : null;
+    }
+
+    @Nullable
+    private static List<List<Integer>> unmodifiableNestedList(@Nullable List<List<Integer>> list) {
+        if (list == null) {
+            return null;
+        }
+        List<List<Integer>> result = new ArrayList<>(list.size());
+        for (List<Integer> inner : list) {
+            result.add(unmodifiableList(inner));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
     /**
      * Shifts the input date by the {@link #offset} and {@link #offsetWeekDay},
      * if any.
@@ -906,13 +1046,75 @@ public class Rule implements Comparable<Rule> {
      */
     @Nullable
     public LocalDateTime calculate(int defaultYear) {
+        return evaluate(defaultYear).getStart();
+    }
+
+    /**
+     * Evaluates this {@link Rule} in a year, computing the start and end date
+     * and time, the extra holidays and the substitute flag all at once, from
+     * a single calculation of the {@link #rawDate}. The other calculate
+     * methods return a part of this result.
+     * <p>
+     * If the {@link Date} already have a year, it will be used. Otherwise,the
+     * default year will be used.
+     * <p>
+     * As a Hijri year is shorter than a Gregorian year, a {@link HijraDate}
+     * may occur twice in the default year, see
+     * {@link HijraDate#calculateDates(int)}: the occurrences in the default
+     * year other than the one of the {@link Date}, with their own extra
+     * holidays, are in the extra holidays.
+     *
+     * @param defaultYear default Gregorian year
+     * @return the occurrence of this {@link Rule} in the year, with the reason
+     *      why it's disabled if it is
+     */
+    public HolidayOccurrence evaluate(int defaultYear) {
         LocalDateTime raw = calculateRaw(defaultYear); // get raw date
+        HolidayOccurrence result = evaluate(defaultYear, raw);
+        if (!result.isEnabled() || !(rawDate instanceof HijraDate)) {
+            return result;
+        }
+        // a Hijri date may occur twice in a Gregorian year, the other
+        // occurrences in the year are extra holidays
+        List<LocalDate> others = ((HijraDate) rawDate).calculateOtherDates(defaultYear, raw.toLocalDate());
+        if (others.isEmpty()) {
+            return result;
+        }
+        List<LocalDateTime> extras = new ArrayList<>(result.getExtras());
+        for (LocalDate other : others) {
+            HolidayOccurrence occurrence = evaluate(defaultYear, other.atTime(raw.toLocalTime()));
+            if (occurrence.isEnabled()) {
+                extras.add(occurrence.getStart());
+                extras.addAll(occurrence.getExtras());
+            }
+        }
+        return new HolidayOccurrence(defaultYear, result.getStart(), result.getEnd(), extras, result.isSubstitute());
+    }
+
+    /**
+     * Evaluates this {@link Rule} from a raw date, see {@link #evaluate(int)}.
+     */
+    private HolidayOccurrence evaluate(int defaultYear, LocalDateTime raw) {
+        boolean substitute = isSubstitute(raw);
         LocalDateTime offsetShifted = offsetShift(raw); // apply offset
-        LocalDateTime ifCheck = checkIfWeekday(offsetShifted); // check if weekday
-        LocalDateTime yearCheck = checkYearRequirement(ifCheck); // check year requirement (even/odd/leap/non-leap year only)
-        LocalDateTime weekdayCheck = checkWeekdayRequirement(yearCheck); // check weekday requirement
-        LocalDateTime yearIntervalCheck = checkYearInterval(weekdayCheck);
-        return checkEnabled(yearIntervalCheck); // check year interval
+        LocalDateTime date = checkIfWeekday(offsetShifted); // check if weekday
+        if (date == null) {
+            return new HolidayOccurrence(defaultYear, substitute, HolidayOccurrence.DisabledReason.NO_DATE);
+        }
+        // each check returns the date untouched, or null if it's disabled
+        if (checkYearRequirement(date) == null) { // even/odd/leap/non-leap year only
+            return new HolidayOccurrence(defaultYear, substitute, HolidayOccurrence.DisabledReason.YEAR_TYPE);
+        }
+        if (checkWeekdayRequirement(date) == null) {
+            return new HolidayOccurrence(defaultYear, substitute, HolidayOccurrence.DisabledReason.WEEKDAY);
+        }
+        if (checkYearInterval(date) == null) {
+            return new HolidayOccurrence(defaultYear, substitute, HolidayOccurrence.DisabledReason.YEAR_INTERVAL);
+        }
+        if (checkEnabled(date) == null) {
+            return new HolidayOccurrence(defaultYear, substitute, HolidayOccurrence.DisabledReason.DATE_RANGE);
+        }
+        return new HolidayOccurrence(defaultYear, date, date.plusMinutes(range), calculateExtra(date.toLocalDate()), substitute);
     }
 
     /**
@@ -927,13 +1129,24 @@ public class Rule implements Comparable<Rule> {
      * 
      * @param defaultYear default Gregorian year
      * @return the extra holidays if the processed {@link #rawDate} satisfies
-     *      the above conditions
+     *      the above conditions, empty if this {@link Rule} is disabled in
+     *      the year
      */
     public List<LocalDateTime> calculateExtra(int defaultYear) {
+        return new ArrayList<>(evaluate(defaultYear).getExtras());
+    }
+
+    /**
+     * Calculates the extra holidays of the processed {@link #rawDate}, see
+     * {@link #calculateExtra(int)}.
+     *
+     * @param mainDate the processed date of this {@link Rule}
+     * @return the extra holidays
+     */
+    private List<LocalDateTime> calculateExtra(LocalDate mainDate) {
         List<LocalDateTime> result = new ArrayList<>();
 
         if (ifWeekdaysExtra != null) {
-            LocalDate mainDate = calculateDate(defaultYear);
             int weekdayValue = mainDate.getDayOfWeek().getValue();
             for (int i=0; i<ifWeekdaysExtra.size(); i++) {
                 List<Integer> ifWeekdayExtra = ifWeekdaysExtra.get(i);
@@ -962,10 +1175,12 @@ public class Rule implements Comparable<Rule> {
      * 
      * @param defaultYear default Gregorian year
      * @return the Gregorian date created only from the year, month, day,
-     *      with offset, if any
+     *      with offset, if any, or null if this {@link Rule} is disabled in
+     *      the year
      */
+    @Nullable
     public LocalDateTime calculateEnd(int defaultYear) {
-        return calculate(defaultYear).plusMinutes(range);
+        return evaluate(defaultYear).getEnd();
     }
     
     /**
@@ -982,9 +1197,33 @@ public class Rule implements Comparable<Rule> {
      * @return the Gregorian date created from the year, month, day stored in
      *      this date, with offset, if any
      */
+    @Nullable
     public LocalDate calculateDate(int defaultYear) {
-        LocalDateTime result = calculate(defaultYear);
-        return (result != null) ? calculate(defaultYear).toLocalDate() : null;
+        return evaluate(defaultYear).getDate();
+    }
+
+    /**
+     * Calculates the start Gregorian date of this {@link Rule} in all the
+     * years of a span, same as {@link #calculateDate(int)} in each year. The
+     * rule is compiled once for the span, see {@link #compile()}.
+     *
+     * @param fromYear the first year of the span
+     * @param toYear the last year of the span, inclusive
+     * @return the epoch days of the start of this {@link Rule}, by
+     *      year - fromYear, or {@link CompiledRule#NONE} in the years in which
+     *      this {@link Rule} is disabled
+     */
+    public long[] calculateRange(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("The first year must not be after the last year: " + fromYear + "-" + toYear);
+        }
+        CompiledRule compiledRule = compile();
+        long[] result = new long[toYear - fromYear + 1];
+        for (int i = 0; i < result.length; i++) {
+            long start = compiledRule.evaluate(fromYear + i);
+            result[i] = (start != CompiledRule.NONE) ? CompiledRule.epochDay(start) : CompiledRule.NONE;
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,74 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A cache of parsed {@link Rule}, keyed by the rule string. Each distinct rule
+ * string is parsed only once, and the resulting {@link Rule} is frozen (see
+ * {@link Rule#freeze()}) so that it can be shared by all the holidays that use
+ * the same rule string.
+ * <p>
+ * This class is thread-safe.
+ */
+public class RuleCache {
+    private final ConcurrentMap<String, Rule>   rules   = new ConcurrentHashMap<>();
+    private final AtomicInteger                 hits    = new AtomicInteger();
+    private final AtomicInteger                 misses  = new AtomicInteger();
+
+    /**
+     * Default constructor
+     */
+    public RuleCache() {
+        // empty
+    }
+
+    /**
+     * Gets the {@link Rule} of a rule string, parsing it if it's not in this
+     * cache yet.
+     *
+     * @param originalRule a rule string, from "days" of holidays.json
+     * @return the shared, frozen {@link Rule} of the rule string
+     * @throws ParseException if the rule string can't be parsed
+     */
+    public Rule get(String originalRule) throws ParseException {
+        Rule rule = rules.get(originalRule);
+        if (rule != null) {
+            hits.incrementAndGet();
+            return rule;
+        }
+        Rule parsed = HolidayParser.parseRule(originalRule);
+        parsed.setOriginalRule(originalRule);
+        parsed.freeze();
+        rule = rules.putIfAbsent(originalRule, parsed);
+        if (rule != null) {
+            // another thread parsed the same rule string first
+            hits.incrementAndGet();
+            return rule;
+        }
+        misses.incrementAndGet();
+        return parsed;
+    }
+
+    /**
+     * @return the count of lookups answered from this cache
+     */
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the count of lookups that needed the rule string to be parsed
+     */
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the count of distinct {@link Rule} in this cache
+     */
+    public int size() {
+        return rules.size();
+    }
+}
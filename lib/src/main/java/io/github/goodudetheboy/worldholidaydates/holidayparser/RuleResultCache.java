@@ -0,0 +1,354 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache of the {@link HolidayOccurrence} of {@link Rule#evaluate(int)},
+ * which holds the results of {@link Rule#calculate(int)},
+ * {@link Rule#calculateEnd(int)}, {@link Rule#calculateDate(int)} and
+ * {@link Rule#calculateExtra(int)}, keyed by the {@link Rule} and the year.
+ * All the results of a year are computed together on the first lookup, so
+ * that later lookups of the same rule and year don't run the calculation
+ * again.
+ * <p>
+ * The cache is split into stripes, each one guarded by its own lock, so that
+ * concurrent lookups of different rules rarely wait for each other. The
+ * calculation itself runs outside of the locks. Each stripe holds at most its
+ * share of the maximum size, and evicts its entries following the
+ * {@link EvictionPolicy}.
+ * <p>
+ * Only frozen rules (see {@link Rule#freeze()}), such as the ones of a
+ * {@link RuleCache}, should be cached, as the result of a modified rule would
+ * be stale. This class is thread-safe.
+ * <p>
+ * Example:
+ * <pre>
+ * RuleResultCache cache = new RuleResultCache(10_000, EvictionPolicy.LRU);
+ * LocalDate date = cache.getDate(holiday.getRule(), 2021);
+ * </pre>
+ */
+public class RuleResultCache {
+    /**
+     * The default maximum count of (rule, year) entries
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    /**
+     * The default count of stripes
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The order in which the entries are evicted once a stripe is full.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used entry
+         */
+        LRU,
+        /**
+         * Evicts the oldest entry, regardless of its use, so that lookups
+         * don't reorder the entries
+         */
+        FIFO
+    }
+
+    private final   Stripe[]        stripes;
+    private final   int             maximumSize;
+    private final   EvictionPolicy  evictionPolicy;
+    private final   LongAdder       hits        = new LongAdder();
+    private final   LongAdder       misses      = new LongAdder();
+    private final   LongAdder       evictions   = new LongAdder();
+
+    /**
+     * Creates a cache of {@link #DEFAULT_MAXIMUM_SIZE} entries, evicted in
+     * {@link EvictionPolicy#LRU} order.
+     */
+    public RuleResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Creates a cache with {@link #DEFAULT_CONCURRENCY_LEVEL} stripes.
+     *
+     * @param maximumSize the maximum count of (rule, year) entries
+     * @param evictionPolicy the order in which the entries are evicted
+     */
+    public RuleResultCache(int maximumSize, EvictionPolicy evictionPolicy) {
+        this(maximumSize, evictionPolicy, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize the maximum count of (rule, year) entries
+     * @param evictionPolicy the order in which the entries are evicted
+     * @param concurrencyLevel the count of stripes, rounded up to a power of
+     *      two, and at most the maximum size
+     */
+    public RuleResultCache(int maximumSize, EvictionPolicy evictionPolicy, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+        }
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("Eviction policy must not be null");
+        }
+        int stripeCount = 1;
+        while (stripeCount < Math.min(concurrencyLevel, maximumSize)) {
+            stripeCount <<= 1;
+        }
+        if (stripeCount > maximumSize) {
+            stripeCount >>= 1;
+        }
+        this.maximumSize = maximumSize;
+        this.evictionPolicy = evictionPolicy;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // spread the remainder over the first stripes
+            int capacity = maximumSize / stripeCount + ((i < maximumSize % stripeCount) ? 1 : 0);
+            stripes[i] = new Stripe(capacity, evictionPolicy == EvictionPolicy.LRU);
+        }
+    }
+
+    /**
+     * Same as {@link Rule#evaluate(int)}, from this cache.
+     *
+     * @param rule a frozen {@link Rule}
+     * @param year the Gregorian year
+     * @return the occurrence of the rule in the year
+     */
+    public HolidayOccurrence getOccurrence(Rule rule, int year) {
+        return get(rule, year);
+    }
+
+    /**
+     * Same as {@link Rule#calculate(int)}, from this cache.
+     *
+     * @param rule a frozen {@link Rule}
+     * @param year the Gregorian year
+     * @return the start date and time of the rule in the year, or null if the
+     *      rule is not enabled in that year
+     */
+    @Nullable
+    public LocalDateTime getStart(Rule rule, int year) {
+        return get(rule, year).getStart();
+    }
+
+    /**
+     * Same as {@link Rule#calculateEnd(int)}, from this cache.
+     *
+     * @param rule a frozen {@link Rule}
+     * @param year the Gregorian year
+     * @return the end date and time of the rule in the year, or null if the
+     *      rule is not enabled in that year
+     */
+    @Nullable
+    public LocalDateTime getEnd(Rule rule, int year) {
+        return get(rule, year).getEnd();
+    }
+
+    /**
+     * Same as {@link Rule#calculateDate(int)}, from this cache.
+     *
+     * @param rule a frozen {@link Rule}
+     * @param year the Gregorian year
+     * @return the start date of the rule in the year, or null if the rule is
+     *      not enabled in that year
+     */
+    @Nullable
+    public LocalDate getDate(Rule rule, int year) {
+        return get(rule, year).getDate();
+    }
+
+    /**
+     * Same as {@link Rule#calculateExtra(int)}, from this cache, but
+     * unmodifiable.
+     *
+     * @param rule a frozen {@link Rule}
+     * @param year the Gregorian year
+     * @return the unmodifiable list of the extra holidays of the rule in the
+     *      year
+     */
+    public List<LocalDateTime> getExtras(Rule rule, int year) {
+        return get(rule, year).getExtras();
+    }
+
+    private HolidayOccurrence get(Rule rule, int year) {
+        Key key = new Key(rule, year);
+        Stripe stripe = stripeOf(key);
+        HolidayOccurrence result = stripe.get(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        // calculated outside of the lock, another thread may calculate the
+        // same result at the same time, in which case the first one is kept
+        return stripe.putIfAbsent(key, rule.evaluate(year));
+    }
+
+    private Stripe stripeOf(Key key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * @return the count of lookups answered from this cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the count of lookups that needed a calculation
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the count of entries evicted to keep this cache in its maximum
+     *      size
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the ratio of lookups answered from this cache, 0 if there was no
+     *      lookup yet
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return the maximum count of (rule, year) entries
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * @return the count of stripes
+     */
+    public int getConcurrencyLevel() {
+        return stripes.length;
+    }
+
+    /**
+     * @return the current count of (rule, year) entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes all the entries, keeping the counters.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RuleResultCache[size=" + size() + ", maximumSize=" + maximumSize
+                + ", evictionPolicy=" + evictionPolicy + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * The key of an entry, the rule string identifies the {@link Rule}, see
+     * {@link Rule#equals(Object)}.
+     */
+    private static final class Key {
+        private final   Rule    rule;
+        private final   int     year;
+
+        Key(Rule rule, int year) {
+            this.rule = rule;
+            this.year = year;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return year == k.year && rule.equals(k.rule);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rule.hashCode() + year;
+        }
+    }
+
+    /**
+     * A part of the cache, a {@link LinkedHashMap} in access order for LRU,
+     * or in insertion order for FIFO, guarded by its own lock.
+     */
+    private final class Stripe {
+        private final   LinkedHashMap<Key, HolidayOccurrence>  entries;
+
+        Stripe(final int capacity, boolean accessOrder) {
+            this.entries = new LinkedHashMap<Key, HolidayOccurrence>(16, 0.75f, accessOrder) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, HolidayOccurrence> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized HolidayOccurrence get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized HolidayOccurrence putIfAbsent(Key key, HolidayOccurrence result) {
+            HolidayOccurrence existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(key, result);
+            return result;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A class to write a parsed {@link Rule}, with its raw {@link Date}, into a
+ * binary form and read it back, so that it doesn't have to be parsed by the
+ * {@link HolidayParser} again. All the fields of the {@link Rule} and of the
+ * subclasses of {@link Date} are written, and the rules that are read are
+ * frozen.
+ * <p>
+ * The values are written in big-endian order, the same order as the one of
+ * a {@link ByteBuffer} by default.
+ */
+public final class RuleSerializer {
+    // tags of the subclasses of Date
+    private static final byte NO_DATE       = -1;
+    private static final byte GREGORIAN     = 0;
+    private static final byte JULIAN        = 1;
+    private static final byte HEBREW        = 2;
+    private static final byte HIJRA         = 3;
+    private static final byte BENGALI       = 4;
+    private static final byte EAST_ASIAN    = 5;
+    private static final byte EASTER        = 6;
+    private static final byte EQUINOX       = 7;
+    private static final byte SOLSTICE      = 8;
+    private static final byte NTH           = 9;
+
+    private static final int  NULL_LENGTH   = -1;
+
+    private RuleSerializer() {
+        // utility class
+    }
+
+    /**
+     * Writes a {@link Rule} into a {@link DataOutput}.
+     *
+     * @param out the output to write into
+     * @param rule the {@link Rule} to write
+     * @throws IOException if the output can't be written
+     * @throws IllegalArgumentException if the raw {@link Date} of the rule is
+     *      of an unknown type
+     */
+    public static void write(DataOutput out, Rule rule) throws IOException {
+        writeString(out, rule.originalRule);
+        writeDate(out, rule.rawDate);
+        out.writeBoolean(rule.substituteCheck);
+        out.writeInt(rule.ruleNum);
+        out.writeInt(rule.relatedRuleNum);
+        out.writeInt(rule.range);
+        out.writeInt(rule.offset);
+        out.writeInt(rule.offsetWeekDay);
+        out.writeInt(rule.offsetWeekDayNth);
+        out.writeBoolean(rule.isAfter);
+        out.writeInt(rule.offsetWeekDay2);
+        out.writeInt(rule.offsetWeekDay2Nth);
+        out.writeBoolean(rule.isAfter2);
+        out.writeBoolean(rule.inEvenYear);
+        out.writeBoolean(rule.inOddYear);
+        out.writeBoolean(rule.inLeapYear);
+        out.writeBoolean(rule.inNonLeapYear);
+        writeNestedList(out, rule.ifWeekdays);
+        writeList(out, rule.altTime);
+        writeNestedList(out, rule.altWeekdays);
+        writeNestedList(out, rule.ifWeekdaysExtra);
+        writeNestedList(out, rule.extraWeekdays);
+        writeList(out, rule.enabledWeekdays);
+        writeList(out, rule.disabledWeekdays);
+        writeList(out, rule.yearIntervals);
+        writeList(out, rule.yearStarts);
+        writeLocalDate(out, rule.enabledSince);
+        writeLocalDate(out, rule.enabledUntil);
+        writeIntArrayList(out, rule.enabledIfIsPublicDate);
+    }
+
+    /**
+     * Reads a {@link Rule} written by {@link #write(DataOutput, Rule)} from
+     * the current position of a {@link ByteBuffer}. The returned
+     * {@link Rule} is frozen.
+     *
+     * @param in the buffer to read from
+     * @return the {@link Rule}
+     * @throws IllegalArgumentException if the buffer contains an unknown
+     *      type of {@link Date}
+     */
+    public static Rule read(ByteBuffer in) {
+        Rule rule = new Rule();
+        rule.originalRule = readString(in);
+        rule.rawDate = readDate(in);
+        rule.substituteCheck = readBoolean(in);
+        rule.ruleNum = in.getInt();
+        rule.relatedRuleNum = in.getInt();
+        rule.range = in.getInt();
+        rule.offset = in.getInt();
+        rule.offsetWeekDay = in.getInt();
+        rule.offsetWeekDayNth = in.getInt();
+        rule.isAfter = readBoolean(in);
+        rule.offsetWeekDay2 = in.getInt();
+        rule.offsetWeekDay2Nth = in.getInt();
+        rule.isAfter2 = readBoolean(in);
+        rule.inEvenYear = readBoolean(in);
+        rule.inOddYear = readBoolean(in);
+        rule.inLeapYear = readBoolean(in);
+        rule.inNonLeapYear = readBoolean(in);
+        rule.ifWeekdays = readNestedList(in);
+        rule.altTime = readList(in);
+        rule.altWeekdays = readNestedList(in);
+        rule.ifWeekdaysExtra = readNestedList(in);
+        rule.extraWeekdays = readNestedList(in);
+        rule.enabledWeekdays = readList(in);
+        rule.disabledWeekdays = readList(in);
+        rule.yearIntervals = readList(in);
+        rule.yearStarts = readList(in);
+        rule.enabledSince = readLocalDate(in);
+        rule.enabledUntil = readLocalDate(in);
+        rule.enabledIfIsPublicDate = readIntArrayList(in);
+        rule.freeze();
+        return rule;
+    }
+
+    private static void writeDate(DataOutput out, @Nullable Date date) throws IOException {
+        if (date == null) {
+            out.writeByte(NO_DATE);
+            return;
+        }
+        out.writeByte(tagOf(date));
+        out.writeInt(date.year);
+        out.writeInt(date.month);
+        out.writeInt(date.dayOfMonth);
+        out.writeInt(date.startTime);
+        writeString(out, date.timezone.getId());
+        if (date instanceof EastAsianDate) {
+            EastAsianDate d = (EastAsianDate) date;
+            writeString(out, (d.calType != null) ? d.calType.name() : null);
+            out.writeInt(d.cycle);
+            out.writeInt(d.yearOfCycle);
+            out.writeBoolean(d.isLeapMonth);
+            out.writeInt(d.solarTermTh);
+            out.writeInt(d.solarTermDay);
+        } else if (date instanceof EasterDate) {
+            EasterDate d = (EasterDate) date;
+            out.writeBoolean(d.isOrthodox);
+            out.writeInt(d.offset);
+        } else if (date instanceof NthDate) {
+            NthDate d = (NthDate) date;
+            out.writeInt(d.weekday);
+            out.writeInt(d.nth);
+            out.writeBoolean(d.isInMonth);
+        } else if (date instanceof HijraDate) {
+            writeString(out, ((HijraDate) date).variant.name());
+        } else if (date instanceof AstronomicalDate) {
+            writeString(out, ((AstronomicalDate) date).algorithm.name());
+        }
+    }
+
+    @Nullable
+    private static Date readDate(ByteBuffer in) {
+        byte tag = in.get();
+        if (tag == NO_DATE) {
+            return null;
+        }
+        Date date = newDate(tag);
+        date.year = in.getInt();
+        int month = in.getInt();
+        if (month != Date.UNDEFINED_NUM) {
+            // also sets the named month, the same way as the parser does
+            date.setMonth(month);
+        }
+        date.dayOfMonth = in.getInt();
+        date.startTime = in.getInt();
+        date.timezone = ZoneId.of(readString(in));
+        if (date instanceof EastAsianDate) {
+            EastAsianDate d = (EastAsianDate) date;
+            String calType = readString(in);
+            d.calType = (calType != null) ? EastAsianDate.CalendarType.valueOf(calType) : null;
+            d.cycle = in.getInt();
+            d.yearOfCycle = in.getInt();
+            d.isLeapMonth = readBoolean(in);
+            d.solarTermTh = in.getInt();
+            d.solarTermDay = in.getInt();
+        } else if (date instanceof EasterDate) {
+            EasterDate d = (EasterDate) date;
+            d.isOrthodox = readBoolean(in);
+            d.offset = in.getInt();
+        } else if (date instanceof NthDate) {
+            NthDate d = (NthDate) date;
+            d.weekday = in.getInt();
+            d.nth = in.getInt();
+            d.isInMonth = readBoolean(in);
+        } else if (date instanceof HijraDate) {
+            ((HijraDate) date).variant = HijraDate.Variant.valueOf(readString(in));
+        } else if (date instanceof AstronomicalDate) {
+            ((AstronomicalDate) date).algorithm = AstronomicalDate.Algorithm.valueOf(readString(in));
+        }
+        return date;
+    }
+
+    private static byte tagOf(Date date) {
+        if (date instanceof EquinoxDate) {
+            return EQUINOX;
+        } else if (date instanceof SolsticeDate) {
+            return SOLSTICE;
+        } else if (date instanceof NthDate) {
+            return NTH;
+        } else if (date instanceof GregorianDate) {
+            return GREGORIAN;
+        } else if (date instanceof JulianCalDate) {
+            return JULIAN;
+        } else if (date instanceof HebrewDate) {
+            return HEBREW;
+        } else if (date instanceof HijraDate) {
+            return HIJRA;
+        } else if (date instanceof BengaliDate) {
+            return BENGALI;
+        } else if (date instanceof EastAsianDate) {
+            return EAST_ASIAN;
+        } else if (date instanceof EasterDate) {
+            return EASTER;
+        }
+        throw new IllegalArgumentException("Unknown type of Date: " + date.getClass());
+    }
+
+    private static Date newDate(byte tag) {
+        switch (tag) {
+            case GREGORIAN:     return new GregorianDate();
+            case JULIAN:        return new JulianCalDate();
+            case HEBREW:        return new HebrewDate();
+            case HIJRA:         return new HijraDate();
+            case BENGALI:       return new BengaliDate();
+            case EAST_ASIAN:    return new EastAsianDate();
+            case EASTER:        return new EasterDate();
+            case EQUINOX:       return new EquinoxDate();
+            case SOLSTICE:      return new SolsticeDate();
+            case NTH:           return new NthDate();
+            default:
+                throw new IllegalArgumentException("Unknown tag of Date: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutput out, @Nullable String s) throws IOException {
+        if (s == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    private static void writeList(DataOutput out, @Nullable List<Integer> list) throws IOException {
+        if (list == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(list.size());
+        for (Integer i : list) {
+            // the elements can be null, e.g. in the alternate times
+            out.writeBoolean(i != null);
+            if (i != null) {
+                out.writeInt(i);
+            }
+        }
+    }
+
+    @Nullable
+    private static List<Integer> readList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add((readBoolean(in)) ? Integer.valueOf(in.getInt()) : null);
+        }
+        return list;
+    }
+
+    private static void writeNestedList(DataOutput out, @Nullable List<List<Integer>> list) throws IOException {
+        if (list == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(list.size());
+        for (List<Integer> l : list) {
+            writeList(out, l);
+        }
+    }
+
+    @Nullable
+    private static List<List<Integer>> readNestedList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        List<List<Integer>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readList(in));
+        }
+        return list;
+    }
+
+    private static void writeIntArrayList(DataOutput out, @Nullable List<int[]> list) throws IOException {
+        if (list == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(list.size());
+        for (int[] array : list) {
+            out.writeInt(array.length);
+            for (int i : array) {
+                out.writeInt(i);
+            }
+        }
+    }
+
+    @Nullable
+    private static List<int[]> readIntArrayList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        List<int[]> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int[] array = new int[in.getInt()];
+            for (int j = 0; j < array.length; j++) {
+                array[j] = in.getInt();
+            }
+            list.add(array);
+        }
+        return list;
+    }
+
+    private static void writeLocalDate(DataOutput out, @Nullable LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    @Nullable
+    private static LocalDate readLocalDate(ByteBuffer in) {
+        return (readBoolean(in)) ? LocalDate.ofEpochDay(in.getLong()) : null;
+    }
+}
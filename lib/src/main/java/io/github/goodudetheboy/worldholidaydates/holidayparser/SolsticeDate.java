@@ -28,12 +28,6 @@ public class SolsticeDate extends AstronomicalDate {
         return month == 6 || month == 12;
     }
 
-    @Override
-    protected ZonedDateTime calculateAstronomicalDate(int defaultYear) {
-        int yearToUse = (year != UNDEFINED_NUM) ? year : defaultYear;
-        return calculateSolsticeDate(month, yearToUse);
-    }
-    
     @Override
     public String toNamedString() {
         StringBuilder b = new StringBuilder();
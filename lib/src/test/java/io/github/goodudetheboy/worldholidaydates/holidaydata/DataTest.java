@@ -1,19 +1,51 @@
 package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
+import io.github.goodudetheboy.worldholidaydates.Utils;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayOccurrence;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HolidayParseException;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.Rule;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.RuleCache;
+import io.github.goodudetheboy.worldholidaydates.holidayparser.UnitTest;
+
 public class DataTest {
     @Test
     public void dataJsonParseTest() {
@@ -21,6 +53,973 @@ public class DataTest {
         assertEquals(168, data.getHolidays().size());
     }
 
+    @Test
+    public void streamingReaderTest() {
+        HolidayData expected = HolidayData.initializeDataFromTree();
+        HolidayData actual = HolidayData.initializeData();
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getLicense(), actual.getLicense());
+        assertSameCountries(expected.getHolidays(), actual.getHolidays());
+    }
+
+    @Test
+    public void ruleCacheTest() {
+        HolidayData data = HolidayData.initializeData();
+        LoadStatistics stats = data.getLoadStatistics();
+        // 3289 holidays, with 1073 distinct rule strings
+        assertEquals(1073, stats.getRuleCacheMisses());
+        assertEquals(3289 - 1073, stats.getRuleCacheHits());
+
+        Holiday adNewYear = data.getCountry("AD").getDays().get(0);
+        Holiday atNewYear = data.getCountry("AT").getDays().get(0);
+        assertEquals("01-01", adNewYear.getRule().getOriginalRule());
+        assertSame(adNewYear.getRule(), atNewYear.getRule());
+    }
+
+    @Test
+    public void lazyLoadTest() {
+        HolidayData data = new HolidayDataLoader().setLazy(true).load();
+        LazyCountryMap countries = (LazyCountryMap) data.getHolidays();
+        assertEquals(168, countries.size());
+        assertTrue(countries.containsKey("US"));
+        assertEquals(0, countries.loadedCount());
+        assertEquals(0, data.getLoadStatistics().getRuleCacheMisses());
+
+        Country us = data.getCountry("US");
+        assertTrue(countries.isLoaded("US"));
+        assertFalse(countries.isLoaded("VN"));
+        assertEquals(1, countries.loadedCount());
+        assertNotNull(us.getSubRegion("NY"));
+        assertSame(us, data.getCountry("US"));
+
+        assertSameCountries(HolidayData.initializeData().getHolidays(), data.getHolidays());
+        assertEquals(168, countries.loadedCount());
+    }
+
+    @Test
+    public void deferredRuleParsingTest() {
+        HolidayData data = new HolidayDataLoader().setDeferRuleParsing(true).load();
+        assertEquals(0, data.getLoadStatistics().getRuleCacheMisses());
+        Holiday newYear = data.getCountry("AT").getDays().get(0);
+        assertFalse(newYear.isRuleParsed());
+        assertEquals("01-01", newYear.getOriginalRule());
+        assertEquals(LocalDate.of(2021, 1, 1), newYear.calculateDate(2021));
+        assertTrue(newYear.isRuleParsed());
+        // the rule is still shared with the other holidays of the same string
+        assertSame(newYear.getRule(), data.getCountry("AD").getDays().get(0).getRule());
+
+        assertTrue(data.validateRules().isEmpty());
+        assertSameCountries(HolidayData.initializeData().getHolidays(), data.getHolidays());
+    }
+
+    @Test
+    public void deferredRuleParsingErrorTest() {
+        RuleCache ruleCache = new RuleCache();
+        Holiday valid = new Holiday();
+        valid.setDeferredRule("12-25", ruleCache);
+        Holiday invalid = new Holiday();
+        invalid.setDeferredRule("not a rule", ruleCache);
+        List<Holiday> days = new ArrayList<>();
+        days.add(valid);
+        days.add(invalid);
+        Country country = new Country();
+        country.setDays(days);
+        Map<String, Country> countries = new LinkedHashMap<>();
+        countries.put("XX", country);
+        HolidayData data = new HolidayData();
+        data.setHolidays(countries);
+
+        try {
+            invalid.calculate(2021);
+            fail("Invalid deferred rule should throw on first calculation");
+        } catch (HolidayParseException e) {
+            assertFalse(invalid.isRuleParsed());
+        }
+        Map<String, HolidayParseException> errors = data.validateRules();
+        assertEquals(1, errors.size());
+        assertTrue(errors.containsKey("not a rule"));
+        assertTrue(valid.isRuleParsed());
+    }
+
+    @Test
+    public void parallelLoadTest() {
+        HolidayData expected = HolidayData.initializeData();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HolidayData actual = new HolidayDataLoader().setExecutor(executor).load();
+            assertEquals(expected.getVersion(), actual.getVersion());
+            assertSameCountries(expected.getHolidays(), actual.getHolidays());
+            assertEquals(1073, actual.getLoadStatistics().getRuleCacheMisses());
+        } finally {
+            executor.shutdown();
+        }
+        HolidayData common = new HolidayDataLoader().setExecutor(ForkJoinPool.commonPool()).load();
+        assertSameCountries(expected.getHolidays(), common.getHolidays());
+    }
+
+    @Test
+    public void sharedInstanceTest() throws Exception {
+        HolidayData.resetSharedInstance();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<HolidayData>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(HolidayData::getSharedInstance));
+            }
+            HolidayData shared = HolidayData.getSharedInstance();
+            for (Future<HolidayData> result : results) {
+                assertSame(shared, result.get());
+            }
+            assertTrue(shared.isFrozen());
+            assertSameCountries(HolidayData.initializeData().getHolidays(), shared.getHolidays());
+
+            HolidayData.resetSharedInstance();
+            HolidayData reloaded = HolidayData.getSharedInstance();
+            assertNotSame(shared, reloaded);
+            assertSame(reloaded, HolidayData.getSharedInstance());
+        } finally {
+            executor.shutdown();
+            HolidayData.resetSharedInstance();
+        }
+    }
+
+    @Test
+    public void frozenDataTest() {
+        HolidayData data = HolidayData.initializeData();
+        data.freeze();
+        Country us = data.getCountry("US");
+        Holiday newYear = us.getDays().get(0);
+        assertTrue(us.isFrozen());
+        assertTrue(us.getSubRegion("CA").isFrozen());
+        assertTrue(newYear.isFrozen());
+        assertFrozen(() -> data.setVersion("1"));
+        assertFrozen(() -> data.getHolidays().remove("US"));
+        assertFrozen(() -> us.setName("United States"));
+        assertFrozen(() -> us.getDays().clear());
+        assertFrozen(() -> us.getStates().remove("CA"));
+        assertFrozen(() -> newYear.setType("observance"));
+        Holiday tet = data.getCountry("VN").getDays().get(1);
+        assertFrozen(() -> tet.getName().put("xx", "x"));
+        // arrays are returned as copies
+        us.getLangs()[0] = "xx";
+        assertEquals("en-us", us.getLangs()[0]);
+    }
+
+    private static void assertFrozen(Runnable modification) {
+        try {
+            modification.run();
+            fail("Frozen data should not be modifiable");
+        } catch (IllegalStateException | UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void snapshotTest() throws IOException {
+        byte[] json = Utils.readFileFromResourceAsBytes(HolidayData.HOLIDAYS_FILE);
+        HolidayData expected = new HolidayDataReader().read(new ByteArrayInputStream(json));
+        Path file = Files.createTempFile("holidays", ".snapshot");
+        file.toFile().deleteOnExit();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            HolidayDataSnapshot.write(expected, HolidayDataSnapshot.checksum(json), out);
+        }
+
+        HolidayData actual = HolidayDataSnapshot.read(HolidayDataSnapshot.map(file), HolidayDataSnapshot.checksum(json));
+        assertNotNull(actual);
+        assertTrue(actual.getLoadStatistics().isFromSnapshot());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getLicense(), actual.getLicense());
+        assertSameCountries(expected.getHolidays(), actual.getHolidays());
+        // all of the fields of the rules are kept, checked over a range of years
+        Map<String, Rule> expectedRules = collectRules(expected.getHolidays(), new LinkedHashMap<>());
+        Map<String, Rule> actualRules = collectRules(actual.getHolidays(), new LinkedHashMap<>());
+        assertEquals(expectedRules.keySet(), actualRules.keySet());
+        for (Map.Entry<String, Rule> entry : expectedRules.entrySet()) {
+            UnitTest.assertSameResults(entry.getValue(), actualRules.get(entry.getKey()), 2000, 2030);
+        }
+    }
+
+    @Test
+    public void snapshotMismatchTest() throws IOException {
+        byte[] json = Utils.readFileFromResourceAsBytes(HolidayData.HOLIDAYS_FILE);
+        HolidayData data = new HolidayDataReader().read(new ByteArrayInputStream(json));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HolidayDataSnapshot.write(data, HolidayDataSnapshot.checksum(json), out);
+        byte[] snapshot = out.toByteArray();
+
+        // generated from another holidays.json
+        assertNull(HolidayDataSnapshot.read(ByteBuffer.wrap(snapshot), HolidayDataSnapshot.checksum(json) + 1));
+        // corrupted payload
+        byte[] corrupted = snapshot.clone();
+        corrupted[corrupted.length / 2] ^= 1;
+        assertNull(HolidayDataSnapshot.read(ByteBuffer.wrap(corrupted), HolidayDataSnapshot.checksum(json)));
+        // truncated
+        assertNull(HolidayDataSnapshot.read(ByteBuffer.wrap(snapshot, 0, 100), HolidayDataSnapshot.checksum(json)));
+        assertNotNull(HolidayDataSnapshot.read(ByteBuffer.wrap(snapshot), HolidayDataSnapshot.checksum(json)));
+    }
+
+    @Test
+    public void snapshotLoaderTest() {
+        // holidays.snapshot is generated by the generateHolidaySnapshot task
+        HolidayData data = new HolidayDataLoader().setSnapshot(true).load();
+        assertTrue(data.getLoadStatistics().isFromSnapshot());
+        assertSameCountries(HolidayData.initializeData().getHolidays(), data.getHolidays());
+    }
+
+    @Test
+    public void loadStatisticsTest() throws IOException {
+        byte[] json = Utils.readFileFromResourceAsBytes(HolidayData.HOLIDAYS_FILE);
+        final List<LoadStatistics> notified = new ArrayList<>();
+        HolidayData data = new HolidayDataLoader()
+                                .setLoadListener(notified::add)
+                                .load();
+        LoadStatistics statistics = data.getLoadStatistics();
+        assertEquals(1, notified.size());
+        assertSame(statistics, notified.get(0));
+        assertTrue(statistics.isDetailed());
+        assertEquals(168, statistics.getCountryCount());
+        assertEquals(3289, statistics.getHolidayCount());
+        assertEquals(1073, statistics.getRuleCount());
+        assertTrue(statistics.getSubdivisionCount() > 0);
+        assertEquals(0, statistics.getParseFailures());
+        assertEquals(json.length, statistics.getBytesRead());
+        assertTrue(statistics.getJsonParseNanos() > 0);
+        assertTrue(statistics.getRuleParseNanos() > 0);
+        assertTrue(statistics.getModelBuildNanos() > 0);
+        // the phases of a sequential load add up to the whole load
+        assertEquals(statistics.getTotalNanos(),
+                        statistics.getResourceReadNanos() + statistics.getJsonParseNanos()
+                        + statistics.getRuleParseNanos() + statistics.getModelBuildNanos());
+
+        LoadStatistics disabled = new HolidayDataLoader().load().getLoadStatistics();
+        assertFalse(disabled.isDetailed());
+        assertEquals(0, disabled.getBytesRead());
+        assertEquals(0, disabled.getCountryCount());
+        assertEquals(1073, disabled.getRuleCacheMisses());
+
+        LoadStatistics snapshot = new HolidayDataLoader()
+                                        .setSnapshot(true)
+                                        .setStatisticsEnabled(true)
+                                        .load()
+                                        .getLoadStatistics();
+        assertTrue(snapshot.isFromSnapshot());
+        assertEquals(0, snapshot.getJsonParseNanos());
+        assertTrue(snapshot.getModelBuildNanos() > 0);
+        assertEquals(3289, snapshot.getHolidayCount());
+        assertEquals(statistics.getSubdivisionCount(), snapshot.getSubdivisionCount());
+
+        LoadStatistics lazy = new HolidayDataLoader()
+                                    .setLazy(true)
+                                    .setStatisticsEnabled(true)
+                                    .load()
+                                    .getLoadStatistics();
+        assertEquals(168, lazy.getCountryCount());
+        assertEquals(0, lazy.getHolidayCount());
+    }
+
+    @Test
+    public void loadStatisticsFailureTest() {
+        String json = "{ \"holidays\": { \"XX\": { \"days\": {"
+                        + " \"12-25\": { \"_name\": \"Christmas\" },"
+                        + " \"not a rule\": { \"_name\": \"Invalid\" } } } } }";
+        LoadRecorder recorder = new LoadRecorder();
+        HolidayDataReader reader = new HolidayDataReader();
+        reader.setLoadRecorder(recorder);
+        try {
+            reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            fail("Invalid rule should fail the load");
+        } catch (IOException | HolidayInitializationException e) {
+            LoadStatistics statistics = new LoadStatistics();
+            recorder.fill(statistics, null);
+            assertTrue(statistics.isDetailed());
+            assertEquals(1, statistics.getParseFailures());
+            assertTrue(statistics.getBytesRead() > 0);
+        }
+    }
+
+    @Test
+    public void filteredLoadTest() {
+        HolidayDataLoader loader = new HolidayDataLoader()
+                                        .setCountries("US", "DE-BY")
+                                        .setTypes("public", "bank")
+                                        .setLanguages("en", "de");
+        HolidayData data = loader.load();
+        HolidayData full = HolidayData.initializeData();
+
+        assertEquals(2, data.getHolidays().size());
+        Country us = data.getCountry("US");
+        Country germany = data.getCountry("DE");
+        assertEquals(full.getCountry("US").getStates().keySet(), us.getStates().keySet());
+        assertEquals(1, germany.getStates().size());
+        assertNotNull(germany.getStates().get("BY"));
+        assertFilteredDays(null, full.getCountry("US").getDays(), us.getDays(), loader.getFilter());
+        assertFilteredDays(full.getCountry("DE").getDays(), full.getCountry("DE").getStates().get("BY").getDays(),
+                            germany.getStates().get("BY").getDays(), loader.getFilter());
+        assertEquals(full.getCountry("DE").getNames().get("de"), germany.getNames().get("de"));
+        assertNull(germany.getNames().get("fr"));
+
+        // the lazy and parallel loads select the same countries
+        HolidayData lazy = loader.setLazy(true).load();
+        assertEquals(data.getHolidays().keySet(), lazy.getHolidays().keySet());
+        assertEquals(1, lazy.getCountry("DE").getStates().size());
+        HolidayData parallel = loader.setLazy(false).setExecutor(ForkJoinPool.commonPool()).load();
+        assertSameCountries(data.getHolidays(), parallel.getHolidays());
+
+        // a holiday of a subdivision without type has the one of the holiday
+        // it's merged over
+        HolidayDataLoader publicOnly = new HolidayDataLoader().setCountries("BE", "US-CO").setTypes("public");
+        for (HolidayData d : new HolidayData[]{ publicOnly.load(), publicOnly.setLazy(true).load() }) {
+            assertFalse(hasRule(d.getCountry("BE").getDays(), "11-15"));
+            assertFalse(hasRule(d.getCountry("BE").getSubRegion("DE").getDays(), "11-15"));
+            assertFalse(hasRule(d.getResolvedRegion("BE-DE").getDays(), "11-15"));
+            assertFalse(hasRule(d.getCountry("US").getSubRegion("CO").getDays(), "2nd monday in October"));
+            assertFalse(hasRule(d.getResolvedRegion("US-CO").getDays(), "2nd monday in October"));
+            assertTrue(hasRule(d.getCountry("US").getDays(), "2nd monday in October"));
+        }
+    }
+
+    private static boolean hasRule(List<Holiday> days, String rule) {
+        for (Holiday h : days) {
+            if (rule.equals(h.getOriginalRule())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertFilteredDays(List<Holiday> parents, List<Holiday> all, List<Holiday> filtered, HolidayFilter filter) {
+        Map<String, String> parentTypes = new LinkedHashMap<>();
+        if (parents != null) {
+            for (Holiday h : parents) {
+                parentTypes.put(h.getOriginalRule(), h.getType());
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        for (Holiday h : all) {
+            String type = (h.getType() != null) ? h.getType() : parentTypes.get(h.getOriginalRule());
+            if (filter.includesType(type)) {
+                expected.add(h.getOriginalRule());
+            }
+        }
+        List<String> actual = new ArrayList<>();
+        for (Holiday h : filtered) {
+            actual.add(h.getOriginalRule());
+            if (h.getName() != null) {
+                for (String lang : h.getName().keySet()) {
+                    assertTrue(lang, filter.includesLanguage(lang));
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    static Map<String, Rule> collectRules(Map<String, Country> countries, Map<String, Rule> rules) {
+        if (countries == null) {
+            return rules;
+        }
+        for (Country c : countries.values()) {
+            if (c.getDays() != null) {
+                for (Holiday h : c.getDays()) {
+                    rules.put(h.getOriginalRule(), h.getRule());
+                }
+            }
+            collectRules(c.getStates(), rules);
+            collectRules(c.getRegions(), rules);
+        }
+        return rules;
+    }
+
+    @Test
+    public void lazyLoadConcurrentTest() throws Exception {
+        final HolidayData data = new HolidayDataLoader().setLazy(true).load();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Country>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> data.getCountry("DE")));
+            }
+            Country de = results.get(0).get();
+            for (Future<Country> result : results) {
+                assertSame(de, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static void assertSameCountries(Map<String, Country> expected, Map<String, Country> actual) {
+        if (expected == null) {
+            assertEquals(null, actual);
+            return;
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        for (Map.Entry<String, Country> entry : expected.entrySet()) {
+            assertSameCountry(entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    static void assertSameCountry(Country expected, Country actual) {
+        assertEquals(expected.getNames(), actual.getNames());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDayoff(), actual.getDayoff());
+        assertArrayEquals(expected.getLangs(), actual.getLangs());
+        assertArrayEquals(expected.getZones(), actual.getZones());
+        assertArrayEquals(expected.getReferenceDays(), actual.getReferenceDays());
+        assertSameDays(expected.getDays(), actual.getDays());
+        assertArrayEquals(expected.getRemovedDays(), actual.getRemovedDays());
+        assertSameCountries(expected.getStates(), actual.getStates());
+        assertSameCountries(expected.getRegions(), actual.getRegions());
+    }
+
+    static void assertSameDays(List<Holiday> expected, List<Holiday> actual) {
+        if (expected == null) {
+            assertEquals(null, actual);
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Holiday e = expected.get(i);
+            Holiday a = actual.get(i);
+            assertEquals(e.getRule().getOriginalRule(), a.getRule().getOriginalRule());
+            assertEquals(e.calculate(2021), a.calculate(2021));
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getRefName(), a.getRefName());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getNote(), a.getNote());
+            assertEquals(e.getSubstitute(), a.getSubstitute());
+            assertArrayEquals(e.getDisable(), a.getDisable());
+            assertArrayEquals(e.getEnable(), a.getEnable());
+        }
+    }
+
+    @Test
+    public void holidaysRangeTest() {
+        HolidayData data = HolidayData.initializeData();
+        List<Country> countries = new ArrayList<>();
+        for (Country c : data.getHolidays().values()) {
+            countries.add(c);
+            if (c.getStates() != null) {
+                countries.addAll(c.getStates().values());
+            }
+            if (c.getRegions() != null) {
+                countries.addAll(c.getRegions().values());
+            }
+        }
+        for (Country c : countries) {
+            if (c.getDays() == null) {
+                assertEquals(0, c.getHolidays(1950, 2100).size());
+                continue;
+            }
+            HolidayDates dates = c.getHolidays(1950, 2100);
+            assertEquals(1950, dates.getFromYear());
+            assertEquals(0, dates.getYearStart(1950));
+            assertEquals(dates.size(), dates.getYearEnd(2100));
+            for (int year = 1950; year <= 2100; year++) {
+                // the start and the extra holidays of each holiday, the start
+                // being the one of getHolidayDatesList
+                List<LocalDate> starts = c.getHolidayDatesList(year);
+                int index = dates.getYearStart(year);
+                for (int i = 0; i < starts.size(); i++) {
+                    Holiday holiday = c.getDays().get(i);
+                    HolidayOccurrence occurrence = holiday.evaluate(year);
+                    assertEquals(starts.get(i), occurrence.getDate());
+                    if (starts.get(i) == null) {
+                        continue;
+                    }
+                    List<LocalDate> expected = new ArrayList<>();
+                    expected.add(occurrence.getDate());
+                    for (LocalDateTime extra : occurrence.getExtras()) {
+                        expected.add(extra.toLocalDate());
+                    }
+                    for (LocalDate date : expected) {
+                        assertEquals(c.getName() + " " + year, i, dates.getHolidayIndex(index));
+                        assertEquals(c.getName() + " " + year, date, dates.getDate(index));
+                        assertSame(holiday, dates.getHoliday(index));
+                        index++;
+                    }
+                }
+                assertEquals(dates.getYearEnd(year), index);
+            }
+        }
+
+        // the enabled dates of a year are extra holidays, at the time and for
+        // the range of the rule
+        Country c = new Country();
+        Holiday h = new Holiday();
+        try {
+            h.setRule(UnitTest.parse("2019-06-01 10:00 PT2H"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+        h.setEnable(new String[]{ "2020-03-02", "2020-09-07" });
+        h.setDisable(new String[]{ "2019-06-01" });
+        c.setDays(Arrays.asList(h));
+        HolidayOccurrence enabled = h.evaluate(2020);
+        assertEquals(LocalDateTime.parse("2020-03-02T10:00"), enabled.getStart());
+        assertEquals(LocalDateTime.parse("2020-03-02T12:00"), enabled.getEnd());
+        assertEquals(Arrays.asList(LocalDateTime.parse("2020-09-07T10:00")), enabled.getExtras());
+        assertEquals(Arrays.asList(LocalDate.parse("2020-03-02")), c.getHolidayDatesList(2020));
+        HolidayDates both = c.getHolidays(2019, 2020);
+        assertEquals(2, both.size());
+        assertEquals(LocalDate.parse("2020-03-02"), both.getDate(0));
+        assertEquals(LocalDate.parse("2020-09-07"), both.getDate(1));
+        assertFalse(h.evaluate(2019).isEnabled());
+
+        // Eid al-Fitr was in January and December 2000
+        List<LocalDate> eid = new ArrayList<>();
+        HolidayDates al = data.getCountry("AL").getHolidays(2000, 2000);
+        for (int i = 0; i < al.size(); i++) {
+            if (al.getHoliday(i).getOriginalRule().equals("1 Shawwal")) {
+                eid.add(al.getDate(i));
+            }
+        }
+        assertEquals(Arrays.asList(LocalDate.parse("2000-12-27"), LocalDate.parse("2000-01-08")), eid);
+        HolidayCalendar calendar = new HolidayCalendar(data);
+        assertTrue(calendar.isHoliday("AL", LocalDate.parse("2000-01-08")));
+        assertTrue(calendar.isHoliday("AL", LocalDate.parse("2000-12-27")));
+        HolidayIndex index = new HolidayIndex(calendar);
+        assertEquals(LocalDateTime.parse("2000-01-08T00:00"), index.nextHoliday("AL", LocalDateTime.parse("2000-01-07T00:00")).getStart());
+
+        Holiday newYear = data.getCountry("US").getDays().get(0);
+        long[] days = newYear.calculateRange(2020, 2022);
+        assertEquals(3, days.length);
+        assertEquals(newYear.calculateDate(2021).toEpochDay(), days[1]);
+        try {
+            data.getCountry("US").getHolidays(2022, 2020);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void applicabilityTest() {
+        HolidayData data = HolidayData.initializeData();
+
+        // Marine Day moved for the Olympics, in 2020 and 2021 only
+        Country jp = data.getCountry("JP");
+        Holiday marineDay = null;
+        for (Holiday h : jp.getDays()) {
+            if ("3rd monday in July".equals(h.getOriginalRule())) {
+                marineDay = h;
+            }
+        }
+        assertNotNull(marineDay);
+        assertEquals(LocalDate.parse("2019-07-15"), marineDay.calculateDate(2019));
+        assertEquals(LocalDate.parse("2020-07-23"), marineDay.calculateDate(2020));
+        assertEquals(LocalDate.parse("2021-07-22"), marineDay.calculateDate(2021));
+        assertEquals(LocalDate.parse("2022-07-18"), marineDay.calculateDate(2022));
+        assertEquals(LocalDate.parse("2020-07-23").atStartOfDay(), marineDay.calculate(2020));
+        long[] range = marineDay.calculateRange(2019, 2022);
+        assertEquals(LocalDate.parse("2020-07-23").toEpochDay(), range[1]);
+        assertEquals(LocalDate.parse("2022-07-18").toEpochDay(), range[3]);
+        HolidayOccurrence moved = marineDay.evaluate(2021);
+        assertTrue(moved.isEnabled());
+        assertEquals(LocalDate.parse("2021-07-22"), moved.getDate());
+        assertEquals(LocalDateTime.parse("2021-07-23T00:00"), moved.getEnd());
+        assertEquals(LocalDate.parse("2021-07-19"), marineDay.getRule().evaluate(2021).getDate());
+        for (Holiday h : jp.getDays()) {
+            if ("substitutes 08-11 and if sunday then next monday".equals(h.getOriginalRule())) {
+                assertEquals(HolidayOccurrence.DisabledReason.DISABLED_DATE, h.evaluate(2021).getDisabledReason());
+                assertNull(h.calculate(2021));
+                assertEquals(LocalDate.parse("2020-08-10"), h.evaluate(2020).getDate());
+            }
+        }
+        for (Holiday h : data.getCountry("HK").getDays()) {
+            if ("easter 1".equals(h.getOriginalRule())) {
+                assertEquals(LocalDate.parse("2021-04-06"), h.evaluate(2021).getDate());
+                assertEquals(h.calculateDate(2021), h.evaluate(2021).getDate());
+            }
+        }
+
+        // a holiday disabled without replacement
+        Country gb = data.getCountry("GB");
+        for (Holiday h : gb.getDays()) {
+            if ("1st monday in May".equals(h.getOriginalRule())) {
+                assertNull(h.calculateDate(2020));
+                assertEquals(LocalDate.parse("2021-05-03"), h.calculateDate(2021));
+            }
+        }
+
+        // the rules that can't fire are skipped, and counted
+        Country c = new Country();
+        List<Holiday> days = new ArrayList<>();
+        for (String rule : new String[]{ "01-01", "06-01 in even years", "12-25 since 2030", "05-01 every 4 years since 2020" }) {
+            Holiday h = new Holiday();
+            try {
+                h.setRule(UnitTest.parse(rule));
+            } catch (Exception e) {
+                fail(e.getMessage());
+            }
+            days.add(h);
+        }
+        c.setDays(days);
+        c.freeze();
+        assertFalse(days.get(1).isApplicable(2021));
+        assertTrue(days.get(1).isApplicable(2022));
+        List<LocalDate> dates = c.getHolidayDatesList(2021);
+        assertEquals(LocalDate.parse("2021-01-01"), dates.get(0));
+        assertNull(dates.get(1));
+        assertNull(dates.get(2));
+        assertNull(dates.get(3));
+        assertEquals(1, c.getEvaluationCount());
+        assertEquals(3, c.getSkippedEvaluationCount());
+        HolidayDates range2020 = c.getHolidays(2020, 2029);
+        assertEquals(10 + 5 + 3, range2020.size());
+        assertEquals(1 + 10 + 5 + 3, c.getEvaluationCount());
+        assertEquals(3 + 5 + 10 + 7, c.getSkippedEvaluationCount());
+    }
+
+    @Test
+    public void holidayCalendarTest() {
+        HolidayData data = HolidayData.getSharedInstance();
+        HolidayCalendar calendar = new HolidayCalendar(data);
+
+        // same days as the holidays of each country
+        for (Map.Entry<String, Country> entry : data.getHolidays().entrySet()) {
+            if (entry.getValue().getDays() == null) {
+                continue;
+            }
+            for (LocalDate date : entry.getValue().getHolidayDatesList(2021)) {
+                if (date != null && date.getYear() == 2021) {
+                    assertTrue(entry.getKey() + " " + date, calendar.isHoliday(entry.getKey(), date));
+                }
+            }
+            assertEquals(1, calendar.getCachedYearCount(entry.getKey()));
+        }
+        assertTrue(calendar.isHoliday("US", LocalDate.parse("2021-01-01")));
+        assertFalse(calendar.isHoliday("US", LocalDate.parse("2021-01-02")));
+
+        // all the days of the holidays: Independence Day observed on the
+        // Monday after, and the days after the first of Seollal
+        assertTrue(calendar.isHoliday("US", LocalDate.parse("2021-07-05")));
+        assertTrue(calendar.isHoliday("KR", LocalDate.parse("2021-02-12")));
+        assertTrue(calendar.isHoliday("KR", LocalDate.parse("2021-02-13")));
+        assertTrue(calendar.isHoliday("KR", LocalDate.parse("2021-02-14")));
+        assertFalse(calendar.isHoliday("KR", LocalDate.parse("2021-02-15")));
+
+        // the holidays of a subdivision add to the ones above it
+        assertFalse(calendar.isHoliday("US", LocalDate.parse("2021-03-31")));
+        assertTrue(calendar.isHoliday("US-CA", LocalDate.parse("2021-03-31")));
+        assertTrue(calendar.isHoliday("US-CA", LocalDate.parse("2021-01-01")));
+        assertFalse(calendar.isHoliday("DE-BY", LocalDate.parse("2021-08-08")));
+        assertTrue(calendar.isHoliday("DE-BY-A", LocalDate.parse("2021-08-08")));
+        assertTrue(calendar.isHoliday("DE-BY-A", LocalDate.parse("2021-12-25")));
+        assertTrue(calendar.countHolidays("DE-BY-A", 2021) > calendar.countHolidays("DE", 2021));
+        assertTrue(calendar.isHoliday("DE-BY-A", 2021, 220));
+
+        // only some types
+        HolidayCalendar publicOnly = new HolidayCalendar(data, Arrays.asList(HolidayFilter.DEFAULT_TYPE), 3);
+        assertTrue(calendar.isHoliday("US-CA", LocalDate.parse("2021-05-19")));
+        assertFalse(publicOnly.isHoliday("US-CA", LocalDate.parse("2021-05-19")));
+        assertTrue(publicOnly.isHoliday("US-CA", LocalDate.parse("2021-03-31")));
+
+        // the years are evicted
+        for (int year = 2000; year < 2010; year++) {
+            publicOnly.isHoliday("US", LocalDate.of(year, 7, 4));
+        }
+        assertEquals(3, publicOnly.getCachedYearCount("US"));
+        assertTrue(publicOnly.isHoliday("US", LocalDate.parse("2000-07-04")));
+
+        try {
+            calendar.isHoliday("US-XX", LocalDate.parse("2021-01-01"));
+            fail("Unknown region should throw");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            calendar.isHoliday("XX", LocalDate.parse("2021-01-01"));
+            fail("Unknown country should throw");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void businessCalendarTest() {
+        HolidayData data = HolidayData.getSharedInstance();
+        HolidayCalendar holidays = new HolidayCalendar(data, Arrays.asList(HolidayFilter.DEFAULT_TYPE), 4);
+
+        // the weekend is the day off of the region
+        assertEquals(EnumSet.of(DayOfWeek.SUNDAY), new BusinessCalendar(holidays, "US-CA").getWeekend());
+        assertEquals(EnumSet.of(DayOfWeek.FRIDAY), new BusinessCalendar(holidays, "BD").getWeekend());
+        assertEquals(EnumSet.of(BusinessCalendar.DEFAULT_DAY_OFF), new BusinessCalendar(holidays, "CA").getWeekend());
+        assertEquals(DayOfWeek.SUNDAY, BusinessCalendar.parseDayOff("sundays"));
+        assertNull(BusinessCalendar.parseDayOff("?"));
+
+        BusinessCalendar calendar = new BusinessCalendar(holidays, "US-CA", EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+        // Thanksgiving and the day after
+        assertEquals(LocalDate.parse("2021-11-29"), calendar.nextBusinessDay(LocalDate.parse("2021-11-24")));
+        assertEquals(LocalDate.parse("2021-11-24"), calendar.previousBusinessDay(LocalDate.parse("2021-11-29")));
+        assertEquals(LocalDate.parse("2021-11-24"), calendar.addBusinessDays(LocalDate.parse("2021-11-24"), 0));
+        assertFalse(calendar.isBusinessDay(LocalDate.parse("2021-11-26")));
+        assertTrue(calendar.isBusinessDay(LocalDate.parse("2021-11-29")));
+        // Independence Day observed on Monday
+        assertFalse(calendar.isBusinessDay(LocalDate.parse("2021-07-05")));
+        assertEquals(LocalDate.parse("2021-07-06"), calendar.nextBusinessDay(LocalDate.parse("2021-07-02")));
+        assertEquals(1, calendar.businessDaysBetween(LocalDate.parse("2021-07-02"), LocalDate.parse("2021-07-06")));
+
+        // all the days of Chuseok, from Tuesday to Thursday
+        BusinessCalendar kr = new BusinessCalendar(holidays, "KR", EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+        assertFalse(kr.isBusinessDay(LocalDate.parse("2021-09-22")));
+        assertFalse(kr.isBusinessDay(LocalDate.parse("2021-09-23")));
+        assertEquals(LocalDate.parse("2021-09-24"), kr.nextBusinessDay(LocalDate.parse("2021-09-20")));
+        assertEquals(LocalDate.parse("2021-09-24"), kr.addBusinessDays(LocalDate.parse("2021-09-17"), 2));
+        assertEquals(2, kr.businessDaysBetween(LocalDate.parse("2021-09-20"), LocalDate.parse("2021-09-27")));
+
+        // same as counting day by day, over years of more than the kept ones
+        LocalDate start = LocalDate.parse("2015-06-15");
+        LocalDate end = LocalDate.parse("2027-03-01");
+        List<LocalDate> businessDays = new ArrayList<>();
+        for (LocalDate d = start; d.isBefore(end); d = d.plusDays(1)) {
+            boolean business = d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY
+                    && !holidays.isHoliday("US-CA", d);
+            assertEquals(d.toString(), business, calendar.isBusinessDay(d));
+            if (business) {
+                businessDays.add(d);
+            }
+        }
+        assertEquals(businessDays.size(), calendar.businessDaysBetween(start, end));
+        assertEquals(-businessDays.size(), calendar.businessDaysBetween(end, start));
+        LocalDate before = calendar.previousBusinessDay(start);
+        for (int i = 0; i < businessDays.size(); i += 97) {
+            assertEquals(businessDays.get(i), calendar.addBusinessDays(before, i + 1));
+            assertEquals(before, calendar.addBusinessDays(businessDays.get(i), -(i + 1)));
+            assertEquals(i, calendar.businessDaysBetween(start, businessDays.get(i)));
+        }
+        LocalDate last = businessDays.get(businessDays.size() - 1);
+        assertEquals(businessDays.get(0), calendar.addBusinessDays(last, -(businessDays.size() - 1)));
+        assertEquals(last, calendar.addBusinessDays(businessDays.get(0), businessDays.size() - 1));
+        int count2020 = 0;
+        for (LocalDate d : businessDays) {
+            if (d.getYear() == 2020) {
+                count2020++;
+            }
+        }
+        assertEquals(count2020, calendar.countBusinessDays(2020));
+
+        try {
+            new BusinessCalendar(holidays, "US", EnumSet.allOf(DayOfWeek.class));
+            fail("A weekend of the whole week should throw");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void holidayIndexTest() {
+        HolidayData data = HolidayData.getSharedInstance();
+        HolidayCalendar calendar = new HolidayCalendar(data);
+        HolidayIndex index = new HolidayIndex(calendar);
+
+        // the days of the occurrences are the holiday days of the calendar
+        for (String region : new String[]{ "DE-BY-A", "US", "KR", "AE", "JP" }) {
+            List<HolidayIndex.Occurrence> year = index.holidaysBetween(region, LocalDateTime.parse("2021-01-01T00:00"), LocalDateTime.parse("2022-01-01T00:00"));
+            BitSet days = new BitSet();
+            LocalDateTime last = null;
+            for (HolidayIndex.Occurrence o : year) {
+                assertTrue(last == null || !o.getStart().isBefore(last));
+                last = o.getStart();
+                for (LocalDate d = o.getStart().toLocalDate(); d.atStartOfDay().isBefore(o.getEnd()); d = d.plusDays(1)) {
+                    if (d.getYear() == 2021) {
+                        assertTrue(o.toString(), calendar.isHoliday(region, d));
+                        days.set(d.getDayOfYear());
+                    }
+                }
+            }
+            assertEquals(region, calendar.countHolidays(region, 2021), days.cardinality());
+        }
+
+        // the holidays evaluated in the next year, New Year's Day 2022 being
+        // a Saturday
+        HolidayIndex.Occurrence previous = index.previousHoliday("US", LocalDateTime.parse("2022-01-01T00:00"));
+        assertEquals(LocalDateTime.parse("2021-12-31T00:00"), previous.getStart());
+        assertEquals(LocalDateTime.parse("2022-01-01T00:00"), previous.getEnd());
+        boolean newYearsDay = false;
+        for (HolidayIndex.Occurrence o : index.holidaysBetween("US", previous.getStart(), previous.getEnd())) {
+            newYearsDay |= o.getHoliday().getOriginalRule().startsWith("01-01");
+        }
+        assertTrue(newYearsDay);
+        assertEquals(LocalDateTime.parse("2022-01-17T00:00"), index.nextHoliday("US", LocalDateTime.parse("2021-12-31T00:00")).getStart());
+
+        // the extra holidays, Christmas Day 2021 being a Saturday
+        List<HolidayIndex.Occurrence> christmas = index.holidaysBetween("AU", LocalDateTime.parse("2021-12-25T00:00"), LocalDateTime.parse("2021-12-29T00:00"));
+        assertEquals(3, christmas.size());
+        assertEquals(LocalDateTime.parse("2021-12-25T00:00"), christmas.get(0).getStart());
+        assertEquals(LocalDateTime.parse("2021-12-27T00:00"), christmas.get(1).getStart());
+        assertSame(christmas.get(0).getHoliday(), christmas.get(1).getHoliday());
+        assertEquals(christmas.get(1), index.nextHoliday("AU", LocalDateTime.parse("2021-12-26T00:00")));
+        assertEquals(christmas.get(1), index.previousHoliday("AU", LocalDateTime.parse("2021-12-27T00:01")));
+
+        // the holidays of more than a day
+        HolidayIndex.Occurrence newYear = index.previousHoliday("RU", LocalDateTime.parse("2021-01-05T00:00"));
+        assertEquals("01-02 P5D", newYear.getHoliday().getOriginalRule());
+        assertEquals(LocalDateTime.parse("2021-01-07T00:00"), newYear.getEnd());
+        assertTrue(index.holidaysBetween("RU", LocalDateTime.parse("2021-01-05T00:00"), LocalDateTime.parse("2021-01-06T00:00")).contains(newYear));
+        assertTrue(index.holidaysBetween("RU", LocalDateTime.parse("2021-01-07T00:00"), LocalDateTime.parse("2021-01-07T00:00")).isEmpty());
+        assertEquals(2, index.getCachedYearCount("RU"));
+
+        try {
+            index.holidaysBetween("US", LocalDateTime.parse("2021-01-02T00:00"), LocalDateTime.parse("2021-01-01T00:00"));
+            fail("A span that ends before its start should throw");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void resolvedRegionTest() {
+        HolidayData data = HolidayData.getSharedInstance();
+        Country us = data.getCountry("US");
+        Country ca = us.getSubRegion("CA");
+        assertArrayEquals(new String[]{ "2nd monday in October" }, ca.getRemovedDays());
+        assertSame(us, data.getResolvedRegion("US"));
+
+        // the national holidays, without the removed ones, and the state ones
+        Country resolved = data.getResolvedRegion("US-CA");
+        assertSame(resolved, data.getResolvedRegion("US-CA"));
+        assertTrue(resolved.isFrozen());
+        assertNull(resolved.getStates());
+        assertEquals(ca.getName(), resolved.getName());
+        assertEquals(us.getDayoff(), resolved.getDayoff());
+        List<String> rules = new ArrayList<>();
+        for (Holiday h : resolved.getDays()) {
+            rules.add(h.getOriginalRule());
+        }
+        assertFalse(rules.contains("2nd monday in October"));
+        assertTrue(rules.contains("03-31 and if sunday then next monday"));
+        assertEquals(us.getDays().get(0).getOriginalRule(), rules.get(0));
+        assertTrue(resolved.getHolidayDatesList(2021).contains(LocalDate.parse("2021-03-31")));
+        assertFalse(resolved.getHolidayDatesList(2021).contains(LocalDate.parse("2021-10-11")));
+
+        // a state holiday is merged over the national one of the same rule
+        Holiday national = null;
+        for (Holiday h : data.getCountry("BE").getDays()) {
+            if ("11-15".equals(h.getOriginalRule())) {
+                national = h;
+            }
+        }
+        Holiday state = null;
+        for (Holiday h : data.getResolvedRegion("BE-DE").getDays()) {
+            if ("11-15".equals(h.getOriginalRule())) {
+                assertNull(state);
+                state = h;
+            }
+        }
+        assertEquals("observance", national.getType());
+        assertEquals("observance", state.getType());
+        assertEquals("Festtag des Königs", national.getName().get("de"));
+        assertEquals("Tag der Deutschsprachigen Gemeinschaft", state.getName().get("de"));
+        assertTrue(state.isFrozen());
+        HolidayCalendar publicOnly = new HolidayCalendar(data, Arrays.asList(HolidayFilter.DEFAULT_TYPE), 1);
+        assertFalse(publicOnly.isHoliday("BE", LocalDate.parse("2021-11-15")));
+        assertFalse(publicOnly.isHoliday("BE-DE", LocalDate.parse("2021-11-15")));
+
+        // a state that only overrides the type keeps the national names
+        Holiday columbusDay = null;
+        for (Holiday h : data.getResolvedRegion("US-CO").getDays()) {
+            if ("2nd monday in October".equals(h.getOriginalRule())) {
+                columbusDay = h;
+            }
+        }
+        assertEquals("observance", columbusDay.getType());
+        assertEquals("Columbus Day", columbusDay.getName().get("en"));
+        assertEquals(LocalDate.parse("2021-10-11"), columbusDay.calculateDate(2021));
+        assertFalse(publicOnly.isHoliday("US-CO", LocalDate.parse("2021-10-11")));
+        for (Holiday h : data.getResolvedRegion("CH-GE").getDays()) {
+            if ("12-26".equals(h.getOriginalRule())) {
+                assertEquals("bank", h.getType());
+                assertNotNull(h.getName());
+            }
+        }
+        assertTrue(publicOnly.isHoliday("US", LocalDate.parse("2021-10-11")));
+        assertFalse(publicOnly.isHoliday("US-CA", LocalDate.parse("2021-10-11")));
+
+        // the regions of data that isn't frozen are merged again after a
+        // modification
+        HolidayData mutable = HolidayData.initializeData();
+        Country augsburg = mutable.getResolvedRegion("DE-BY-A");
+        assertSame(augsburg, mutable.getResolvedRegion("DE-BY-A"));
+        assertFalse(augsburg.isFrozen());
+        Holiday first = mutable.getCountry("DE").getDays().get(0);
+        first.setType("bank");
+        Country modified = mutable.getResolvedRegion("DE-BY-A");
+        assertNotSame(augsburg, modified);
+        assertEquals("bank", modified.getDays().get(0).getType());
+        assertSame(modified, mutable.getResolvedRegion("DE-BY-A"));
+        mutable.freeze();
+        assertTrue(mutable.getResolvedRegion("DE-BY-A").isFrozen());
+        assertArrayEquals(ca.getRemovedDays(), HolidayData.initializeDataFromTree().getCountry("US").getSubRegion("CA").getRemovedDays());
+        try {
+            data.getResolvedRegion("DE-XX");
+            fail("Unknown region should throw");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void holidayRegionIndexTest() throws Exception {
+        HolidayData data = HolidayData.getSharedInstance();
+        HolidayCalendar calendar = new HolidayCalendar(data, Arrays.asList(HolidayFilter.DEFAULT_TYPE), 2);
+        HolidayRegionIndex index = new HolidayRegionIndex(calendar);
+        List<String> regions = index.getRegions();
+        assertTrue(regions.size() > data.getHolidays().size());
+        assertEquals(regions.indexOf("DE-BY-A"), index.getRegionId("DE-BY-A"));
+        assertEquals(-1, index.getRegionId("XX"));
+
+        // same regions as the calendar of each region
+        LocalDate boxingDay = LocalDate.parse("2025-12-26");
+        List<String> expected = new ArrayList<>();
+        for (String region : regions) {
+            if (calendar.isHoliday(region, boxingDay)) {
+                expected.add(region);
+            }
+        }
+        assertEquals(expected, index.getRegionsWithHoliday(boxingDay));
+        assertTrue(expected.contains("DE"));
+        assertTrue(expected.contains("GB"));
+        assertFalse(expected.contains("US"));
+
+        // same regions as the occurrences of the holiday index, with the
+        // observed and the multi-day holidays
+        HolidayIndex occurrences = new HolidayIndex(calendar);
+        for (LocalDate day : new LocalDate[]{ LocalDate.parse("2021-07-05"), LocalDate.parse("2021-02-13") }) {
+            List<String> withOccurrence = new ArrayList<>();
+            for (String region : regions) {
+                if (!occurrences.holidaysBetween(region, day.atStartOfDay(), day.plusDays(1).atStartOfDay()).isEmpty()) {
+                    withOccurrence.add(region);
+                }
+            }
+            assertEquals(day.toString(), withOccurrence, index.getRegionsWithHoliday(day));
+        }
+        assertTrue(index.getRegionsWithHoliday(LocalDate.parse("2021-07-05")).contains("US"));
+        assertTrue(index.getRegionsWithHoliday(LocalDate.parse("2021-07-05")).contains("US-CA"));
+        assertTrue(index.getRegionsWithHoliday(LocalDate.parse("2021-02-13")).contains("KR"));
+
+        // the union of the days of a span, across the end of the year
+        LocalDate from = LocalDate.parse("2025-12-29");
+        LocalDate to = LocalDate.parse("2026-01-05");
+        BitSet week = new BitSet();
+        for (LocalDate d = from; d.isBefore(to); d = d.plusDays(1)) {
+            week.or(index.getRegionBits(d));
+        }
+        assertEquals(week, index.getRegionBits(from, to));
+        assertTrue(index.getRegionsWithHoliday(from, to).contains("US"));
+        assertTrue(index.getRegionBits(from, from).isEmpty());
+        assertEquals(2, index.getCachedYearCount());
+
+        // same with the tasks run on another executor
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HolidayRegionIndex other = new HolidayRegionIndex(calendar, executor);
+            assertEquals(week, other.getRegionBits(from, to));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void printHolidayTest() {
         HolidayData data = HolidayData.initializeData();
@@ -0,0 +1,56 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks whether a date is a holiday in a subdivision, with
+ * {@link HolidayCalendar#isHoliday(String, LocalDate)} compared to a search
+ * in {@link Country#getHolidayDatesList(int)} of the country and the state.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayCalendarBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HolidayCalendarBenchmark {
+    static final String REGION = "US-CA";
+    static final LocalDate DATE = LocalDate.of(2021, 11, 26);
+
+    HolidayCalendar calendar;
+    Country country;
+    Country state;
+
+    @Setup
+    public void setUp() {
+        HolidayData data = HolidayData.getSharedInstance();
+        calendar = new HolidayCalendar(data);
+        country = data.getCountry("US");
+        state = country.getSubRegion("CA");
+    }
+
+    @Benchmark
+    public boolean datesList() {
+        return country.getHolidayDatesList(DATE.getYear()).contains(DATE)
+                || state.getHolidayDatesList(DATE.getYear()).contains(DATE);
+    }
+
+    @Benchmark
+    public boolean calendar() {
+        return calendar.isHoliday(REGION, DATE);
+    }
+}
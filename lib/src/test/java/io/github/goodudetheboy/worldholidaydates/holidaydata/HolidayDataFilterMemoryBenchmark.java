@@ -0,0 +1,74 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the heap retained by a {@link HolidayData} loaded with a typical
+ * filter, the public and bank holidays of 30 countries in English and German,
+ * compared to a full load.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayDataFilterMemoryBenchmark};
+ * the retained heap is reported as the {@code retainedKilobytes} counter, as
+ * in {@link HolidayDataMemoryBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayDataFilterMemoryBenchmark {
+
+    static final String[] COUNTRIES = {
+        "US", "CA", "GB", "IE", "DE", "AT", "CH", "FR", "BE", "NL",
+        "LU", "IT", "ES", "PT", "DK", "SE", "NO", "FI", "PL", "CZ",
+        "SK", "HU", "SI", "HR", "GR", "RO", "BG", "JP", "AU", "NZ"
+    };
+
+    /**
+     * The counter of the retained heap, reported by JMH with the results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retained {
+        public long retainedKilobytes;
+    }
+
+    private long baseline;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        baseline = HolidayDataMemoryBenchmark.usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public HolidayData full(Retained retained) {
+        HolidayData data = new HolidayDataLoader().load();
+        retained.retainedKilobytes = (HolidayDataMemoryBenchmark.usedHeapAfterGc() - baseline) / 1024;
+        return data;
+    }
+
+    @Benchmark
+    public HolidayData filtered(Retained retained) {
+        HolidayData data = new HolidayDataLoader()
+                                .setCountries(COUNTRIES)
+                                .setTypes("public", "bank")
+                                .setLanguages("en", "de")
+                                .load();
+        retained.retainedKilobytes = (HolidayDataMemoryBenchmark.usedHeapAfterGc() - baseline) / 1024;
+        return data;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the initialization of the {@link HolidayData}, comparing the
+ * streaming {@link HolidayDataReader} with the String + JsonElement tree path.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayDataLoadBenchmark};
+ * the allocation per initialization is reported as {@code gc.alloc.rate.norm}.
+ * The single shot mode approximates a cold start.
+ */
+@BenchmarkMode({ Mode.SingleShotTime, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+public class HolidayDataLoadBenchmark {
+
+    @Benchmark
+    public HolidayData streamingReader() {
+        return HolidayData.initializeData();
+    }
+
+    @Benchmark
+    public HolidayData lazyReader() {
+        return new HolidayDataLoader().setLazy(true).load();
+    }
+
+    @Benchmark
+    public HolidayData lazyReaderFiveCountries() {
+        HolidayData data = new HolidayDataLoader().setLazy(true).load();
+        for (String code : new String[]{ "US", "DE", "GB", "FR", "JP" }) {
+            data.getCountry(code);
+        }
+        return data;
+    }
+
+    @Benchmark
+    public HolidayData deferredRuleParsing() {
+        return new HolidayDataLoader().setDeferRuleParsing(true).load();
+    }
+
+    @Benchmark
+    public HolidayData snapshot() {
+        return new HolidayDataLoader().setSnapshot(true).load();
+    }
+
+    @Benchmark
+    public HolidayData jsonTree() {
+        return HolidayData.initializeDataFromTree();
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the heap retained by the {@link HolidayData} when N users each
+ * call {@link HolidayData#initializeData()}, compared to when they all use
+ * {@link HolidayData#getSharedInstance()}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayDataMemoryBenchmark};
+ * the retained heap is reported as the {@code retainedKilobytes} counter, the
+ * difference of the used heap after a full GC, with and without the copies.
+ * There's a single fork with a single measurement, as JMH sums this kind of
+ * counter over the iterations and forks.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayDataMemoryBenchmark {
+
+    @Param({ "1", "4", "16" })
+    int users;
+
+    /**
+     * The counter of the retained heap, reported by JMH with the results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retained {
+        public long retainedKilobytes;
+    }
+
+    private long baseline;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        HolidayData.resetSharedInstance();
+        baseline = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public HolidayData[] copies(Retained retained) {
+        HolidayData[] held = new HolidayData[users];
+        for (int i = 0; i < users; i++) {
+            held[i] = HolidayData.initializeData();
+        }
+        retained.retainedKilobytes = (usedHeapAfterGc() - baseline) / 1024;
+        return held;
+    }
+
+    @Benchmark
+    public HolidayData[] shared(Retained retained) {
+        HolidayData[] held = new HolidayData[users];
+        for (int i = 0; i < users; i++) {
+            held[i] = HolidayData.getSharedInstance();
+        }
+        retained.retainedKilobytes = (usedHeapAfterGc() - baseline) / 1024;
+        return held;
+    }
+
+    static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // a few GCs, as a single one is not guaranteed to collect everything
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
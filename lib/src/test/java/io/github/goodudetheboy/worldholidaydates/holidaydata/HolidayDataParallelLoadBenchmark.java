@@ -0,0 +1,56 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the wall-clock time of a full initialization of the
+ * {@link HolidayData} with the countries deserialized in parallel on a
+ * {@link ForkJoinPool} of 1, 2, 4, 8 and 16 threads, compared to the
+ * sequential load, which is the 0 thread case.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayDataParallelLoadBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HolidayDataParallelLoadBenchmark {
+
+    @Param({ "0", "1", "2", "4", "8", "16" })
+    int threads;
+
+    ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = (threads > 0) ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public HolidayData load() {
+        return new HolidayDataLoader().setExecutor(pool).load();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the next holiday of a subdivision after a date and time, with
+ * {@link HolidayIndex#nextHoliday(String, LocalDateTime)} compared to sorting
+ * {@link Country#getHolidaysList(int)} of the country and the state in the
+ * year and the next one.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HolidayIndexBenchmark {
+    static final String REGION = "DE-BY";
+    static final LocalDateTime AFTER = LocalDateTime.of(2021, 12, 27, 12, 0);
+
+    HolidayIndex index;
+    Country[] levels;
+
+    @Setup
+    public void setUp() {
+        HolidayData data = HolidayData.getSharedInstance();
+        index = new HolidayIndex(new HolidayCalendar(data));
+        Country country = data.getCountry("DE");
+        levels = new Country[] { country, country.getSubRegion("BY") };
+    }
+
+    @Benchmark
+    public LocalDateTime sortedLists() {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (Country level : levels) {
+            for (int year = AFTER.getYear(); year <= AFTER.getYear() + 1; year++) {
+                for (LocalDateTime start : level.getHolidaysList(year)) {
+                    if (start != null) {
+                        starts.add(start);
+                    }
+                }
+            }
+        }
+        Collections.sort(starts);
+        for (LocalDateTime start : starts) {
+            if (start.isAfter(AFTER)) {
+                return start;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public HolidayIndex.Occurrence index() {
+        return index.nextHoliday(REGION, AFTER);
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the holidays of all the countries from 1950 to 2100, with a loop
+ * over {@link Country#getHolidayDatesList(int)} compared to
+ * {@link Country#getHolidays(int, int)}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayRangeBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HolidayRangeBenchmark {
+    static final int FROM_YEAR = 1950;
+    static final int TO_YEAR = 2100;
+
+    Country[] countries;
+
+    @Setup
+    public void setUp() {
+        countries = HolidayData.initializeData().getHolidays().values().stream()
+                               .filter(c -> c.getDays() != null)
+                               .toArray(Country[]::new);
+    }
+
+    @Benchmark
+    public void singleYear(Blackhole blackhole) {
+        for (Country country : countries) {
+            for (int year = FROM_YEAR; year <= TO_YEAR; year++) {
+                for (LocalDate date : country.getHolidayDatesList(year)) {
+                    blackhole.consume(date);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void range(Blackhole blackhole) {
+        for (Country country : countries) {
+            blackhole.consume(country.getHolidays(FROM_YEAR, TO_YEAR));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.goodudetheboy.worldholidaydates.holidaydata;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the regions with a holiday in a week, with
+ * {@link HolidayRegionIndex#getRegionsWithHoliday(LocalDate, LocalDate)}
+ * compared to {@link Country#getHolidayDatesList(int)} of every resolved
+ * region, see {@link HolidayData#getResolvedRegion(String)}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HolidayRegionIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HolidayRegionIndexBenchmark {
+    static final LocalDate FROM = LocalDate.of(2025, 12, 22);
+    static final LocalDate TO = FROM.plusDays(7);
+
+    HolidayRegionIndex index;
+    List<String> regions;
+    Country[] resolved;
+
+    @Setup
+    public void setUp() {
+        HolidayData data = HolidayData.getSharedInstance();
+        index = new HolidayRegionIndex(new HolidayCalendar(data));
+        regions = index.getRegions();
+        resolved = new Country[regions.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = data.getResolvedRegion(regions.get(i));
+        }
+    }
+
+    @Benchmark
+    public List<String> datesLists() {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < resolved.length; i++) {
+            if (resolved[i].getDays() == null) {
+                continue;
+            }
+            for (LocalDate date : resolved[i].getHolidayDatesList(FROM.getYear())) {
+                if (date != null && !date.isBefore(FROM) && date.isBefore(TO)) {
+                    result.add(regions.get(i));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> index() {
+        return index.getRegionsWithHoliday(FROM, TO);
+    }
+}
@@ -1,9 +1,13 @@
 package io.github.goodudetheboy.worldholidaydates.holidaydata;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 public class UnitTest {
@@ -35,4 +39,30 @@ public class UnitTest {
         Country none = us.getRegionByName("RU");
         assertNull(none);
     }
+
+    @Test
+    public void holidayFilterTest() {
+        HolidayFilter filter = new HolidayFilter(Arrays.asList("US", "DE-BY"),
+                                                 Arrays.asList("Public"),
+                                                 Arrays.asList("de"));
+        assertTrue(filter.includesRegion("US"));
+        assertTrue(filter.includesRegion("US-CA"));
+        assertTrue(filter.includesRegion("DE"));
+        assertTrue(filter.includesRegion("DE-BY"));
+        assertTrue(filter.includesRegion("DE-BY-A"));
+        assertFalse(filter.includesRegion("DE-BE"));
+        assertFalse(filter.includesRegion("USA"));
+        assertFalse(filter.includesRegion("FR"));
+
+        assertTrue(filter.includesType("public"));
+        assertTrue(filter.includesType(null));
+        assertFalse(filter.includesType("observance"));
+
+        assertTrue(filter.includesLanguage("de"));
+        assertTrue(filter.includesLanguage("de-at"));
+        assertTrue(filter.includesLanguage("xx"));
+        assertFalse(filter.includesLanguage("en"));
+
+        assertTrue(new HolidayFilter(null, null, null).isEmpty());
+    }
 }
@@ -0,0 +1,54 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the Japanese Vernal Equinox Day (march equinox in Asia/Tokyo)
+ * from 1950 to 2049, computed from the mean formula and re-zoned as before,
+ * compared to {@link EquinoxDate#calculateDate(int)}, which reads the table
+ * of {@link AstronomicalEvents}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=AstronomicalDateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class AstronomicalDateBenchmark {
+    static final int FIRST_YEAR = 1950;
+    static final int YEARS = 100;
+
+    final ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+    final EquinoxDate equinox = new EquinoxDate(Date.UNDEFINED_NUM, 3, tokyo);
+
+    @Benchmark
+    @OperationsPerInvocation(YEARS)
+    public void formula(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            blackhole.consume(EquinoxDate.calculateEquinoxDate(3, year).withZoneSameInstant(tokyo).toLocalDate());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(YEARS)
+    public void table(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            blackhole.consume(equinox.calculateDate(year));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the start of a rule in a year, from {@link Rule#calculate(int)}
+ * compared to {@link CompiledRule#evaluate(int)}, for the first 800 rules of
+ * test-data/date.txt that are compiled to the primitive form (Gregorian,
+ * Easter and nth weekday dates). Run with {@code -prof gc} to see that the
+ * compiled form doesn't allocate.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=CompiledRuleBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class CompiledRuleBenchmark {
+    static final int RULES = 800;
+
+    Rule[] rules;
+    CompiledRule[] compiled;
+
+    @Setup
+    public void setUp() throws IOException, ParseException {
+        List<Rule> primitive = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get("test-data/date.txt"), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty() && primitive.size() < RULES) {
+                Rule rule = HolidayParser.parseRule(line);
+                if (rule.compile().isPrimitive()) {
+                    primitive.add(rule);
+                }
+            }
+        }
+        if (primitive.size() != RULES) {
+            throw new IllegalStateException("Expected " + RULES + " compiled rules in date.txt, got " + primitive.size());
+        }
+        rules = primitive.toArray(new Rule[0]);
+        compiled = new CompiledRule[RULES];
+        for (int i = 0; i < RULES; i++) {
+            compiled[i] = rules[i].compile();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RULES)
+    public void calculate(Blackhole blackhole) {
+        for (Rule rule : rules) {
+            blackhole.consume(rule.calculate(RuleEvaluateBenchmark.YEAR));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RULES)
+    public void compiled(Blackhole blackhole) {
+        for (CompiledRule rule : compiled) {
+            blackhole.consume(rule.evaluate(RuleEvaluateBenchmark.YEAR));
+        }
+    }
+}
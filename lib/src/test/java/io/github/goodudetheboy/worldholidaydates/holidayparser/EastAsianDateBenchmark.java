@@ -0,0 +1,56 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.EastAsianDate.CalendarType;
+
+/**
+ * Benchmarks the conversion of the East Asian new year and Mid-Autumn
+ * festival to the Gregorian calendar for the years 1950 to 2049, from the
+ * {@link EastAsianTable} compared to Time4J.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=EastAsianDateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class EastAsianDateBenchmark {
+    static final int FIRST_YEAR = 1950;
+    static final int YEARS = 100;
+
+    final EastAsianDate newYear = new EastAsianDate(CalendarType.CHINESE, 1, false, 1);
+    final EastAsianDate midAutumn = new EastAsianDate(CalendarType.VIETNAMESE, 8, false, 15);
+
+    @Benchmark
+    @OperationsPerInvocation(2 * YEARS)
+    public void table(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            blackhole.consume(newYear.calculateDate(year));
+            blackhole.consume(midAutumn.calculateDate(year));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * YEARS)
+    public void time4J(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            blackhole.consume(EastAsianDate.calculateWithTime4J(CalendarType.CHINESE, year, 1, false, 1));
+            blackhole.consume(EastAsianDate.calculateWithTime4J(CalendarType.VIETNAMESE, year, 8, false, 15));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks Good Friday (easter -2) from 1950 to 2100, computed with the
+ * algorithm and offset as before, compared to
+ * {@link EasterDate#calculateDate(int)} and to the span of
+ * {@link EasterDate#calculateEpochDays(int, int)}, both from the
+ * {@link EasterTable}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=EasterDateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class EasterDateBenchmark {
+    static final int FIRST_YEAR = 1950;
+    static final int LAST_YEAR = 2100;
+    static final int YEARS = LAST_YEAR - FIRST_YEAR + 1;
+
+    final EasterDate goodFriday = new EasterDate(false, -2);
+
+    @Benchmark
+    @OperationsPerInvocation(YEARS)
+    public void algorithm(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+            blackhole.consume(Date.getOffsetDate(EasterDate.getEasterDate(year).atStartOfDay(), -2).toLocalDate());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(YEARS)
+    public void table(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+            blackhole.consume(goodFriday.calculateDate(year));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(YEARS)
+    public long[] span() {
+        return goodFriday.calculateEpochDays(FIRST_YEAR, LAST_YEAR);
+    }
+}
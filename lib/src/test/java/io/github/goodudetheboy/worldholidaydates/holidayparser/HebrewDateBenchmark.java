@@ -0,0 +1,57 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.goodudetheboy.worldholidaydates.holidayparser.HebrewDate.HebrewMonth;
+
+/**
+ * Benchmarks the conversion of Passover (15 Nisan) and Yom Kippur (10
+ * Tishrei) to the Gregorian calendar for the Hebrew years 5710 to 5809, with
+ * {@link HebrewArithmetic} compared to Time4J.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=HebrewDateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class HebrewDateBenchmark {
+    static final int FIRST_YEAR = 5710;
+    static final int YEARS = 100;
+
+    final HebrewDate passover = new HebrewDate(HebrewMonth.NISAN.getValue(), 15);
+    final HebrewDate yomKippur = new HebrewDate(HebrewMonth.TISHREI.getValue(), 10);
+
+    @Benchmark
+    @OperationsPerInvocation(2 * YEARS)
+    public void arithmetic(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            int gregorianYear = year - 3760;
+            blackhole.consume(passover.calculateDate(gregorianYear));
+            blackhole.consume(yomKippur.calculateDate(gregorianYear));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * YEARS)
+    public void time4J(Blackhole blackhole) {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            blackhole.consume(HebrewDate.calculateWithTime4J(year, HebrewMonth.NISAN, 15));
+            blackhole.consume(HebrewDate.calculateWithTime4J(year, HebrewMonth.TISHREI, 10));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.goodudetheboy.worldholidaydates.holidayparser;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
@@ -13,8 +15,12 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -41,6 +47,70 @@ public class ParserTest {
         parseData("test-data/date.txt", true, "test-data/date.txt-debug-result-strict", "test-data/date.txt-stats");
     }
 
+    /**
+     * Compares the {@link CompiledRule} of all the rules in date.txt against
+     * {@link Rule#calculate(int)}, including the exceptions thrown, over a
+     * wide range of years.
+     */
+    @Test
+    public void compiledRuleDataTest() throws IOException, ParseException {
+        Set<String> lines = new LinkedHashSet<>(Files.readAllLines(Paths.get("test-data/date.txt"), StandardCharsets.UTF_8));
+        int primitive = 0;
+        for (String line : lines) {
+            if ("".equals(line.trim())) {
+                continue;
+            }
+            Rule rule = new HolidayParser(new ByteArrayInputStream(line.getBytes())).parse();
+            CompiledRule compiled = CompiledRule.compile(rule);
+            if (!compiled.isPrimitive()) {
+                continue;
+            }
+            primitive++;
+            for (int year = 1583; year <= 2600; year++) {
+                String expected;
+                try {
+                    expected = String.valueOf(rule.calculate(year));
+                } catch (RuntimeException e) {
+                    expected = e.getClass().getName();
+                }
+                String actual;
+                try {
+                    actual = String.valueOf(CompiledRule.toLocalDateTime(compiled.evaluate(year)));
+                } catch (RuntimeException e) {
+                    actual = e.getClass().getName();
+                }
+                assertEquals(line + " in " + year, expected, actual);
+            }
+        }
+        assertTrue("Only " + primitive + " rules compiled", primitive > 800);
+    }
+
+    @Test
+    public void applicabilityDataTest() throws IOException, ParseException {
+        Set<String> lines = new LinkedHashSet<>(Files.readAllLines(Paths.get("test-data/date.txt"), StandardCharsets.UTF_8));
+        int skipped = 0;
+        for (String line : lines) {
+            if ("".equals(line.trim())) {
+                continue;
+            }
+            Rule rule = new HolidayParser(new ByteArrayInputStream(line.getBytes())).parse();
+            CompiledRule compiled = CompiledRule.compile(rule);
+            for (int year = 1583; year <= 2600; year++) {
+                if (compiled.isApplicable(year)) {
+                    continue;
+                }
+                // a rule that is not applicable is disabled, or throws
+                skipped++;
+                try {
+                    assertNull(line + " in " + year, rule.calculate(year));
+                } catch (RuntimeException e) {
+                    // the exception is skipped too
+                }
+            }
+        }
+        assertTrue("Only " + skipped + " evaluations skipped", skipped > 5000);
+    }
+
     /**
      * This completes successfully if parsing gives the same success result and for successful parses the same
      * regenerated OH string
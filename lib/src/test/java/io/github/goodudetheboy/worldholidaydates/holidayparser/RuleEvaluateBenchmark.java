@@ -0,0 +1,75 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the cost of the full occurrence of a rule in a year, its start,
+ * end, extra holidays and substitute flag, for the 3350 rules of
+ * test-data/date.txt. The occurrence is either read from separate calls of
+ * the calculate methods, which each run the whole calculation, or from a
+ * single {@link Rule#evaluate(int)}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=RuleEvaluateBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class RuleEvaluateBenchmark {
+    static final int YEAR = 2021;
+
+    List<Rule> rules;
+
+    @Setup
+    public void setUp() throws IOException, ParseException {
+        rules = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get("test-data/date.txt"), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                rules.add(HolidayParser.parseRule(line));
+            }
+        }
+        if (rules.size() != RuleParseBenchmark.RULES) {
+            throw new IllegalStateException("Expected " + RuleParseBenchmark.RULES + " rules in date.txt, got " + rules.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RuleParseBenchmark.RULES)
+    public void separateCalls(Blackhole blackhole) {
+        for (Rule rule : rules) {
+            blackhole.consume(rule.calculate(YEAR));
+            blackhole.consume(rule.calculateEnd(YEAR));
+            blackhole.consume(rule.calculateExtra(YEAR));
+            blackhole.consume(rule.isSubstitute(YEAR));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RuleParseBenchmark.RULES)
+    public void singleEvaluation(Blackhole blackhole) {
+        for (Rule rule : rules) {
+            blackhole.consume(rule.evaluate(YEAR));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.goodudetheboy.worldholidaydates.holidayparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the rules parsed per second for the 3350 rules of
+ * test-data/date.txt, with a new {@link HolidayParser} for each rule compared
+ * to the reused parser of {@link HolidayParser#parseRule(String)}.
+ * <p>
+ * Run with {@code gradlew benchmark -Pbenchmark=RuleParseBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+@State(Scope.Thread)
+public class RuleParseBenchmark {
+    static final int RULES = 3350;
+
+    List<String> rules;
+
+    @Setup
+    public void setUp() throws IOException {
+        rules = Files.readAllLines(Paths.get("test-data/date.txt"), StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.trim().isEmpty())
+            .collect(Collectors.toList());
+        if (rules.size() != RULES) {
+            throw new IllegalStateException("Expected " + RULES + " rules in date.txt, got " + rules.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RULES)
+    public void newParserPerRule(Blackhole blackhole) throws ParseException {
+        for (String rule : rules) {
+            HolidayParser parser = new HolidayParser(new ByteArrayInputStream(rule.getBytes()));
+            blackhole.consume(parser.parse());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RULES)
+    public void reusedParser(Blackhole blackhole) throws ParseException {
+        for (String rule : rules) {
+            blackhole.consume(HolidayParser.parseRule(rule));
+        }
+    }
+}
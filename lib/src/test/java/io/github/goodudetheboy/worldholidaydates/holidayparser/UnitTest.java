@@ -3,12 +3,26 @@ package io.github.goodudetheboy.worldholidaydates.holidayparser;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.chrono.HijrahChronology;
+import java.time.chrono.HijrahEra;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -122,6 +136,76 @@ public class UnitTest {
         testParserDate("orthodox -6", LocalDate.parse("2021-04-26"));
     }
 
+    @Test
+    public void calculateRangeTest() throws Exception {
+        String[] rules = {
+            "01-01", "easter -2", "orthodox 49", "3rd monday in january", "01-01 and if sunday then next monday",
+            "06-01 every 4 years since 2001", "12-25 since 2020", "1 Shawwal", "chinese 01-0-01", "march equinox in +09:00"
+        };
+        for (String input : rules) {
+            Rule rule = parse(input);
+            long[] days = rule.calculateRange(2000, 2050);
+            assertEquals(51, days.length);
+            for (int year = 2000; year <= 2050; year++) {
+                LocalDate expected = rule.calculateDate(year);
+                long actual = days[year - 2000];
+                assertEquals(input + " " + year, (expected != null) ? expected.toEpochDay() : CompiledRule.NONE, actual);
+            }
+        }
+        try {
+            parse("01-01").calculateRange(2001, 2000);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void easterTableTest() {
+        EasterTable table = EasterTable.getInstance();
+        for (int year = 1; year <= 5000; year++) {
+            assertEquals(EasterDate.getEasterDate(year).toEpochDay(), table.epochDay(year, false));
+            assertEquals(EasterDate.getOrthodoxEasterDate(year).toEpochDay(), table.epochDay(year, true));
+        }
+        for (int offset = -60; offset <= 60; offset += 7) {
+            EasterDate easter = new EasterDate(false, offset);
+            EasterDate orthodox = new EasterDate(true, offset);
+            long[] easterDays = easter.calculateEpochDays(1950, 2100);
+            long[] orthodoxDays = orthodox.calculateEpochDays(1950, 2100);
+            assertEquals(151, easterDays.length);
+            for (int year = 1950; year <= 2100; year++) {
+                LocalDate expected = EasterDate.getEasterDate(year).plusDays(offset);
+                assertEquals(expected, easter.calculateDate(year));
+                assertEquals(expected.toEpochDay(), easterDays[year - 1950]);
+                expected = EasterDate.getOrthodoxEasterDate(year).plusDays(offset);
+                assertEquals(expected, orthodox.calculateDate(year));
+                assertEquals(expected.toEpochDay(), orthodoxDays[year - 1950]);
+            }
+        }
+        long[] fixed = new EasterDate(2021, false, -2).calculateEpochDays(2000, 2002);
+        assertEquals(3, fixed.length);
+        for (long day : fixed) {
+            assertEquals(LocalDate.parse("2021-04-02").toEpochDay(), day);
+        }
+
+        // the results don't depend on the range of the table
+        try {
+            EasterTable.setRange(2000, 2010);
+            assertEquals(2000, EasterTable.getInstance().getFirstYear());
+            assertEquals(LocalDate.parse("1999-04-04"), new EasterDate(false, 0).calculateDate(1999));
+            assertEquals(LocalDate.parse("2021-05-02"), new EasterDate(true, 0).calculateDate(2021));
+            assertEquals(LocalDate.parse("2005-03-27").toEpochDay(), EasterTable.getInstance().epochDays(false, 0, 1990, 2020)[15]);
+        } finally {
+            EasterTable.setRange(EasterTable.DEFAULT_FIRST_YEAR, EasterTable.DEFAULT_LAST_YEAR);
+        }
+        try {
+            EasterTable.setRange(2010, 2000);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void hijraTest() {
         testParserDate("29 Muharram", LocalDate.parse("2020-09-17"));
@@ -138,6 +222,104 @@ public class UnitTest {
         testParserDate("17 Dhu al-Hijjah", LocalDate.parse("2021-07-27"));
     }
 
+    @Test
+    public void hijraTableTest() {
+        // all the dates of the Umm al-Qura table, and the ones that don't exist
+        for (int year = HijraTable.FIRST_YEAR; year <= HijraTable.LAST_YEAR; year++) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 0; day <= 31; day++) {
+                    String expected;
+                    try {
+                        expected = String.valueOf(LocalDate.from(HijrahChronology.INSTANCE.date(HijrahEra.AH, year, month, day)));
+                    } catch (RuntimeException e) {
+                        expected = e.getClass().getName();
+                    }
+                    String actual;
+                    try {
+                        actual = String.valueOf(new HijraDate(year, month, day).calculateDate(2021));
+                    } catch (RuntimeException e) {
+                        actual = e.getClass().getName();
+                    }
+                    if (!expected.equals(actual)) {
+                        assertEquals(year + "-" + month + "-" + day, expected, actual);
+                    }
+                }
+            }
+        }
+
+        // the tabular calendar starts on 622-07-16 in the Julian calendar
+        HijraTable tabular = HijraTable.of(HijraDate.Variant.TABULAR);
+        assertEquals(LocalDate.parse("0622-07-19").toEpochDay(), tabular.toEpochDay(1, 1, 1));
+        for (int year = 1; year <= 2000; year++) {
+            long start = tabular.toEpochDay(year, 1, 1);
+            long end = tabular.toEpochDay(year, 12, 29);
+            try {
+                end = tabular.toEpochDay(year, 12, 30);
+            } catch (DateTimeException e) {
+                // not a leap year
+            }
+            assertEquals(end + 1, tabular.toEpochDay(year + 1, 1, 1));
+            assertEquals(HijraTable.tabularEpochDay(year, 9, 1), tabular.toEpochDay(year, 9, 1));
+            assertEquals(year, tabular.yearOf(start));
+            assertEquals(year, tabular.yearOf(end));
+        }
+        HijraDate date = new HijraDate(HijraDate.HijraMonth.RAMADAN.getValue(), 1);
+        date.setVariant(HijraDate.Variant.TABULAR);
+        assertEquals(LocalDate.ofEpochDay(HijraTable.tabularEpochDay(1442, 9, 1)), date.calculateDate(2021));
+        // out of the range of Umm al-Qura
+        assertEquals(LocalDate.ofEpochDay(HijraTable.tabularEpochDay(1700, 9, 1)), date.calculateDate(1700 + 579));
+        try {
+            new HijraDate(HijraDate.HijraMonth.RAMADAN.getValue(), 1).calculateDate(1700 + 579);
+            fail("Should have failed");
+        } catch (DateTimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void hijraCalculateDatesTest() throws Exception {
+        // Eid al-Fitr was in January and December 2000
+        HijraDate eid = new HijraDate(HijraDate.HijraMonth.SHAWWAL.getValue(), 1);
+        List<LocalDate> dates = eid.calculateDates(2000);
+        assertEquals(2, dates.size());
+        assertEquals(LocalDate.from(HijrahChronology.INSTANCE.date(HijrahEra.AH, 1420, 10, 1)), dates.get(0));
+        assertEquals(LocalDate.from(HijrahChronology.INSTANCE.date(HijrahEra.AH, 1421, 10, 1)), dates.get(1));
+        assertEquals(1, eid.calculateDates(2021).size());
+        assertEquals(LocalDate.parse("2021-05-13"), eid.calculateDates(2021).get(0));
+        for (int year = 1900; year <= 2100; year++) {
+            for (LocalDate d : eid.calculateDates(year)) {
+                assertEquals(year, d.getYear());
+            }
+        }
+        HijraDate fixed = new HijraDate(1420, HijraDate.HijraMonth.SHAWWAL.getValue(), 1);
+        assertEquals(1, fixed.calculateDates(2000).size());
+        assertTrue(fixed.calculateDates(2001).isEmpty());
+
+        // the other date is an extra holiday of the rule
+        HolidayOccurrence occurrence = parse("1 Shawwal").evaluate(2000);
+        assertEquals(LocalDateTime.parse("2000-12-27T00:00"), occurrence.getStart());
+        assertEquals(Arrays.asList(LocalDateTime.parse("2000-01-08T00:00")), occurrence.getExtras());
+        assertTrue(parse("1 Shawwal").evaluate(2021).getExtras().isEmpty());
+
+        // the variant is serialized
+        Rule rule = parse("1 Shawwal");
+        ((HijraDate) rule.getRawDate()).setVariant(HijraDate.Variant.TABULAR);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RuleSerializer.write(new DataOutputStream(bytes), rule);
+        Rule read = RuleSerializer.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(HijraDate.Variant.TABULAR, ((HijraDate) read.getRawDate()).getVariant());
+        assertSameResults(rule, read, 2015, 2030);
+
+        // the variant of a frozen rule is fixed
+        try {
+            ((HijraDate) read.getRawDate()).setVariant(HijraDate.Variant.UMM_AL_QURA);
+            fail("The variant of a frozen rule should not change");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(HijraDate.Variant.TABULAR, ((HijraDate) read.getRawDate()).getVariant());
+    }
+
     @Test
     public void hebrewTest() {
         testParserDate("1 Nisan", LocalDate.parse("2021-03-14"));
@@ -153,6 +335,35 @@ public class UnitTest {
         testParserDate("28 Adar", LocalDate.parse("2021-03-12"));
     }
 
+    @Test
+    public void hebrewArithmeticTest() {
+        // all the dates of the years, and the ones that don't exist
+        for (int year = 5600; year <= 6000; year++) {
+            for (HebrewDate.HebrewMonth month : HebrewDate.HebrewMonth.values()) {
+                for (int day = 0; day <= 31; day++) {
+                    String expected;
+                    try {
+                        expected = String.valueOf(HebrewDate.calculateWithTime4J(year, month, day));
+                    } catch (RuntimeException e) {
+                        expected = e.getClass().getName();
+                    }
+                    String actual;
+                    try {
+                        actual = String.valueOf(new HebrewDate(year, month.getValue(), day).calculateDate(2021));
+                    } catch (RuntimeException e) {
+                        actual = e.getClass().getName();
+                    }
+                    if (!expected.equals(actual)) {
+                        assertEquals(year + " " + month + " " + day, expected, actual);
+                    }
+                }
+                assertEquals(HebrewDate.calculateWithTime4J(year, month, 1).toEpochDay(),
+                             HebrewArithmetic.toEpochDay(year, month.getValue(), 1));
+            }
+        }
+        assertEquals(HebrewArithmetic.NONE, HebrewArithmetic.toEpochDay(5781, HebrewDate.HebrewMonth.ELUL.getValue(), 30));
+    }
+
     @Test
     public void eastAsianTest() {
         testParserDate("chinese 6-0-18", LocalDate.parse("2021-07-27"));
@@ -164,6 +375,42 @@ public class UnitTest {
         testParserDate("chinese 01-0-00", LocalDate.parse("2021-02-11"));
     }
 
+    @Test
+    public void eastAsianTableTest() {
+        assertTrue(EastAsianTable.isAvailable());
+        assertEquals(LocalDate.parse("2021-02-12").toEpochDay(),
+                     EastAsianTable.getInstance().toEpochDay(EastAsianDate.CalendarType.CHINESE, 2021, 1, false, 1));
+        assertEquals(EastAsianTable.NONE,
+                     EastAsianTable.getInstance().toEpochDay(EastAsianDate.CalendarType.CHINESE, EastAsianTable.LAST_YEAR + 1, 1, false, 1));
+        // all the dates of the table, and the ones around, valid or not
+        for (EastAsianDate.CalendarType type : EastAsianDate.CalendarType.values()) {
+            for (int year = EastAsianTable.FIRST_YEAR - 1; year <= EastAsianTable.LAST_YEAR + 1; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    for (int leap = 0; leap <= 1; leap++) {
+                        for (int day = 0; day <= 31; day++) {
+                            boolean isLeapMonth = (leap == 1);
+                            String expected;
+                            try {
+                                expected = String.valueOf(EastAsianDate.calculateWithTime4J(type, year, month, isLeapMonth, day));
+                            } catch (RuntimeException e) {
+                                expected = e.getClass().getName();
+                            }
+                            String actual;
+                            try {
+                                actual = String.valueOf(new EastAsianDate(type, month, isLeapMonth, day).calculateDate(year));
+                            } catch (RuntimeException e) {
+                                actual = e.getClass().getName();
+                            }
+                            if (!expected.equals(actual)) {
+                                assertEquals(type + " " + year + "-" + month + (isLeapMonth ? "L" : "") + "-" + day, expected, actual);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void eastAsianSolarTermTest() {
         testParserDate("chinese 5-01 solarterm", LocalDate.parse("2021-04-05"));
@@ -197,6 +444,56 @@ public class UnitTest {
         testParser("3rd Sunday after june solstice in -05:00", LocalDateTime.parse("2021-07-11T22:24"));
     }
 
+    @Test
+    public void astronomicalEventsTest() throws Exception {
+        // the table and the cache by timezone give the same results as before
+        ZoneId[] zones = { Date.DEFAULT_ZONE, ZoneId.of("+09:00"), ZoneId.of("America/New_York"), ZoneId.of("Asia/Tehran") };
+        for (int year = AstronomicalEvents.FIRST_YEAR - 10; year <= AstronomicalEvents.LAST_YEAR + 10; year++) {
+            for (int month = 3; month <= 12; month += 3) {
+                ZonedDateTime expected = (month % 6 == 3)
+                        ? EquinoxDate.calculateEquinoxDate(month, year)
+                        : SolsticeDate.calculateSolsticeDate(month, year);
+                assertEquals(expected.toEpochSecond(), AstronomicalEvents.epochSecond(AstronomicalDate.Algorithm.MEAN, month, year));
+                for (ZoneId zone : zones) {
+                    LocalDateTime actual = AstronomicalEvents.localDateTime(AstronomicalDate.Algorithm.MEAN, month, year, zone);
+                    if (!expected.withZoneSameInstant(zone).toLocalDateTime().equals(actual)) {
+                        assertEquals(year + "-" + month + " " + zone, expected.withZoneSameInstant(zone).toLocalDateTime(), actual);
+                    }
+                }
+            }
+        }
+
+        // the corrected events of 2021 are within two minutes of the published ones
+        String[] published = { "2021-03-20T09:37", "2021-06-21T03:32", "2021-09-22T19:21", "2021-12-21T15:59" };
+        for (int i = 0; i < published.length; i++) {
+            long expected = LocalDateTime.parse(published[i]).toEpochSecond(ZoneOffset.UTC);
+            long actual = AstronomicalEvents.epochSecond(AstronomicalDate.Algorithm.MEEUS, (i + 1) * 3, 2021);
+            assertTrue(published[i] + " " + actual, Math.abs(actual - expected) <= 2 * 60);
+        }
+        // and within half an hour of the mean ones
+        for (int year = 1900; year <= 2100; year++) {
+            for (int month = 3; month <= 12; month += 3) {
+                long mean = AstronomicalEvents.epochSecond(AstronomicalDate.Algorithm.MEAN, month, year);
+                long meeus = AstronomicalEvents.epochSecond(AstronomicalDate.Algorithm.MEEUS, month, year);
+                assertTrue(year + "-" + month, Math.abs(meeus - mean) <= 30 * 60);
+            }
+        }
+
+        Rule rule = parse("march equinox in +09:00");
+        AstronomicalDate date = (AstronomicalDate) rule.getRawDate();
+        assertEquals(AstronomicalDate.Algorithm.MEAN, date.getAlgorithm());
+        date.setAlgorithm(AstronomicalDate.Algorithm.MEEUS);
+        assertEquals(LocalDateTime.parse("2021-03-20T18:38"), date.calculate(2021));
+        assertEquals(LocalDate.parse("2021-03-20"), date.calculateDate(2021));
+
+        // the algorithm is serialized
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RuleSerializer.write(new DataOutputStream(bytes), rule);
+        Rule read = RuleSerializer.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(AstronomicalDate.Algorithm.MEEUS, ((AstronomicalDate) read.getRawDate()).getAlgorithm());
+        assertSameResults(rule, read, 2015, 2030);
+    }
+
     @Test
     public void differentStartTimeTest() {
         testParser("12-31 14:00", LocalDateTime.parse("2021-12-31T14:00"));
@@ -335,4 +632,243 @@ public class UnitTest {
         assertEquals(9, rule2.getEnabledIfIsPublicDateList().get(1)[0]);
         assertEquals(23, rule2.getEnabledIfIsPublicDateList().get(1)[1]);
     }
+
+    @Test
+    public void ruleCacheTest() throws ParseException {
+        RuleCache cache = new RuleCache();
+        Rule first = cache.get("easter -2");
+        Rule second = cache.get("easter -2");
+        assertSame(first, second);
+        assertEquals("easter -2", first.getOriginalRule());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(LocalDate.parse("2021-04-02"), first.calculateDate(2021));
+    }
+
+    @Test
+    public void reusedParserTest() throws ParseException {
+        String[] rules = { "easter -2", "chinese 01-0-01 P2D", "1st monday before 06-01", "10 Tishrei P2D" };
+        for (String input : rules) {
+            Rule expected = parse(input);
+            Rule actual = HolidayParser.parseRule(input);
+            assertEquals(expected.calculate(2021), actual.calculate(2021));
+            assertEquals(expected.calculateEnd(2021), actual.calculateEnd(2021));
+        }
+        // the parser of the thread is still usable after an error
+        try {
+            HolidayParser.parseRule("01-01 – 01-02");
+            fail("A rule with a non-ASCII character should not be parsed");
+        } catch (ParseException | TokenMgrError e) {
+            // expected
+        }
+        assertEquals(LocalDate.parse("2021-04-02"), HolidayParser.parseRule("easter -2").calculateDate(2021));
+    }
+
+    @Test
+    public void ruleSerializerTest() throws Exception {
+        String[] rules = {
+            "01-01", "julian 01-06", "10 Tishrei P2D", "1 Muharram and if sunday then next monday",
+            "chinese 01-0-01 P2D", "korean 8-0-15 P3D", "1 day before vietnamese 1-0-1 P5D",
+            "chinese 5-01 solarterm", "easter -1", "orthodox +9", "march equinox in +09:00",
+            "december solstice", "1st monday before 06-01", "tuesday after 1st monday in November every 4 years since 1848",
+            "substitutes 01-01 if saturday then next monday", "01-01 and if Saturday then previous Friday if Sunday then next Monday",
+            "04-29 and if sunday then next monday #2", "03-08 12:00", "01-02 P5D", "01-06 in non-leap years",
+            "05-04 not on sunday, monday", "01-02 on monday", "bengali-revised 1-18",
+            "09-22 if 09-21 and 09-23 is public holiday"
+        };
+        for (String input : rules) {
+            Rule expected = parse(input);
+            expected.setOriginalRule(input);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            RuleSerializer.write(new DataOutputStream(bytes), expected);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            Rule actual = RuleSerializer.read(buffer);
+            assertEquals(0, buffer.remaining());
+            assertTrue(actual.isFrozen());
+            assertSameResults(expected, actual, 2015, 2030);
+        }
+    }
+
+    /**
+     * Asserts that two rules have the same raw date and the same results, or
+     * throw the same exception, in a range of years.
+     */
+    public static void assertSameResults(Rule expected, Rule actual, int fromYear, int toYear) {
+        assertEquals(expected.getOriginalRule(), actual.getOriginalRule());
+        assertEquals(String.valueOf(expected.getRawDate()), String.valueOf(actual.getRawDate()));
+        for (int year = fromYear; year <= toYear; year++) {
+            assertEquals(expected.getOriginalRule(), resultOf(expected, year), resultOf(actual, year));
+        }
+    }
+
+    private static String resultOf(Rule rule, int year) {
+        try {
+            return rule.calculate(year) + " " + rule.calculateEnd(year) + " "
+                + rule.calculateExtra(year) + " " + rule.isSubstitute(year);
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    public void frozenRuleTest() throws ParseException {
+        Rule rule = new RuleCache().get("08-02 on Monday, Tuesday");
+        assertTrue(rule.isFrozen());
+        try {
+            rule.setOffset(1);
+            fail("Should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            rule.getEnabledWeekdays().add(3);
+            fail("Should have failed");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void ruleResultCacheTest() throws ParseException {
+        RuleCache rules = new RuleCache();
+        RuleResultCache cache = new RuleResultCache();
+        String[] inputs = {
+            "01-01", "easter -2", "chinese 01-0-01 P2D", "1 Muharram and if sunday then next monday",
+            "01-01 and if Saturday then previous Friday if Sunday then next Monday",
+            "substitutes 01-01 if saturday then next monday", "01-06 in non-leap years",
+            "tuesday after 1st monday in November every 4 years since 1848"
+        };
+        for (int pass = 0; pass < 2; pass++) {
+            for (String input : inputs) {
+                Rule rule = rules.get(input);
+                for (int year = 2000; year <= 2030; year++) {
+                    LocalDateTime start = rule.calculate(year);
+                    assertEquals(input, start, cache.getStart(rule, year));
+                    if (start == null) {
+                        assertNull(cache.getEnd(rule, year));
+                        assertNull(cache.getDate(rule, year));
+                        assertTrue(cache.getExtras(rule, year).isEmpty());
+                    } else {
+                        assertEquals(input, rule.calculateEnd(year), cache.getEnd(rule, year));
+                        assertEquals(input, rule.calculateDate(year), cache.getDate(rule, year));
+                        assertEquals(input, rule.calculateExtra(year), cache.getExtras(rule, year));
+                    }
+                }
+            }
+        }
+        int entries = inputs.length * 31;
+        assertEquals(entries, cache.size());
+        assertEquals(entries, cache.getMissCount());
+        assertEquals(entries * 2 * 4 - entries, cache.getHitCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void ruleResultCacheEvictionTest() throws ParseException {
+        Rule rule = new RuleCache().get("easter");
+        for (RuleResultCache.EvictionPolicy policy : RuleResultCache.EvictionPolicy.values()) {
+            RuleResultCache cache = new RuleResultCache(2, policy, 1);
+            cache.getDate(rule, 2020);
+            cache.getDate(rule, 2021);
+            cache.getDate(rule, 2020); // only moves 2020 to the end in LRU order
+            cache.getDate(rule, 2022); // evicts 2021 in LRU order, 2020 in FIFO order
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getEvictionCount());
+            long misses = cache.getMissCount();
+            cache.getDate(rule, 2021);
+            cache.getDate(rule, 2020);
+            if (policy == RuleResultCache.EvictionPolicy.LRU) {
+                // 2021 misses and evicts 2020, which misses again
+                assertEquals(misses + 2, cache.getMissCount());
+            } else {
+                // 2021 hits, 2020 misses
+                assertEquals(misses + 1, cache.getMissCount());
+            }
+        }
+        try {
+            new RuleResultCache(0, RuleResultCache.EvictionPolicy.LRU);
+            fail("Should have failed");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void evaluateTest() throws ParseException {
+        HolidayOccurrence occurrence = parse("substitutes 01-01 if saturday then next monday").evaluate(2022);
+        assertTrue(occurrence.isEnabled());
+        assertNull(occurrence.getDisabledReason());
+        assertTrue(occurrence.isSubstitute());
+        assertEquals(LocalDateTime.parse("2022-01-03T00:00"), occurrence.getStart());
+        assertEquals(LocalDate.parse("2022-01-03"), occurrence.getDate());
+
+        Rule extra = parse("2021-08-01 and if sunday then next tuesday");
+        occurrence = extra.evaluate(2021);
+        assertEquals(extra.calculateEnd(2021), occurrence.getEnd());
+        assertEquals(extra.calculateExtra(2021), occurrence.getExtras());
+        assertEquals(LocalDateTime.parse("2021-08-03T00:00"), occurrence.getExtras().get(0));
+        assertFalse(occurrence.isSubstitute());
+
+        assertDisabled("01-06 in non-leap years", 2020, HolidayOccurrence.DisabledReason.YEAR_TYPE);
+        assertDisabled("05-04 not on sunday, monday", 2025, HolidayOccurrence.DisabledReason.WEEKDAY);
+        assertDisabled("tuesday after 1st monday in November every 4 years since 1848", 2021,
+                        HolidayOccurrence.DisabledReason.YEAR_INTERVAL);
+        assertDisabled("01-25 since 2011", 2010, HolidayOccurrence.DisabledReason.DATE_RANGE);
+    }
+
+    private static void assertDisabled(String input, int year, HolidayOccurrence.DisabledReason reason) throws ParseException {
+        Rule rule = parse(input);
+        HolidayOccurrence occurrence = rule.evaluate(year);
+        assertFalse(occurrence.isEnabled());
+        assertEquals(reason, occurrence.getDisabledReason());
+        assertNull(occurrence.getStart());
+        assertNull(rule.calculateEnd(year));
+        assertTrue(rule.calculateExtra(year).isEmpty());
+        assertTrue(rule.evaluate(year - 1).isEnabled() || rule.evaluate(year + 1).isEnabled());
+    }
+
+    @Test
+    public void compiledRuleTest() throws ParseException {
+        Rule rule = parse("substitutes 01-01 if saturday then next monday");
+        CompiledRule compiled = rule.compile();
+        assertTrue(compiled.isPrimitive());
+        long start = compiled.evaluate(2022);
+        assertEquals(LocalDate.parse("2022-01-03").toEpochDay(), CompiledRule.epochDay(start));
+        assertEquals(0, CompiledRule.minuteOfDay(start));
+        assertEquals(rule.calculate(2022), CompiledRule.toLocalDateTime(start));
+
+        assertCompiled("easter -2", true);
+        assertCompiled("orthodox 49", true);
+        assertCompiled("3rd monday in January", true);
+        assertCompiled("sunday before 06-01", true);
+        assertCompiled("12-24 14:00 if sunday then 00:00", true);
+        assertCompiled("tuesday after 1st monday in November every 4 years since 1848", true);
+        assertCompiled("julian 12-25", false);
+        assertCompiled("1 Muharram", false);
+
+        assertEquals(CompiledRule.NONE, parse("01-25 since 2011").compile().evaluate(2010));
+        assertEquals(CompiledRule.NONE, parse("05-04 not on sunday, monday").compile().evaluate(2025));
+
+        // invalid dates throw as Rule#calculate does
+        try {
+            parse("02-29").compile().evaluate(2021);
+            fail("Should have failed");
+        } catch (DateTimeException e) {
+            // expected
+        }
+        assertEquals(LocalDateTime.parse("2020-02-29T00:00"), CompiledRule.toLocalDateTime(parse("02-29").compile().evaluate(2020)));
+
+        Rule frozen = parse("easter");
+        frozen.freeze();
+        assertSame(frozen.compile(), frozen.compile());
+    }
+
+    private static void assertCompiled(String input, boolean primitive) throws ParseException {
+        Rule rule = parse(input);
+        CompiledRule compiled = rule.compile();
+        assertEquals(input, primitive, compiled.isPrimitive());
+        for (int year = 1900; year <= 2100; year++) {
+            assertEquals(input + " in " + year, rule.calculate(year), CompiledRule.toLocalDateTime(compiled.evaluate(year)));
+        }
+    }
 }